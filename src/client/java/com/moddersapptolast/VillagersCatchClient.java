@@ -1,10 +1,24 @@
 package com.moddersapptolast;
 
+import com.moddersapptolast.client.MonitorHud;
+import com.moddersapptolast.network.MonitorHudPayload;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
+import net.minecraft.resources.ResourceLocation;
 
+/**
+ * Optional client side. Registering the MonitorHudPayload receiver is what tells
+ * the server this client can draw the monitor HUD itself; without the mod the
+ * server keeps using the action bar.
+ */
 public class VillagersCatchClient implements ClientModInitializer {
 	@Override
 	public void onInitializeClient() {
-		// This entrypoint is suitable for setting up client-specific logic, such as rendering.
+		ClientPlayNetworking.registerGlobalReceiver(MonitorHudPayload.TYPE, (payload, context) -> MonitorHud.accept(payload));
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> MonitorHud.reset());
+
+		HudElementRegistry.addLast(ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, "monitor_hud"), MonitorHud::render);
 	}
-}
\ No newline at end of file
+}
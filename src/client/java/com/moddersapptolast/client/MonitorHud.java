@@ -0,0 +1,102 @@
+package com.moddersapptolast.client;
+
+import com.moddersapptolast.network.MonitorHudPayload;
+import net.minecraft.client.DeltaTracker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Iron farm monitor HUD, drawn from the numbers the server sends in
+ * MonitorHudPayload. Only changed fields arrive, so the last value of every
+ * field is kept here; the time since the last spawn is counted locally.
+ *
+ * Everything runs on the client thread (payload handlers and HUD rendering).
+ */
+public final class MonitorHud {
+
+    private static final int X = 4;
+    private static final int Y = 4;
+    private static final int LINE_HEIGHT = 10;
+    private static final int BACKGROUND = 0x80000000;
+    private static final int TEXT_COLOR = 0xFFFFFFFF;
+
+    private static final int[] values = new int[MonitorHudPayload.FIELDS];
+    private static boolean active = false;
+    // Client clock time of the last spawn, or 0 if none yet
+    private static long lastSpawnAt = 0;
+
+    private MonitorHud() {}
+
+    public static void accept(MonitorHudPayload payload) {
+        if (payload.version() != MonitorHudPayload.VERSION) {
+            return;
+        }
+        if (payload.isStopped()) {
+            reset();
+            return;
+        }
+
+        active = true;
+        for (int field = 0; field < MonitorHudPayload.FIELDS; field++) {
+            if (payload.has(field)) {
+                values[field] = payload.values()[field];
+            }
+        }
+        if (payload.has(MonitorHudPayload.LAST_SPAWN_AGE)) {
+            int age = values[MonitorHudPayload.LAST_SPAWN_AGE];
+            lastSpawnAt = age < 0 ? 0 : System.currentTimeMillis() - age * 1000L;
+        }
+    }
+
+    public static void reset() {
+        active = false;
+        lastSpawnAt = 0;
+        Arrays.fill(values, 0);
+    }
+
+    public static void render(GuiGraphics graphics, DeltaTracker deltaTracker) {
+        if (!active) {
+            return;
+        }
+
+        String[] lines = buildLines();
+        Font font = Minecraft.getInstance().font;
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, font.width(line));
+        }
+
+        graphics.fill(X - 2, Y - 2, X + width + 2, Y + lines.length * LINE_HEIGHT, BACKGROUND);
+        for (int i = 0; i < lines.length; i++) {
+            graphics.drawString(font, lines[i], X, Y + i * LINE_HEIGHT, TEXT_COLOR);
+        }
+    }
+
+    private static String[] buildLines() {
+        int golems = values[MonitorHudPayload.GOLEMS];
+        String last = lastSpawnAt == 0
+            ? "§7Esperando spawn..."
+            : "§eÚltimo: §f" + (System.currentTimeMillis() - lastSpawnAt) / 1000 + "s"
+                + (values[MonitorHudPayload.LAST_INTERVAL_TENTHS] > 0
+                    ? " §7(intervalo " + tenths(values[MonitorHudPayload.LAST_INTERVAL_TENTHS]) + "s)" : "");
+
+        int ready = values[MonitorHudPayload.READY_VILLAGERS];
+        int backlog = values[MonitorHudPayload.BACKLOG];
+        return new String[] {
+            "§6⚙ §eGolems: §f" + golems + " §7| §eRate: §f" + tenths(values[MonitorHudPayload.RATE_TENTHS]) + "/min",
+            last,
+            "§ePromedio: §f" + tenths(values[MonitorHudPayload.AVG_INTERVAL_TENTHS]) + "s"
+                + " §7| §eHierro: §f" + values[MonitorHudPayload.IRON_PER_HOUR] + "/h",
+            "§eAldeanos listos: §f" + (ready < 0 ? "?" : ready)
+                + " §7| " + (backlog > 0 ? "§eVivos: §f" + backlog : "§7Vivos: 0")
+        };
+    }
+
+    private static String tenths(int value) {
+        return String.format(Locale.ROOT, "%.1f", value / 10.0);
+    }
+}
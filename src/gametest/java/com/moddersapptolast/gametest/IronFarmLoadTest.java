@@ -0,0 +1,422 @@
+package com.moddersapptolast.gametest;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.moddersapptolast.ModItems;
+import com.moddersapptolast.component.FarmDiscovery;
+import com.moddersapptolast.component.FarmSession;
+import com.moddersapptolast.component.IronFarmMonitor;
+import com.moddersapptolast.component.ModComponents;
+import com.moddersapptolast.component.PlayerMonitorData;
+import com.moddersapptolast.event.VillagerGolemEvents;
+import com.moddersapptolast.perf.HandlerTimings;
+import com.mojang.authlib.GameProfile;
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.player.UseEntityCallback;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.UseOnContext;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Headless load suite: checks that monitoring and nets stay cheap at scale.
+ *
+ * Builds a synthetic world (50 farms, 2,000 villagers, 200 watchers, 16 players
+ * churning villager nets), drives the mod's events at a steady rate for
+ * MEASURE_TICKS ticks and asserts per-tick budgets on the time spent in the
+ * mod's handlers (measured by HandlerTimings).
+ *
+ * Villagers have no AI, so vanilla villager ticking does not drown out the
+ * numbers; golem summons and spawn attempts are fired through the same events
+ * the mixin uses. Watchers are FakePlayers, which are not in the player list,
+ * so per-player action bar packets are not part of the measurement.
+ *
+ * A JSON report is written to -Dvillagerscatch.loadtest.report (default:
+ * villagerscatch-load-report.json in the run directory) so the mod's MSPT
+ * contribution can be compared between releases.
+ *
+ * Run with ./gradlew runGameTest
+ */
+public class IronFarmLoadTest {
+
+    // Scenario size
+    private static final int FARMS_X = 10;
+    private static final int FARMS_Z = 5;                 // 50 farms
+    private static final int VILLAGERS_PER_FARM = 40;     // 2,000 villagers
+    private static final int WATCHERS_PER_FARM = 4;       // 200 watchers (owner + 3 joined)
+    private static final int FARM_SPACING = 24;           // Blocks - more than the discovery link distance
+    private static final int MONITOR_RADIUS = 8;
+    private static final int NET_PLAYERS = 16;
+    private static final int NET_VILLAGERS = 64;
+
+    // Run length
+    private static final int WARMUP_TICKS = 20;
+    private static final int MEASURE_TICKS = 200;
+
+    // Synthetic load per tick
+    private static final int SPAWNS_PER_TICK = 2;
+    private static final int ATTEMPTS_PER_TICK = 40;      // Every villager evaluated every 50 ticks
+    private static final int NET_OPS_PER_TICK = 8;        // Captures + releases
+    private static final int REANALYZE_INTERVAL = 5;      // Ticks between /ironmonitor analyze calls
+    private static final int GOLEM_LIFETIME_TICKS = 40;   // Spawn -> kill chamber
+
+    // Budgets for all mod handlers together, per tick (a tick is 50 ms)
+    private static final long MEAN_TICK_BUDGET_NANOS = 1_000_000L;  // 1 ms
+    private static final long P99_TICK_BUDGET_NANOS = 5_000_000L;   // 5 ms
+
+    private static final String REPORT_PROPERTY = "villagerscatch.loadtest.report";
+    private static final String DEFAULT_REPORT = "villagerscatch-load-report.json";
+
+    private static final VillagerGolemEvents.AttemptOutcome[] ATTEMPT_MIX = {
+        VillagerGolemEvents.AttemptOutcome.NOT_SLEPT,
+        VillagerGolemEvents.AttemptOutcome.GOLEM_NEARBY,
+        VillagerGolemEvents.AttemptOutcome.GOLEM_NEARBY,
+        VillagerGolemEvents.AttemptOutcome.NOT_ENOUGH_VILLAGERS,
+        VillagerGolemEvents.AttemptOutcome.NO_SPAWN_SPACE
+    };
+
+    @GameTest(maxTicks = WARMUP_TICKS + MEASURE_TICKS + 20)
+    public void monitoringAndNetsAtScale(GameTestHelper helper) {
+        Scenario scenario = new Scenario(helper);
+        scenario.build();
+
+        helper.onEachTick(scenario::tick);
+        helper.runAtTickTime(WARMUP_TICKS, scenario::startMeasuring);
+        helper.runAtTickTime(WARMUP_TICKS + MEASURE_TICKS, scenario::finish);
+    }
+
+    private record Farm(BlockPos center, List<Villager> villagers, FakePlayer owner) {}
+
+    private record DyingGolem(long killTick, IronGolem golem) {}
+
+    /**
+     * World, players and cursors of one test run.
+     */
+    private static class Scenario {
+        private final GameTestHelper helper;
+        private final ServerLevel level;
+        private final BlockPos origin;
+
+        private final List<Farm> farms = new ArrayList<>();
+        private final List<Villager> farmVillagers = new ArrayList<>();
+        private final List<FakePlayer> watchers = new ArrayList<>();
+        private final List<FakePlayer> netPlayers = new ArrayList<>();
+        private final ArrayDeque<DyingGolem> golems = new ArrayDeque<>();
+        private final List<long[]> forcedChunks = new ArrayList<>();
+        private AABB netZone;
+        private AABB worldArea;
+
+        private int spawnCursor = 0;
+        private int attemptCursor = 0;
+        private int netCursor = 0;
+        private int releaseCursor = 0;
+        private int reanalyzeCursor = 0;
+        private long spawnEvents = 0;
+        private int discoveredFarms = -1;
+        private Throwable discoveryError = null;
+
+        Scenario(GameTestHelper helper) {
+            this.helper = helper;
+            this.level = helper.getLevel();
+            this.origin = helper.absolutePos(BlockPos.ZERO).above(2);
+        }
+
+        void build() {
+            BlockPos firstFarm = origin.offset(16, 0, 0);
+            BlockPos lastFarm = firstFarm.offset((FARMS_X - 1) * FARM_SPACING, 0, (FARMS_Z - 1) * FARM_SPACING);
+            BlockPos netOrigin = origin.offset(-24, 0, 0);
+            worldArea = new AABB(netOrigin.getX() - 8, origin.getY() - 8, netOrigin.getZ() - 8,
+                lastFarm.getX() + 16, origin.getY() + 16, lastFarm.getZ() + 16);
+            forceChunks(true);
+
+            List<Holder<VillagerProfession>> professions = List.of(
+                profession(VillagerProfession.FARMER),
+                profession(VillagerProfession.LIBRARIAN),
+                profession(VillagerProfession.CLERIC),
+                profession(VillagerProfession.NONE)
+            );
+
+            for (int fx = 0; fx < FARMS_X; fx++) {
+                for (int fz = 0; fz < FARMS_Z; fz++) {
+                    BlockPos center = firstFarm.offset(fx * FARM_SPACING, 0, fz * FARM_SPACING);
+                    List<Villager> villagers = new ArrayList<>();
+                    for (int i = 0; i < VILLAGERS_PER_FARM; i++) {
+                        BlockPos pos = center.offset(i % 8 - 4, 0, i / 8 - 2);
+                        Villager villager = spawnVillager(pos, professions.get(i % professions.size()));
+                        // Three out of four slept recently
+                        if (i % 4 != 0) {
+                            villager.getBrain().setMemory(MemoryModuleType.LAST_SLEPT, level.getGameTime());
+                        }
+                        villagers.add(villager);
+                    }
+                    farmVillagers.addAll(villagers);
+
+                    FakePlayer owner = fakePlayer("lt_watcher_" + watchers.size(), center);
+                    watchers.add(owner);
+                    IronFarmMonitor.startMonitoring(owner, MONITOR_RADIUS);
+                    String sessionName = IronFarmMonitor.getSession(owner).getName();
+                    for (int w = 1; w < WATCHERS_PER_FARM; w++) {
+                        FakePlayer watcher = fakePlayer("lt_watcher_" + watchers.size(), center);
+                        watchers.add(watcher);
+                        IronFarmMonitor.joinSession(watcher, sessionName);
+                        if (w % 2 == 0) {
+                            IronFarmMonitor.setNotificationMode(watcher, PlayerMonitorData.NotificationMode.DIGEST,
+                                PlayerMonitorData.DEFAULT_DIGEST_WINDOW_SECONDS);
+                        }
+                    }
+                    farms.add(new Farm(center, villagers, owner));
+                }
+            }
+
+            // Net churn area: loose villagers that net players capture and release
+            netZone = new AABB(netOrigin.getX(), netOrigin.getY() - 1, netOrigin.getZ(),
+                netOrigin.getX() + 8, netOrigin.getY() + 2, netOrigin.getZ() + 8);
+            for (int i = 0; i < NET_VILLAGERS; i++) {
+                spawnVillager(netSlot(i), professions.get(i % professions.size()));
+            }
+            for (int i = 0; i < NET_PLAYERS; i++) {
+                FakePlayer player = fakePlayer("lt_net_" + i, netOrigin);
+                player.setItemInHand(InteractionHand.MAIN_HAND, new ItemStack(ModItems.VILLAGER_NET));
+                netPlayers.add(player);
+            }
+        }
+
+        void startMeasuring() {
+            HandlerTimings.reset();
+            HandlerTimings.setEnabled(true);
+            // Callbacks run on the mod's main thread queue, which would swallow an assertion
+            // thrown there: the error is kept and asserted in finish()
+            FarmDiscovery.startScan(level.getServer(), candidates -> discoveredFarms = candidates.size(),
+                error -> discoveryError = error);
+        }
+
+        void tick() {
+            if (farms.isEmpty()) {
+                return;
+            }
+            long tick = helper.getTick();
+
+            // Golem summons, round-robin over the farms
+            for (int i = 0; i < SPAWNS_PER_TICK; i++) {
+                Farm farm = farms.get(spawnCursor++ % farms.size());
+                IronGolem golem = new IronGolem(EntityType.IRON_GOLEM, level);
+                golem.setNoAi(true);
+                golem.snapTo(farm.center().getX() + 0.5, farm.center().getY(), farm.center().getZ() + 0.5, 0, 0);
+                level.addFreshEntity(golem);
+                VillagerGolemEvents.SummonReason reason = spawnCursor % 3 == 0
+                    ? VillagerGolemEvents.SummonReason.PANIC
+                    : VillagerGolemEvents.SummonReason.GOSSIP;
+                VillagerGolemEvents.GOLEM_SUMMONED.invoker()
+                    .onGolemSummoned(level, farm.villagers().get(0), golem, reason);
+                golems.add(new DyingGolem(tick + GOLEM_LIFETIME_TICKS, golem));
+                spawnEvents++;
+            }
+
+            // Kill chamber
+            while (!golems.isEmpty() && golems.peek().killTick() <= tick) {
+                golems.poll().golem().kill(level);
+            }
+
+            // Spawn attempts, round-robin over all farm villagers
+            for (int i = 0; i < ATTEMPTS_PER_TICK; i++) {
+                Villager villager = farmVillagers.get(attemptCursor % farmVillagers.size());
+                VillagerGolemEvents.SPAWN_ATTEMPT.invoker().onSpawnAttempt(level, villager,
+                    VillagerGolemEvents.SummonReason.GOSSIP, ATTEMPT_MIX[attemptCursor % ATTEMPT_MIX.length]);
+                attemptCursor++;
+            }
+
+            // A watcher re-analyzing their farm
+            if (tick % REANALYZE_INTERVAL == 0) {
+                IronFarmMonitor.reanalyzeFarm(farms.get(reanalyzeCursor++ % farms.size()).owner());
+            }
+
+            churnNets();
+        }
+
+        private void churnNets() {
+            List<Villager> loose = level.getEntitiesOfClass(Villager.class, netZone);
+            for (int i = 0; i < NET_OPS_PER_TICK; i++) {
+                FakePlayer player = netPlayers.get(netCursor++ % netPlayers.size());
+                ItemStack net = player.getMainHandItem();
+                List<CompoundTag> held = net.get(ModComponents.CAPTURED_VILLAGERS);
+                boolean empty = held == null || held.isEmpty();
+
+                // Alternate captures and releases; an empty net always captures
+                if ((empty || netCursor % 2 == 0) && !loose.isEmpty()) {
+                    Villager target = loose.remove(loose.size() - 1);
+                    UseEntityCallback.EVENT.invoker().interact(player, level, InteractionHand.MAIN_HAND, target, null);
+                } else if (!empty) {
+                    BlockPos floor = netSlot(releaseCursor++ % NET_VILLAGERS).below();
+                    net.getItem().useOn(new UseOnContext(player, InteractionHand.MAIN_HAND,
+                        new BlockHitResult(Vec3.atCenterOf(floor), Direction.UP, floor, false)));
+                }
+            }
+        }
+
+        void finish() {
+            HandlerTimings.setEnabled(false);
+
+            long sessionSpawns = 0;
+            int sessionCount = 0;
+            for (FarmSession session : IronFarmMonitor.getSessions()) {
+                sessionSpawns += session.getGolemCount();
+                sessionCount++;
+            }
+
+            JsonObject report = buildReport(sessionCount, sessionSpawns);
+            Path reportPath = writeReport(report);
+            cleanup();
+
+            double mean = HandlerTimings.getMeanTickNanos();
+            long p99 = HandlerTimings.getPercentileTickNanos(99);
+            helper.assertTrue(discoveryError == null, Component.literal(
+                "Farm discovery failed: " + discoveryError));
+            helper.assertTrue(sessionCount == farms.size(), Component.literal(
+                "Expected one shared session per farm, got " + sessionCount));
+            helper.assertTrue(sessionSpawns == spawnEvents, Component.literal(
+                "Sessions recorded " + sessionSpawns + " spawns out of " + spawnEvents));
+            helper.assertTrue(mean <= MEAN_TICK_BUDGET_NANOS, Component.literal(String.format(
+                "Mean handler time %.3f ms/tick over budget %.3f ms (report: %s)",
+                mean / 1e6, MEAN_TICK_BUDGET_NANOS / 1e6, reportPath)));
+            helper.assertTrue(p99 <= P99_TICK_BUDGET_NANOS, Component.literal(String.format(
+                "p99 handler time %.3f ms/tick over budget %.3f ms (report: %s)",
+                p99 / 1e6, P99_TICK_BUDGET_NANOS / 1e6, reportPath)));
+            helper.succeed();
+        }
+
+        private JsonObject buildReport(int sessionCount, long sessionSpawns) {
+            JsonObject scenario = new JsonObject();
+            scenario.addProperty("farms", farms.size());
+            scenario.addProperty("villagers", farmVillagers.size() + NET_VILLAGERS);
+            scenario.addProperty("watchers", watchers.size());
+            scenario.addProperty("sessions", sessionCount);
+            scenario.addProperty("net_players", netPlayers.size());
+            scenario.addProperty("measure_ticks", MEASURE_TICKS);
+            scenario.addProperty("spawn_events", spawnEvents);
+            scenario.addProperty("session_spawns", sessionSpawns);
+            scenario.addProperty("discovered_farms", discoveredFarms);
+
+            JsonObject budgets = new JsonObject();
+            budgets.addProperty("mean_tick_nanos", MEAN_TICK_BUDGET_NANOS);
+            budgets.addProperty("p99_tick_nanos", P99_TICK_BUDGET_NANOS);
+
+            JsonObject report = new JsonObject();
+            report.addProperty("mod_version", FabricLoader.getInstance().getModContainer("villagerscatch")
+                .map(mod -> mod.getMetadata().getVersion().getFriendlyString())
+                .orElse("unknown"));
+            report.addProperty("timestamp", Instant.now().toString());
+            report.add("scenario", scenario);
+            report.add("budgets", budgets);
+            report.add("timings", HandlerTimings.toJson());
+            return report;
+        }
+
+        private Path writeReport(JsonObject report) {
+            Path path = Path.of(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT)).toAbsolutePath();
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                Files.writeString(path, new GsonBuilder().setPrettyPrinting().create().toJson(report),
+                    StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write load test report to " + path, e);
+            }
+            return path;
+        }
+
+        /**
+         * Removes everything the scenario added outside the test structure.
+         */
+        private void cleanup() {
+            for (FakePlayer player : watchers) {
+                IronFarmMonitor.cleanup(player.getUUID());
+            }
+            for (Villager villager : level.getEntitiesOfClass(Villager.class, worldArea)) {
+                villager.discard();
+            }
+            for (IronGolem golem : level.getEntitiesOfClass(IronGolem.class, worldArea)) {
+                golem.discard();
+            }
+            for (ItemEntity item : level.getEntitiesOfClass(ItemEntity.class, worldArea)) {
+                item.discard();
+            }
+            forceChunks(false);
+        }
+
+        private void forceChunks(boolean forced) {
+            if (forced) {
+                int minX = SectionPos.blockToSectionCoord(worldArea.minX);
+                int minZ = SectionPos.blockToSectionCoord(worldArea.minZ);
+                int maxX = SectionPos.blockToSectionCoord(worldArea.maxX);
+                int maxZ = SectionPos.blockToSectionCoord(worldArea.maxZ);
+                for (int x = minX; x <= maxX; x++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        if (level.setChunkForced(x, z, true)) {
+                            forcedChunks.add(new long[]{x, z});
+                        }
+                    }
+                }
+            } else {
+                for (long[] chunk : forcedChunks) {
+                    level.setChunkForced((int) chunk[0], (int) chunk[1], false);
+                }
+                forcedChunks.clear();
+            }
+        }
+
+        private Villager spawnVillager(BlockPos pos, Holder<VillagerProfession> profession) {
+            Villager villager = new Villager(EntityType.VILLAGER, level);
+            villager.setNoAi(true);
+            villager.setVillagerData(villager.getVillagerData().withProfession(profession));
+            villager.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, 0, 0);
+            level.addFreshEntity(villager);
+            return villager;
+        }
+
+        private FakePlayer fakePlayer(String name, BlockPos pos) {
+            UUID uuid = UUID.nameUUIDFromBytes(("villagerscatch-loadtest:" + name).getBytes(StandardCharsets.UTF_8));
+            FakePlayer player = FakePlayer.get(level, new GameProfile(uuid, name));
+            player.setPos(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5);
+            return player;
+        }
+
+        private Holder<VillagerProfession> profession(ResourceKey<VillagerProfession> key) {
+            return level.registryAccess().lookupOrThrow(Registries.VILLAGER_PROFESSION).getOrThrow(key);
+        }
+
+        private BlockPos netSlot(int index) {
+            return BlockPos.containing(netZone.minX, netZone.minY + 1, netZone.minZ).offset(index % 8, 0, index / 8);
+        }
+    }
+}
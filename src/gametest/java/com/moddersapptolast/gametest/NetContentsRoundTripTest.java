@@ -0,0 +1,244 @@
+package com.moddersapptolast.gametest;
+
+import com.moddersapptolast.ModBlocks;
+import com.moddersapptolast.block.VillagerVaultBlockEntity;
+import com.moddersapptolast.component.NetContents;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.ProblemReporter;
+import net.minecraft.world.level.storage.TagValueInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round trips of the net and vault storage format (NetContents.CODEC).
+ *
+ * Covers the packed format as written today (per-element references), nets
+ * written by older versions (a plain list, or whole-value references) and
+ * dangling references, which must drop the field or element rather than fail
+ * the whole net. Decoded villagers are compared with copies taken before
+ * packing, so a codec that mutated its input would fail too.
+ *
+ * Run with ./gradlew runGameTest
+ */
+public class NetContentsRoundTripTest {
+
+    private static final String REF_KEY = "villagerscatch:ref";
+
+    @GameTest
+    public void packedNetRoundTrip(GameTestHelper helper) {
+        List<CompoundTag> villagers = sampleVillagers();
+        List<CompoundTag> expected = copies(villagers);
+
+        Tag encoded = NetContents.CODEC.encodeStart(NbtOps.INSTANCE, villagers).getOrThrow();
+        helper.assertTrue(villagers.equals(expected), Component.literal("Packing modified the villagers"));
+        helper.assertTrue(encoded instanceof CompoundTag, Component.literal("Net was not written in the packed format"));
+
+        CompoundTag packed = (CompoundTag) encoded;
+        // 3 offers, 2 gossips and 1 attribute are distinct among the villagers' elements
+        int chunks = packed.getListOrEmpty("chunks").size();
+        helper.assertTrue(chunks == 6, Component.literal("Expected 6 shared elements, found " + chunks));
+        CompoundTag entry = packed.getListOrEmpty("entries").getCompoundOrEmpty(1);
+        for (Tag recipe : entry.getCompoundOrEmpty("Offers").getListOrEmpty("Recipes")) {
+            helper.assertTrue(isPointer(recipe), Component.literal("Offer was not replaced with a reference: " + recipe));
+        }
+
+        List<CompoundTag> decoded = NetContents.CODEC.parse(NbtOps.INSTANCE, packed).getOrThrow();
+        helper.assertTrue(decoded.equals(expected), Component.literal("Decoded net differs: " + decoded));
+
+        // Equal elements are decoded into one shared instance
+        Tag first = decoded.get(0).getCompoundOrEmpty("Offers").getListOrEmpty("Recipes").get(0);
+        Tag second = decoded.get(1).getCompoundOrEmpty("Offers").getListOrEmpty("Recipes").get(0);
+        helper.assertTrue(first == second, Component.literal("Duplicate offers were not interned"));
+
+        helper.succeed();
+    }
+
+    @GameTest
+    public void legacyListStillLoads(GameTestHelper helper) {
+        List<CompoundTag> expected = copies(sampleVillagers());
+
+        Tag legacy = CompoundTag.CODEC.listOf().encodeStart(NbtOps.INSTANCE, sampleVillagers()).getOrThrow();
+        List<CompoundTag> decoded = NetContents.CODEC.parse(NbtOps.INSTANCE, legacy).getOrThrow();
+        helper.assertTrue(decoded.equals(expected), Component.literal("Legacy net differs: " + decoded));
+
+        helper.succeed();
+    }
+
+    @GameTest
+    public void wholeValueReferencesStillLoad(GameTestHelper helper) {
+        CompoundTag expected = villager("Ana", List.of(offer("minecraft:emerald", 1, "minecraft:bread")),
+            List.of(gossip(1, "minor_positive", 25)));
+
+        ListTag chunks = new ListTag();
+        chunks.add(chunk(expected.get("Offers").copy()));
+        chunks.add(chunk(expected.get("Gossips").copy()));
+        CompoundTag entry = expected.copy();
+        entry.put("Offers", pointer(0));
+        entry.put("Gossips", pointer(1));
+
+        List<CompoundTag> decoded = NetContents.CODEC.parse(NbtOps.INSTANCE, packed(chunks, entry)).getOrThrow();
+        helper.assertTrue(decoded.equals(List.of(expected)), Component.literal("Whole-value net differs: " + decoded));
+
+        helper.succeed();
+    }
+
+    @GameTest
+    public void danglingReferencesAreDropped(GameTestHelper helper) {
+        CompoundTag offer = offer("minecraft:emerald", 1, "minecraft:bread");
+
+        ListTag chunks = new ListTag();
+        chunks.add(chunk(offer.copy()));
+        CompoundTag entry = villager("Ana", List.of(), List.of());
+        ListTag recipes = new ListTag();
+        recipes.add(pointer(0));
+        recipes.add(pointer(7));   // Dangling element
+        recipes.add(pointer(0));
+        entry.getCompoundOrEmpty("Offers").put("Recipes", recipes);
+        entry.put("Gossips", pointer(9));   // Dangling whole value
+
+        // Only the dangling element and field are lost, duplicates included
+        CompoundTag expected = villager("Ana", List.of(offer, offer), List.of());
+        expected.remove("Gossips");
+
+        List<CompoundTag> decoded = NetContents.CODEC.parse(NbtOps.INSTANCE, packed(chunks, entry)).getOrThrow();
+        helper.assertTrue(decoded.equals(List.of(expected)), Component.literal("Dangling net differs: " + decoded));
+
+        helper.succeed();
+    }
+
+    @GameTest
+    public void vaultRoundTrip(GameTestHelper helper) {
+        BlockPos pos = helper.absolutePos(BlockPos.ZERO);
+        VillagerVaultBlockEntity vault = new VillagerVaultBlockEntity(pos, ModBlocks.VILLAGER_VAULT.defaultBlockState());
+        List<CompoundTag> villagers = sampleVillagers();
+        List<CompoundTag> expected = copies(villagers);
+        vault.deposit(villagers);
+
+        CompoundTag saved = vault.saveWithoutMetadata(helper.getLevel().registryAccess());
+        VillagerVaultBlockEntity loaded = new VillagerVaultBlockEntity(pos, ModBlocks.VILLAGER_VAULT.defaultBlockState());
+        loaded.loadWithComponents(TagValueInput.create(ProblemReporter.DISCARDING, helper.getLevel().registryAccess(), saved));
+
+        helper.assertTrue(loaded.getVillagers().equals(expected),
+            Component.literal("Vault villagers differ after reload: " + loaded.getVillagers()));
+
+        helper.succeed();
+    }
+
+    // ============ Sample data ============
+
+    /**
+     * Three villagers sharing offers, a gossip and their attribute, as captured
+     * villagers of one trading hall do.
+     */
+    private static List<CompoundTag> sampleVillagers() {
+        CompoundTag bread = offer("minecraft:emerald", 1, "minecraft:bread");
+        CompoundTag paper = offer("minecraft:paper", 24, "minecraft:emerald");
+        CompoundTag glass = offer("minecraft:emerald", 1, "minecraft:glass");
+        CompoundTag cured = gossip(1, "major_positive", 20);
+        CompoundTag traded = gossip(2, "trading", 5);
+
+        List<CompoundTag> villagers = new ArrayList<>();
+        villagers.add(villager("Ana", List.of(bread, paper), List.of(cured)));
+        villagers.add(villager("Beto", List.of(bread, glass), List.of(cured, traded)));
+        villagers.add(villager("Carla", List.of(paper, paper), List.of()));
+        return villagers;
+    }
+
+    private static CompoundTag villager(String name, List<CompoundTag> offers, List<CompoundTag> gossips) {
+        CompoundTag villager = new CompoundTag();
+        villager.putString("id", "minecraft:villager");
+        villager.putString("CustomName", name);
+        villager.putInt("Xp", 10);
+
+        CompoundTag offersTag = new CompoundTag();
+        ListTag recipes = new ListTag();
+        for (CompoundTag offer : offers) {
+            recipes.add(offer.copy());
+        }
+        offersTag.put("Recipes", recipes);
+        villager.put("Offers", offersTag);
+
+        ListTag gossipsTag = new ListTag();
+        for (CompoundTag gossip : gossips) {
+            gossipsTag.add(gossip.copy());
+        }
+        villager.put("Gossips", gossipsTag);
+
+        ListTag attributes = new ListTag();
+        CompoundTag speed = new CompoundTag();
+        speed.putString("id", "minecraft:movement_speed");
+        speed.putDouble("base", 0.5);
+        attributes.add(speed);
+        villager.put("attributes", attributes);
+        return villager;
+    }
+
+    private static CompoundTag offer(String buy, int count, String sell) {
+        CompoundTag buyTag = new CompoundTag();
+        buyTag.putString("id", buy);
+        buyTag.putInt("count", count);
+        CompoundTag sellTag = new CompoundTag();
+        sellTag.putString("id", sell);
+        sellTag.putInt("count", 1);
+
+        CompoundTag offer = new CompoundTag();
+        offer.put("buy", buyTag);
+        offer.put("sell", sellTag);
+        offer.putInt("maxUses", 16);
+        offer.putInt("xp", 2);
+        return offer;
+    }
+
+    private static CompoundTag gossip(int player, String type, int value) {
+        CompoundTag gossip = new CompoundTag();
+        gossip.putIntArray("Target", new int[] {player, 0, 0, player});
+        gossip.putString("Type", type);
+        gossip.putInt("Value", value);
+        return gossip;
+    }
+
+    private static List<CompoundTag> copies(List<CompoundTag> tags) {
+        List<CompoundTag> copies = new ArrayList<>(tags.size());
+        for (CompoundTag tag : tags) {
+            copies.add(tag.copy());
+        }
+        return copies;
+    }
+
+    // ============ Packed format by hand ============
+
+    private static CompoundTag packed(ListTag chunks, CompoundTag... entries) {
+        ListTag entryList = new ListTag();
+        for (CompoundTag entry : entries) {
+            entryList.add(entry);
+        }
+        CompoundTag packed = new CompoundTag();
+        packed.put("chunks", chunks);
+        packed.put("entries", entryList);
+        return packed;
+    }
+
+    private static CompoundTag chunk(Tag value) {
+        CompoundTag chunk = new CompoundTag();
+        chunk.put("v", value);
+        return chunk;
+    }
+
+    private static CompoundTag pointer(int ref) {
+        CompoundTag pointer = new CompoundTag();
+        pointer.putInt(REF_KEY, ref);
+        return pointer;
+    }
+
+    private static boolean isPointer(Tag tag) {
+        return tag instanceof CompoundTag pointer && pointer.size() == 1 && pointer.contains(REF_KEY);
+    }
+}
@@ -0,0 +1,43 @@
+package com.moddersapptolast;
+
+import com.moddersapptolast.block.VillagerVaultBlock;
+import com.moddersapptolast.block.VillagerVaultBlockEntity;
+import eu.pb4.polymer.core.api.block.PolymerBlockUtils;
+import net.fabricmc.fabric.api.object.builder.v1.block.entity.FabricBlockEntityTypeBuilder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.SoundType;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+
+import java.util.function.Function;
+
+public class ModBlocks {
+
+    public static final Block VILLAGER_VAULT = register("villager_vault", VillagerVaultBlock::new,
+            BlockBehaviour.Properties.of().strength(2.5f).sound(SoundType.WOOD));
+
+    public static final BlockEntityType<VillagerVaultBlockEntity> VILLAGER_VAULT_ENTITY = Registry.register(
+            BuiltInRegistries.BLOCK_ENTITY_TYPE,
+            ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, "villager_vault"),
+            FabricBlockEntityTypeBuilder.create(VillagerVaultBlockEntity::new, VILLAGER_VAULT).build()
+    );
+
+
+    public static Block register(String name, Function<BlockBehaviour.Properties, Block> blockFactory, BlockBehaviour.Properties settings) {
+        ResourceKey<Block> blockKey = ResourceKey.create(Registries.BLOCK, ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, name));
+        Block block = blockFactory.apply(settings.setId(blockKey));
+        Registry.register(BuiltInRegistries.BLOCK, blockKey, block);
+        return block;
+    }
+
+    public static void initialize() {
+        // Los clientes vanilla no conocen este block entity: Polymer evita enviarlo
+        PolymerBlockUtils.registerBlockEntity(VILLAGER_VAULT_ENTITY);
+    }
+
+}
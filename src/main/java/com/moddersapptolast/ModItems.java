@@ -2,6 +2,7 @@ package com.moddersapptolast;
 
 import com.moddersapptolast.item.VillagerNetItem;
 import com.moddersapptolast.item.ZombieNetItem;
+import eu.pb4.polymer.core.api.item.PolymerBlockItem;
 import net.fabricmc.fabric.api.itemgroup.v1.ItemGroupEvents;
 import net.fabricmc.fabric.api.registry.CompostingChanceRegistry;
 import net.fabricmc.fabric.api.registry.FuelRegistryEvents;
@@ -12,6 +13,7 @@ import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
 
 import java.util.function.Function;
 
@@ -23,6 +25,11 @@ public class ModItems {
 
     public static final Item ZOMBIE_NET = register("zombie_net", ZombieNetItem::new, new Item.Properties());
 
+    // Los clientes vanilla verán este bloque como un barril
+    public static final Item VILLAGER_VAULT = register("villager_vault",
+            settings -> new PolymerBlockItem(ModBlocks.VILLAGER_VAULT, settings, Items.BARREL),
+            new Item.Properties().useBlockDescriptionPrefix());
+
 
     public static Item register(String name, Function<Item.Properties, Item> itemFactory, Item.Properties settings) {
         ResourceKey<Item> itemKey = ResourceKey.create(Registries.ITEM, ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, name));
@@ -41,6 +48,9 @@ public class ModItems {
                     itemGroup.accept(ModItems.ZOMBIE_NET);
                 });
 
+        ItemGroupEvents.modifyEntriesEvent(CreativeModeTabs.FUNCTIONAL_BLOCKS)
+                .register((itemGroup) -> itemGroup.accept(ModItems.VILLAGER_VAULT));
+
         CompostingChanceRegistry.INSTANCE.add(ModItems.SUSPICIOUS_SUBSTANCE, 0.8f);
 
         FuelRegistryEvents.BUILD.register((builder, context) -> {
@@ -1,8 +1,20 @@
 package com.moddersapptolast;
 
+import com.moddersapptolast.component.AreaOutline;
+import com.moddersapptolast.component.CaptureProfiles;
+import com.moddersapptolast.component.FarmAnalysisCache;
+import com.moddersapptolast.component.FarmDiscovery;
 import com.moddersapptolast.component.ModComponents;
 import com.moddersapptolast.component.IronFarmMonitor;
 import com.moddersapptolast.component.IronMonitorCommand;
+import com.moddersapptolast.component.NetContents;
+import com.moddersapptolast.component.ReadinessSampler;
+import com.moddersapptolast.component.TradeIndex;
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.task.ModExecutors;
+import com.moddersapptolast.task.TickScheduler;
+import com.moddersapptolast.world.EntityDensity;
 import eu.pb4.polymer.resourcepack.api.PolymerResourcePackUtils;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.player.UseEntityCallback;
@@ -25,10 +37,16 @@ import java.util.List;
 
 public class VillagersCatch implements ModInitializer {
 	public static final String MOD_ID = "villagerscatch";
-	public static final int MAX_ENTITIES = 64;
 
 	public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
+	/**
+	 * Entities a single net can hold (nets.maxEntities in the config).
+	 */
+	public static int maxEntities() {
+		return ModConfig.get().nets.maxEntities;
+	}
+
 	@Override
 	public void onInitialize() {
 		LOGGER.info("Hello Fabric world!");
@@ -37,6 +55,8 @@ public class VillagersCatch implements ModInitializer {
 		// NO usamos markAsRequired() para permitir que clientes vanilla entren sin problemas
 		PolymerResourcePackUtils.addModAssets(MOD_ID);
 
+		ModBlocks.initialize();
+
 		LOGGER.info("Initialize my item");
 		ModItems.initialize();
 		LOGGER.info("Finish Initialize.........");
@@ -44,10 +64,22 @@ public class VillagersCatch implements ModInitializer {
 		LOGGER.info("Initialize my Data component");
 		ModComponents.initialize();
 		LOGGER.info("Finish Initialize My Data Components.........");
+		ModConfig.load();
+		CaptureProfiles.load();
+
+		HandlerTimings.initialize();
+		TickScheduler.initialize();
+		ModExecutors.initialize();
+		EntityDensity.initialize();
 
 		LOGGER.info("Initialize Iron Farm Monitor");
 		IronFarmMonitor.initialize();
+		AreaOutline.initialize();
+		ReadinessSampler.initialize();
+		FarmDiscovery.initialize();
+		FarmAnalysisCache.initialize();
 		IronMonitorCommand.register();
+		VillagersCatchCommand.register();
 		LOGGER.info("Finish Initialize Iron Farm Monitor.........");
 
 		registerEvents();
@@ -60,12 +92,14 @@ public class VillagersCatch implements ModInitializer {
 
 			// --- CAPTURA DE ALDEANOS ---
 			if (stack.is(ModItems.VILLAGER_NET) && entity instanceof Villager) {
-				return captureEntity(player, world, stack, entity, ModComponents.CAPTURED_VILLAGERS, "Aldeano");
+				return captureEntity(player, world, stack, entity, ModComponents.CAPTURED_VILLAGERS,
+						CaptureProfiles.NetType.VILLAGER, "Aldeano");
 			}
 
 			// --- CAPTURA DE ZOMBIES ---
 			if (stack.is(ModItems.ZOMBIE_NET) && entity instanceof Zombie) {
-				return captureEntity(player, world, stack, entity, ModComponents.CAPTURED_ZOMBIES, "Zombie");
+				return captureEntity(player, world, stack, entity, ModComponents.CAPTURED_ZOMBIES,
+						CaptureProfiles.NetType.ZOMBIE, "Zombie");
 			}
 
 			return InteractionResult.PASS;
@@ -78,6 +112,7 @@ public class VillagersCatch implements ModInitializer {
 			ItemStack stack,
 			net.minecraft.world.entity.Entity entity,
 			net.minecraft.core.component.DataComponentType<List<CompoundTag>> componentType,
+			CaptureProfiles.NetType netType,
 			String entityName) {
 
 		List<CompoundTag> entities = stack.get(componentType);
@@ -85,14 +120,16 @@ public class VillagersCatch implements ModInitializer {
 			entities = new ArrayList<>();
 		}
 
-		if (entities.size() >= MAX_ENTITIES) {
+		int maxEntities = maxEntities();
+		if (entities.size() >= maxEntities) {
 			if (!world.isClientSide() && player instanceof ServerPlayer sp) {
-				sp.sendSystemMessage(Component.literal("La red esta llena! (64/64)"), true);
+				sp.sendSystemMessage(Component.literal("La red esta llena! (" + entities.size() + "/" + maxEntities + ")"), true);
 			}
 			return InteractionResult.FAIL;
 		}
 
 		if (!world.isClientSide() && player instanceof ServerPlayer serverPlayer) {
+			long start = HandlerTimings.start();
 			try (final ProblemReporter.ScopedCollector reporter =
 					new ProblemReporter.ScopedCollector(entity.problemPath(), LOGGER)) {
 
@@ -103,6 +140,11 @@ public class VillagersCatch implements ModInitializer {
 				CompoundTag nbt = output.buildResult();
 
 				nbt.putString("id", BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()).toString());
+				CaptureProfiles.apply(netType, nbt);
+				if (entity instanceof Villager) {
+					nbt.put(TradeIndex.KEY, TradeIndex.build(nbt, entity.registryAccess()));
+				}
+				NetContents.internSharedTags(nbt);
 
 				List<CompoundTag> newList = new ArrayList<>(entities);
 				newList.add(nbt);
@@ -112,10 +154,11 @@ public class VillagersCatch implements ModInitializer {
 				entity.discard();
 
 				serverPlayer.sendSystemMessage(Component.literal(
-						entityName + " atrapado! (" + newList.size() + "/" + MAX_ENTITIES + ")"), true);
+						entityName + " atrapado! (" + newList.size() + "/" + maxEntities + ")"), true);
 
 				LOGGER.info("{} capturado! Total: {}", entityName, newList.size());
 			}
+			HandlerTimings.stop(HandlerTimings.Handler.NET_CAPTURE, start);
 
 			return InteractionResult.SUCCESS;
 		}
@@ -0,0 +1,476 @@
+package com.moddersapptolast;
+
+import com.moddersapptolast.component.CaptureProfiles;
+import com.moddersapptolast.component.ChatReport;
+import com.moddersapptolast.component.ModComponents;
+import com.moddersapptolast.component.NetContents;
+import com.moddersapptolast.component.TradeIndex;
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.item.NetRelease;
+import com.moddersapptolast.item.NetSummaries;
+import com.moddersapptolast.task.ModExecutors;
+import com.moddersapptolast.task.TickScheduler;
+import com.moddersapptolast.world.EntityDensity;
+import com.moddersapptolast.world.ReleaseGuard;
+import com.moddersapptolast.world.SafeSpot;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandBuildContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.commands.arguments.UuidArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.UUIDUtil;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * /villagerscatch - Commands for the mod itself: searching villager nets, and
+ * server administration (as opposed to /ironmonitor, which is for players
+ * watching their farms).
+ *
+ * Uses Fabric Command API v2, same structure as IronMonitorCommand.
+ */
+public class VillagersCatchCommand {
+
+    private static final int MAX_LISTED_TASKS = 8;
+    private static final int MAX_FIND_RESULTS = 10;
+    private static final int DEFAULT_DENSITY_TOP = 5;
+
+    /**
+     * Registers all /villagerscatch commands.
+     * Called from main mod initializer.
+     */
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register(VillagersCatchCommand::registerCommands);
+    }
+
+    private static void registerCommands(
+            CommandDispatcher<CommandSourceStack> dispatcher,
+            CommandBuildContext registryAccess,
+            Commands.CommandSelection environment) {
+
+        dispatcher.register(
+            Commands.literal("villagerscatch")
+                // /villagerscatch find <query> - Search the villager net in hand by profession/trade
+                .then(Commands.literal("find")
+                    .then(Commands.argument("query", StringArgumentType.greedyString())
+                        .executes(ctx -> executeFind(ctx, StringArgumentType.getString(ctx, "query")))))
+
+                // /villagerscatch release <uuid> - Release one specific villager from the net in hand
+                .then(Commands.literal("release")
+                    .then(Commands.argument("uuid", UuidArgument.uuid())
+                        .executes(ctx -> executeRelease(ctx, UuidArgument.getUuid(ctx, "uuid")))))
+
+                // /villagerscatch scheduler - Deferred work queue and tick budget (admins only)
+                .then(Commands.literal("scheduler")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(VillagersCatchCommand::executeScheduler))
+
+                // /villagerscatch netstore - Shared sub-tag store of captured entities (admins only)
+                .then(Commands.literal("netstore")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(VillagersCatchCommand::executeNetStore))
+
+                // /villagerscatch capture - Capture pruning profiles and bytes saved (admins only)
+                .then(Commands.literal("capture")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(VillagersCatchCommand::executeCapture))
+
+                // /villagerscatch density [villagers|zombies|golems|mobs] [top] - Densest chunks (admins only)
+                .then(Commands.literal("density")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(ctx -> executeDensity(ctx, EntityDensity.Category.VILLAGERS, DEFAULT_DENSITY_TOP))
+                    .then(Commands.argument("category", StringArgumentType.word())
+                        .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(
+                            List.of("villagers", "zombies", "golems", "mobs"), builder))
+                        .executes(ctx -> executeDensity(ctx, parseCategory(ctx), DEFAULT_DENSITY_TOP))
+                        .then(Commands.argument("top", IntegerArgumentType.integer(1, 50))
+                            .executes(ctx -> executeDensity(ctx, parseCategory(ctx),
+                                IntegerArgumentType.getInteger(ctx, "top"))))))
+
+                // /villagerscatch reload - Re-read the config files (admins only)
+                .then(Commands.literal("reload")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(VillagersCatchCommand::executeReload))
+
+                // /villagerscatch help
+                .then(Commands.literal("help")
+                    .executes(VillagersCatchCommand::executeHelp))
+
+                // Default: show help
+                .executes(VillagersCatchCommand::executeHelp)
+        );
+    }
+
+    /**
+     * /villagerscatch find <query> - List the villagers in the net in hand whose
+     * profession or trades match every word of the query, with a release link.
+     *
+     * Uses the index stored at capture time; villagers captured before indexing
+     * existed are indexed once here and the net is updated.
+     */
+    private static int executeFind(CommandContext<CommandSourceStack> ctx, String query) {
+        CommandSourceStack source = ctx.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+
+        ItemStack net = player.getMainHandItem();
+        List<CompoundTag> entities = net.is(ModItems.VILLAGER_NET) ? net.get(ModComponents.CAPTURED_VILLAGERS) : null;
+        if (entities == null || entities.isEmpty()) {
+            source.sendFailure(Component.literal("§cNecesitas una red de aldeanos con aldeanos en la mano."));
+            return 0;
+        }
+
+        List<CompoundTag> indexed = null;
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Búsqueda: §e" + query + " §6═══");
+        int found = 0;
+
+        for (int i = 0; i < entities.size(); i++) {
+            CompoundTag record = entities.get(i);
+            CompoundTag index = TradeIndex.get(record);
+            if (index == null) {
+                index = TradeIndex.build(record, source.registryAccess());
+                if (indexed == null) {
+                    indexed = new ArrayList<>(entities);
+                }
+                indexed.set(i, TradeIndex.withIndex(record, index));
+            }
+
+            if (!TradeIndex.matches(index, query)) {
+                continue;
+            }
+            if (++found > MAX_FIND_RESULTS) {
+                continue;
+            }
+
+            String profession = index.getStringOr("profession", "minecraft:none");
+            MutableComponent line = Component.literal("§e#" + (i + 1) + " §f" +
+                profession.substring(profession.indexOf(':') + 1) + " §7nivel " + index.getIntOr("level", 1) +
+                "§7: §f" + TradeIndex.describeTerms(index, 4) + " ");
+            record.read("UUID", UUIDUtil.CODEC).ifPresent(uuid -> line.append(ChatReport.command(
+                "§a[Liberar]", "/villagerscatch release " + uuid, "Liberar este aldeano aquí")));
+            report.line(line);
+        }
+
+        if (indexed != null) {
+            net.set(ModComponents.CAPTURED_VILLAGERS, indexed);
+        }
+
+        if (found == 0) {
+            report.line("§7Ningún aldeano coincide.");
+        } else if (found > MAX_FIND_RESULTS) {
+            report.line("§7... y " + (found - MAX_FIND_RESULTS) + " más. Afina la búsqueda.");
+        }
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return found;
+    }
+
+    /**
+     * /villagerscatch release <uuid> - Release a specific villager from the net in hand
+     * at the player's position.
+     */
+    private static int executeRelease(CommandContext<CommandSourceStack> ctx, UUID uuid) {
+        CommandSourceStack source = ctx.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+
+        ItemStack net = player.getMainHandItem();
+        List<CompoundTag> entities = net.is(ModItems.VILLAGER_NET) ? net.get(ModComponents.CAPTURED_VILLAGERS) : null;
+        int position = -1;
+        for (int i = 0; entities != null && i < entities.size(); i++) {
+            if (entities.get(i).read("UUID", UUIDUtil.CODEC).filter(uuid::equals).isPresent()) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            source.sendFailure(Component.literal("§cEse aldeano no está en la red que tienes en la mano."));
+            return 0;
+        }
+
+        ReleaseGuard.Decision decision = NetRelease.releaseAtPlayer(player, net, ModComponents.CAPTURED_VILLAGERS, position);
+        if (!decision.allowed()) {
+            source.sendFailure(Component.literal("§c" + decision.describe()));
+            return 0;
+        }
+        int remaining = entities.size() - 1;
+
+        player.sendSystemMessage(Component.literal(
+            "Aldeano liberado! (" + remaining + "/" + VillagersCatch.maxEntities() + ") - " + decision.describe()), true);
+
+        return 1;
+    }
+
+    /**
+     * /villagerscatch scheduler - Show TickScheduler queue depth and budget usage
+     */
+    private static int executeScheduler(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        MinecraftServer server = source.getServer();
+
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Planificador de Tareas ═══");
+        report.line("§eMSPT medio: §f" + String.format("%.1f", server.getAverageTickTimeNanos() / 1e6) + " ms");
+        report.line("§ePresupuesto: §f" + String.format("%.2f", TickScheduler.getLastBudgetNanos() / 1e6) + " ms/tick" +
+            " §7| §eUsado: §f" + String.format("%.2f", TickScheduler.getLastUsedNanos() / 1e6) + " ms" +
+            " §7(media " + String.format("%.2f", TickScheduler.getAverageUsedNanos() / 1e6) + " ms)");
+        report.line("§eEn cola: §f" + TickScheduler.getQueueDepth() +
+            " §7(alta: " + TickScheduler.getQueueDepth(TickScheduler.Priority.HIGH) +
+            ", normal: " + TickScheduler.getQueueDepth(TickScheduler.Priority.NORMAL) +
+            ", baja: " + TickScheduler.getQueueDepth(TickScheduler.Priority.LOW) + ")");
+        report.line("§eEspera más antigua: §f" + TickScheduler.getOldestWaitTicks(server) + " ticks");
+        report.line("§eTramos ejecutados: §f" + TickScheduler.getSlicesRun() +
+            " §7| §eTareas completadas: §f" + TickScheduler.getTasksCompleted() +
+            " §7| §eFallidas: §f" + TickScheduler.getTasksFailed() +
+            " §7| §eRepetitivas: §f" + TickScheduler.getRepeatingCount());
+        report.line("§eTicks con trabajo aplazado: §f" + TickScheduler.getDeferredTicks() +
+            " §7(" + TickScheduler.getDeferredSlices() + " tareas aplazadas en total)" +
+            " §7| §eTramos por antigüedad: §f" + TickScheduler.getAgedSlices());
+        report.line("§eHilos: §fE/S activas " + ModExecutors.getIoActive() +
+            " §7| §fCPU " + ModExecutors.getCpuActive() + " activas, " + ModExecutors.getCpuQueued() + " en cola" +
+            " §7| §fPendientes en hilo principal " + ModExecutors.getMainPending());
+
+        List<String> queued = TickScheduler.getQueuedTaskNames();
+        if (!queued.isEmpty()) {
+            int shown = Math.min(queued.size(), MAX_LISTED_TASKS);
+            report.line("§eCola: §f" + String.join(", ", queued.subList(0, shown)) +
+                (queued.size() > shown ? " §7(+" + (queued.size() - shown) + ")" : ""));
+        }
+        report.line("§6══════════════════════════════");
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return 1;
+    }
+
+    /**
+     * /villagerscatch netstore - Show how much captured entity data is shared
+     */
+    private static int executeNetStore(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+
+        long lookups = NetContents.getLookups();
+        long hits = NetContents.getHits();
+
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Almacén de Redes ═══");
+        report.line("§eElementos compartidos únicos en memoria: §f" + NetContents.getUniqueCount());
+        report.line("§eBúsquedas: §f" + lookups + " §7| §eCompartidos: §f" + hits +
+            " §7(" + String.format("%.0f", lookups == 0 ? 0 : hits * 100.0 / lookups) + "%)");
+        report.line("§eMemoria no duplicada: §f" + String.format("%.1f", NetContents.getBytesShared() / 1024.0) + " KiB");
+        report.line("§eResúmenes de menú: §f" + NetSummaries.getDecoded() + " decodificados §7| §f" +
+            NetSummaries.getCached() + " desde caché");
+        report.line("§6════════════════════════");
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return 1;
+    }
+
+    /**
+     * /villagerscatch capture - Show how much each capture profile trims
+     */
+    private static int executeCapture(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Perfiles de Captura ═══");
+        appendCaptureProfile(report, "Red de aldeanos", CaptureProfiles.NetType.VILLAGER);
+        appendCaptureProfile(report, "Red de zombies", CaptureProfiles.NetType.ZOMBIE);
+        report.line("§7Config: config/villagerscatch/capture_profiles.json");
+        report.line("§6═══════════════════════════");
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return 1;
+    }
+
+    private static void appendCaptureProfile(ChatReport report, String label, CaptureProfiles.NetType type) {
+        CaptureProfiles.Profile profile = CaptureProfiles.get(type);
+        long captures = CaptureProfiles.getCaptures(type);
+        long before = CaptureProfiles.getBytesBefore(type);
+        long after = CaptureProfiles.getBytesAfter(type);
+
+        report.line("§e" + label + ": §f" + captures + " capturas");
+        report.line("  §7Eliminados: §f" + (profile.deny == null ? 0 : profile.deny.size()) + " campos" +
+            " §7| §7Protegidos: §f" + (profile.allow == null ? 0 : profile.allow.size()) +
+            " §7| §7Rumor mínimo: §f" + profile.minGossipValue);
+        if (captures > 0) {
+            report.line("  §7Bytes por captura: §f" + (before / captures) + " §7→ §f" + (after / captures) +
+                " §7(ahorro " + String.format("%.0f", (before - after) * 100.0 / before) + "%)");
+        }
+    }
+
+    private static EntityDensity.Category parseCategory(CommandContext<CommandSourceStack> ctx) {
+        String name = StringArgumentType.getString(ctx, "category").toUpperCase(Locale.ROOT);
+        for (EntityDensity.Category category : EntityDensity.Category.values()) {
+            if (category.name().equals(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * /villagerscatch density - List the densest chunks of every dimension from the
+     * live per-chunk counters (no world scan), with click-to-teleport.
+     */
+    private static int executeDensity(CommandContext<CommandSourceStack> ctx, EntityDensity.Category category, int top) {
+        CommandSourceStack source = ctx.getSource();
+
+        if (category == null) {
+            source.sendFailure(Component.literal("§cCategoría desconocida. Usa: villagers, zombies, golems o mobs."));
+            return 0;
+        }
+
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Densidad por Chunk: §e" + category.name().toLowerCase(Locale.ROOT) + " §6═══");
+        boolean any = false;
+
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            List<EntityDensity.ChunkCount> densest = EntityDensity.getDensest(level.dimension(), category, top);
+            if (densest.isEmpty()) {
+                continue;
+            }
+            any = true;
+            String dimension = level.dimension().location().toString();
+            report.line("§b" + dimension + ":");
+
+            for (int i = 0; i < densest.size(); i++) {
+                EntityDensity.ChunkCount chunk = densest.get(i);
+                // A free spot near the chunk's mobs, not the top of the column (the
+                // Nether's bedrock ceiling, or the roof of the farm)
+                BlockPos spot = SafeSpot.find(level, chunk.chunkX(), chunk.chunkZ(), chunk.mobY());
+                int x = spot != null ? spot.getX() : (chunk.chunkX() << 4) + 8;
+                int y = spot != null ? spot.getY() : chunk.mobY();
+                int z = spot != null ? spot.getZ() : (chunk.chunkZ() << 4) + 8;
+
+                MutableComponent line = Component.literal("§e#" + (i + 1) + " ");
+                line.append(ChatReport.command("§a[" + x + ", " + z + "]",
+                    "/execute in " + dimension + " run tp @s " + x + " " + y + " " + z,
+                    "Teletransportarse a este chunk"));
+                line.append(Component.literal(
+                    " §fAldeanos: " + chunk.get(EntityDensity.Category.VILLAGERS) +
+                    " §7| §fZombies: " + chunk.get(EntityDensity.Category.ZOMBIES) +
+                    " §7| §fGólems: " + chunk.get(EntityDensity.Category.GOLEMS) +
+                    " §7(mobs: " + chunk.get(EntityDensity.Category.MOBS) + ")"));
+                report.line(line);
+            }
+        }
+
+        if (!any) {
+            report.line("§7No hay chunks cargados con esas entidades.");
+        }
+        report.line("§6══════════════════════════════");
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return 1;
+    }
+
+    /**
+     * /villagerscatch reload - Re-read villagerscatch.json and capture_profiles.json.
+     * Both files are read and validated first and applied together: if either
+     * is invalid, nothing changes.
+     */
+    private static int executeReload(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+
+        List<String> errors = new ArrayList<>();
+        ModConfig loaded = ModConfig.read(errors);
+        CaptureProfiles.Config profiles = CaptureProfiles.read(errors);
+
+        if (!errors.isEmpty()) {
+            ChatReport report = new ChatReport();
+            report.line("§cConfiguración no aplicada (se mantiene la anterior):");
+            for (String error : errors) {
+                report.line("  §7- §f" + error);
+            }
+            Component message = report.build();
+            source.sendFailure(message);
+            return 0;
+        }
+
+        ModConfig.apply(loaded);
+        CaptureProfiles.apply(profiles);
+
+        ModConfig config = ModConfig.get();
+        ChatReport report = new ChatReport();
+        report.line("§a✓ §fConfiguración recargada.");
+        report.line("§eMonitor: §factualización cada " + config.monitor.displayIntervalTicks + " ticks" +
+            " §7| §fhistorial " + config.monitor.spawnHistorySize +
+            " §7| §fradio " + config.monitor.defaultRadius + " (máx " + config.monitor.maxRadius + ")");
+        report.line("§eRedes: §f" + config.nets.maxEntities + " entidades" +
+            " §7| §eLiberación: §f" + (config.releaseGuard.enabled
+                ? config.releaseGuard.mode + ", máx " + config.releaseGuard.maxMobsPerChunk + " mobs/chunk"
+                : "sin límite"));
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, true);
+
+        return 1;
+    }
+
+    /**
+     * /villagerscatch help - Show help message
+     */
+    private static int executeHelp(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+
+        ChatReport report = new ChatReport();
+        report.line("§6═══ VillagersCatch - Ayuda ═══");
+        report.line("§e/villagerscatch find <búsqueda>");
+        report.line("  §7Busca en la red de la mano por profesión o trato (ej: §fmending§7)");
+        report.line("§e/villagerscatch release <uuid>");
+        report.line("  §7Libera ese aldeano de la red (usa el enlace de find)");
+        report.line("§7Clic derecho al aire con una red: ver su contenido y liberar");
+        if (source.hasPermission(2)) {
+            report.line("§e/villagerscatch scheduler");
+            report.line("  §7Cola de tareas y presupuesto por tick (admin)");
+            report.line("§e/villagerscatch netstore");
+            report.line("  §7Datos compartidos entre entidades capturadas (admin)");
+            report.line("§e/villagerscatch density [villagers|zombies|golems|mobs] [top]");
+            report.line("  §7Chunks con más entidades, con teletransporte (admin)");
+            report.line("§e/villagerscatch reload");
+            report.line("  §7Recarga la configuración sin reiniciar (admin)");
+            report.line("§e/villagerscatch capture");
+            report.line("  §7Campos recortados al capturar y bytes ahorrados (admin)");
+        }
+        report.line("§7Monitor de granjas: §e/ironmonitor help");
+        report.line("§6══════════════════════════════");
+
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+
+        return 1;
+    }
+}
@@ -0,0 +1,291 @@
+package com.moddersapptolast.block;
+
+import com.google.common.collect.MapMaker;
+import com.moddersapptolast.VillagersCatch;
+import com.moddersapptolast.component.NetContents;
+import com.moddersapptolast.component.TradeIndex;
+import com.moddersapptolast.mixin.VillagerInvoker;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.trading.Merchant;
+import net.minecraft.world.item.trading.MerchantOffer;
+import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A vanilla Merchant backed by a villager record stored in a vault, so the
+ * regular trading screen works without a live entity.
+ *
+ * Restocking is simulated from the villager's own LastRestock game time: when
+ * the record is opened and a restock interval has passed, demand is updated
+ * and uses are reset, as a working villager would have done. Trades and xp are
+ * written back to the vault when the screen closes; if the xp reached the next
+ * career level, the level-up is simulated then too (as a live villager does once
+ * its trading screen closes), rolling the new tier's trades on a temporary,
+ * never-spawned copy of the villager.
+ *
+ * Only one merchant exists per stored record: a second player is told the
+ * villager is busy, the record cannot be withdrawn while it is being traded
+ * with, and breaking the vault writes open trades back before the villagers
+ * are packed into nets.
+ */
+public class StoredMerchant implements Merchant {
+
+    // Working villagers restock up to twice per day
+    static final long RESTOCK_INTERVAL_TICKS = 12000L;
+
+    // Record being traded with -> its merchant (identity keys, server thread only)
+    private static final Map<CompoundTag, StoredMerchant> open = new MapMaker().weakKeys().makeMap();
+
+    private final VillagerVaultBlockEntity vault;
+    private final ServerLevel level;
+    private final RegistryOps<Tag> ops;
+    private CompoundTag record;
+    private final MerchantOffers offers;
+    private int xp;
+    private long lastRestock;
+    private boolean dirty = false;
+    private @Nullable Player tradingPlayer = null;
+
+    private StoredMerchant(VillagerVaultBlockEntity vault, ServerLevel level, CompoundTag record) {
+        this.vault = vault;
+        this.level = level;
+        this.ops = level.registryAccess().createSerializationContext(NbtOps.INSTANCE);
+        this.record = record;
+
+        Tag stored = record.get("Offers");
+        this.offers = stored == null ? new MerchantOffers() : MerchantOffers.CODEC.parse(ops, stored)
+            .resultOrPartial(error -> VillagersCatch.LOGGER.warn("Could not read stored offers: {}", error))
+            .orElseGet(MerchantOffers::new);
+        this.xp = record.getIntOr("Xp", 0);
+        this.lastRestock = record.getLongOr("LastRestock", 0L);
+    }
+
+    /**
+     * Opens the trading screen of a stored villager.
+     */
+    public static void open(Player player, VillagerVaultBlockEntity vault, ServerLevel level, CompoundTag record) {
+        if (isTrading(record)) {
+            player.displayClientMessage(Component.literal("Otro jugador esta comerciando con este aldeano"), true);
+            return;
+        }
+
+        StoredMerchant merchant = new StoredMerchant(vault, level, record);
+        if (merchant.offers.isEmpty()) {
+            player.displayClientMessage(Component.literal("Este aldeano no tiene ofertas"), true);
+            return;
+        }
+
+        merchant.restockIfDue();
+        merchant.setTradingPlayer(player);
+        open.put(record, merchant);
+        merchant.openTradingScreen(player, VillagerVaultMenu.describe(record), getLevel(record));
+    }
+
+    /**
+     * Checks if a player has the trading screen of this record open.
+     */
+    public static boolean isTrading(CompoundTag record) {
+        return open.containsKey(record);
+    }
+
+    /**
+     * Writes back the trades of every open merchant of the vault (before it is broken).
+     */
+    static void flush(VillagerVaultBlockEntity vault) {
+        List<StoredMerchant> merchants = new ArrayList<>();
+        for (StoredMerchant merchant : open.values()) {
+            if (merchant.vault == vault) {
+                merchants.add(merchant);
+            }
+        }
+        for (StoredMerchant merchant : merchants) {
+            merchant.save();
+        }
+    }
+
+    static int getLevel(CompoundTag record) {
+        return record.getCompoundOrEmpty("VillagerData").getIntOr("level", 1);
+    }
+
+    private void restockIfDue() {
+        long now = level.getGameTime();
+        if (now - lastRestock < RESTOCK_INTERVAL_TICKS) {
+            return;
+        }
+
+        boolean used = false;
+        for (MerchantOffer offer : offers) {
+            used |= offer.getUses() > 0;
+        }
+        if (used) {
+            for (MerchantOffer offer : offers) {
+                offer.updateDemand();
+                offer.resetUses();
+            }
+            lastRestock = now;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Raises the career level while the xp allows it, adding each new tier's trades.
+     *
+     * @return the new level, or the current one if nothing changed
+     */
+    private int levelUpIfDue() {
+        int careerLevel = getLevel(record);
+        if (!VillagerData.canLevelUp(careerLevel) || xp < VillagerData.getMaxXpPerLevel(careerLevel)) {
+            return careerLevel;
+        }
+
+        // Temporary copy of the stored villager, never added to the level
+        if (!(EntityType.loadEntityRecursive(record, level, EntitySpawnReason.LOAD, entity -> entity) instanceof Villager villager)) {
+            return careerLevel;
+        }
+        int known = villager.getOffers().size();
+        while (VillagerData.canLevelUp(careerLevel) && xp >= VillagerData.getMaxXpPerLevel(careerLevel)) {
+            ((VillagerInvoker) villager).villagerscatch$increaseMerchantCareer(level);
+            careerLevel++;
+        }
+        MerchantOffers rolled = villager.getOffers();
+        for (int i = known; i < rolled.size(); i++) {
+            offers.add(rolled.get(i));
+        }
+        return careerLevel;
+    }
+
+    /**
+     * Writes the updated trades back as a new record (stored records are shared, never mutated).
+     */
+    private void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        int previousLevel = getLevel(record);
+        int careerLevel = levelUpIfDue();
+
+        CompoundTag updated = new CompoundTag();
+        for (String key : record.keySet()) {
+            updated.put(key, record.get(key));
+        }
+        MerchantOffers.CODEC.encodeStart(ops, offers)
+            .resultOrPartial(error -> VillagersCatch.LOGGER.warn("Could not save stored offers: {}", error))
+            .ifPresent(tag -> updated.put("Offers", tag));
+        updated.putInt("Xp", xp);
+        updated.putLong("LastRestock", lastRestock);
+        if (careerLevel != previousLevel) {
+            CompoundTag villagerData = record.getCompoundOrEmpty("VillagerData").copy();
+            villagerData.putInt("level", careerLevel);
+            updated.put("VillagerData", villagerData);
+            updated.put(TradeIndex.KEY, TradeIndex.build(updated, level.registryAccess()));
+        }
+        NetContents.internSharedTags(updated);
+
+        if (vault.replace(record, updated)) {
+            if (open.remove(record) != null && tradingPlayer != null) {
+                open.put(updated, this);
+            }
+            record = updated;
+        } else {
+            // Should not happen while the record is held open; never lose trades silently
+            VillagersCatch.LOGGER.warn("Stored villager left vault {} before its trades were saved", vault.getBlockPos());
+            if (tradingPlayer != null) {
+                tradingPlayer.displayClientMessage(Component.literal(
+                        "No se pudieron guardar los intercambios: el aldeano ya no esta en el almacen"), false);
+            }
+        }
+    }
+
+    // ============ Merchant ============
+
+    @Override
+    public void setTradingPlayer(@Nullable Player player) {
+        if (player == null) {
+            save();
+            open.remove(record);
+        }
+        this.tradingPlayer = player;
+    }
+
+    @Override
+    public @Nullable Player getTradingPlayer() {
+        return tradingPlayer;
+    }
+
+    @Override
+    public MerchantOffers getOffers() {
+        return offers;
+    }
+
+    @Override
+    public void overrideOffers(MerchantOffers offers) {
+        // Client-side only
+    }
+
+    @Override
+    public void notifyTrade(MerchantOffer offer) {
+        offer.increaseUses();
+        xp += offer.getXp();
+        dirty = true;
+
+        if (offer.shouldRewardExp()) {
+            Vec3 pos = Vec3.atCenterOf(vault.getBlockPos()).add(0, 0.5, 0);
+            ExperienceOrb.award(level, pos, 3 + level.random.nextInt(4));
+        }
+    }
+
+    @Override
+    public void notifyTradeUpdated(ItemStack stack) {
+    }
+
+    @Override
+    public int getVillagerXp() {
+        return xp;
+    }
+
+    @Override
+    public void overrideXp(int xp) {
+        // Client-side only
+    }
+
+    @Override
+    public boolean showProgressBar() {
+        return true;
+    }
+
+    @Override
+    public SoundEvent getNotifyTradeSound() {
+        return SoundEvents.VILLAGER_YES;
+    }
+
+    @Override
+    public boolean isClientSide() {
+        return false;
+    }
+
+    public boolean stillValid(Player player) {
+        return tradingPlayer == player && !vault.isRemoved() && vault.contains(record)
+            && player.distanceToSqr(Vec3.atCenterOf(vault.getBlockPos())) <= 64.0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.moddersapptolast.block;
+
+import com.moddersapptolast.ModItems;
+import com.moddersapptolast.component.ModComponents;
+import com.mojang.serialization.MapCodec;
+import eu.pb4.polymer.core.api.block.PolymerBlock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.SimpleMenuProvider;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.BlockHitResult;
+import xyz.nucleoid.packettweaker.PacketContext;
+
+import java.util.List;
+
+/**
+ * Stores villagers as data only: nothing inside ticks.
+ *
+ * - Use a villager net on it: deposits the net's villagers
+ * - Use it with an empty hand (or an empty net): opens the vault browser
+ *
+ * Vanilla clients see a barrel.
+ */
+public class VillagerVaultBlock extends BaseEntityBlock implements PolymerBlock {
+
+    public static final MapCodec<VillagerVaultBlock> CODEC = simpleCodec(VillagerVaultBlock::new);
+
+    public VillagerVaultBlock(Properties settings) {
+        super(settings);
+    }
+
+    @Override
+    protected MapCodec<? extends BaseEntityBlock> codec() {
+        return CODEC;
+    }
+
+    @Override
+    public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return new VillagerVaultBlockEntity(pos, state);
+    }
+
+    @Override
+    protected InteractionResult useItemOn(ItemStack stack, BlockState state, Level level, BlockPos pos,
+                                          Player player, InteractionHand hand, BlockHitResult hit) {
+        List<CompoundTag> entities = stack.get(ModComponents.CAPTURED_VILLAGERS);
+        if (!stack.is(ModItems.VILLAGER_NET) || entities == null || entities.isEmpty()) {
+            return InteractionResult.TRY_WITH_EMPTY_HAND;
+        }
+
+        if (!level.isClientSide() && player instanceof ServerPlayer serverPlayer
+                && level.getBlockEntity(pos) instanceof VillagerVaultBlockEntity vault) {
+            int accepted = vault.deposit(entities);
+            if (accepted == entities.size()) {
+                stack.remove(ModComponents.CAPTURED_VILLAGERS);
+            } else if (accepted > 0) {
+                stack.set(ModComponents.CAPTURED_VILLAGERS, List.copyOf(entities.subList(accepted, entities.size())));
+            }
+
+            serverPlayer.sendSystemMessage(Component.literal(accepted > 0
+                    ? accepted + " aldeano(s) guardados (" + vault.size() + "/" + VillagerVaultBlockEntity.CAPACITY + ")"
+                    : "El almacen esta lleno! (" + VillagerVaultBlockEntity.CAPACITY + ")"), true);
+        }
+        return InteractionResult.SUCCESS;
+    }
+
+    @Override
+    protected InteractionResult useWithoutItem(BlockState state, Level level, BlockPos pos, Player player, BlockHitResult hit) {
+        if (!level.isClientSide() && level.getBlockEntity(pos) instanceof VillagerVaultBlockEntity vault) {
+            player.openMenu(new SimpleMenuProvider(
+                    (id, inventory, p) -> new VillagerVaultMenu(id, inventory, vault),
+                    Component.literal("Almacen de aldeanos")));
+        }
+        return InteractionResult.SUCCESS;
+    }
+
+    @Override
+    public BlockState getPolymerBlockState(BlockState state, PacketContext context) {
+        return Blocks.BARREL.defaultBlockState();
+    }
+}
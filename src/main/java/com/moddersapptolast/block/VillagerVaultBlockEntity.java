@@ -0,0 +1,133 @@
+package com.moddersapptolast.block;
+
+import com.moddersapptolast.ModBlocks;
+import com.moddersapptolast.ModItems;
+import com.moddersapptolast.VillagersCatch;
+import com.moddersapptolast.component.ModComponents;
+import com.moddersapptolast.component.NetContents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.Containers;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.storage.ValueInput;
+import net.minecraft.world.level.storage.ValueOutput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Villagers stored in a vault, as the same entity tags a villager net holds
+ * (and saved with the same deduplicated format, see NetContents).
+ *
+ * There is no ticker: trading and restocking only happen when a player opens
+ * a villager (see StoredMerchant). Records are replaced, never mutated, because
+ * their sub-tags are shared with other nets and vaults.
+ */
+public class VillagerVaultBlockEntity extends BlockEntity {
+
+    public static final int CAPACITY = 1024;
+
+    private final List<CompoundTag> villagers = new ArrayList<>();
+
+    public VillagerVaultBlockEntity(BlockPos pos, BlockState state) {
+        super(ModBlocks.VILLAGER_VAULT_ENTITY, pos, state);
+    }
+
+    /**
+     * Stores as many of the given villagers as fit, in order.
+     *
+     * @return how many were stored
+     */
+    public int deposit(List<CompoundTag> entities) {
+        int accepted = Math.min(entities.size(), CAPACITY - villagers.size());
+        if (accepted > 0) {
+            villagers.addAll(entities.subList(0, accepted));
+            setChanged();
+        }
+        return accepted;
+    }
+
+    /**
+     * Removes a stored villager, if it is still in the vault.
+     */
+    public boolean remove(CompoundTag record) {
+        int index = indexOf(record);
+        if (index < 0) {
+            return false;
+        }
+        villagers.remove(index);
+        setChanged();
+        return true;
+    }
+
+    /**
+     * Replaces a stored villager with an updated copy (after trading or restocking).
+     */
+    public boolean replace(CompoundTag record, CompoundTag updated) {
+        int index = indexOf(record);
+        if (index < 0) {
+            return false;
+        }
+        villagers.set(index, updated);
+        setChanged();
+        return true;
+    }
+
+    public boolean contains(CompoundTag record) {
+        return indexOf(record) >= 0;
+    }
+
+    // Records are compared by identity: two identical villagers are still two villagers
+    private int indexOf(CompoundTag record) {
+        for (int i = 0; i < villagers.size(); i++) {
+            if (villagers.get(i) == record) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<CompoundTag> getVillagers() {
+        return Collections.unmodifiableList(villagers);
+    }
+
+    public int size() {
+        return villagers.size();
+    }
+
+    @Override
+    protected void saveAdditional(ValueOutput output) {
+        super.saveAdditional(output);
+        output.store("Villagers", NetContents.CODEC, villagers);
+    }
+
+    @Override
+    protected void loadAdditional(ValueInput input) {
+        super.loadAdditional(input);
+        villagers.clear();
+        villagers.addAll(input.read("Villagers", NetContents.CODEC).orElse(List.of()));
+    }
+
+    /**
+     * Breaking the vault drops its villagers packed into nets, so none are lost.
+     */
+    @Override
+    public void preRemoveSideEffects(BlockPos pos, BlockState state) {
+        if (level == null) {
+            return;
+        }
+        // Open trading screens write their trades back first, so they are packed too
+        StoredMerchant.flush(this);
+        int perNet = VillagersCatch.maxEntities();
+        for (int from = 0; from < villagers.size(); from += perNet) {
+            int to = Math.min(from + perNet, villagers.size());
+            ItemStack net = new ItemStack(ModItems.VILLAGER_NET);
+            net.set(ModComponents.CAPTURED_VILLAGERS, List.copyOf(villagers.subList(from, to)));
+            Containers.dropItemStack(level, pos.getX(), pos.getY(), pos.getZ(), net);
+        }
+        villagers.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.moddersapptolast.block;
+
+import com.moddersapptolast.ModItems;
+import com.moddersapptolast.VillagersCatch;
+import com.moddersapptolast.component.ModComponents;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.ChestMenu;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.ItemLore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only chest view of a vault, built on a vanilla 6-row chest so vanilla
+ * clients can use it. Every click is handled here; nothing can be taken out.
+ *
+ * - Click a villager: trade with it
+ * - Shift-click a villager: move it into the villager net in the main hand
+ * - Bottom row: page navigation
+ */
+public class VillagerVaultMenu extends ChestMenu {
+
+    private static final int PAGE_SIZE = 45;
+    private static final int PREV_SLOT = 45;
+    private static final int INFO_SLOT = 49;
+    private static final int NEXT_SLOT = 53;
+
+    private final VillagerVaultBlockEntity vault;
+    private final Container display;
+    private final CompoundTag[] shown = new CompoundTag[PAGE_SIZE];
+    private int page = 0;
+
+    public VillagerVaultMenu(int id, Inventory inventory, VillagerVaultBlockEntity vault) {
+        this(id, inventory, vault, new SimpleContainer(54));
+    }
+
+    private VillagerVaultMenu(int id, Inventory inventory, VillagerVaultBlockEntity vault, Container display) {
+        super(MenuType.GENERIC_9x6, id, inventory, display, 6);
+        this.vault = vault;
+        this.display = display;
+        fill();
+    }
+
+    private int pageCount() {
+        return Math.max(1, (vault.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    private void fill() {
+        page = Math.min(page, pageCount() - 1);
+        List<CompoundTag> villagers = vault.getVillagers();
+
+        display.clearContent();
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            int index = page * PAGE_SIZE + slot;
+            shown[slot] = index < villagers.size() ? villagers.get(index) : null;
+            if (shown[slot] != null) {
+                display.setItem(slot, icon(shown[slot]));
+            }
+        }
+
+        display.setItem(PREV_SLOT, button(page > 0 ? Items.ARROW : Items.GRAY_STAINED_GLASS_PANE, "« Anterior"));
+        display.setItem(INFO_SLOT, button(Items.BOOK, "Pagina " + (page + 1) + "/" + pageCount() +
+                " - " + vault.size() + "/" + VillagerVaultBlockEntity.CAPACITY + " aldeanos"));
+        display.setItem(NEXT_SLOT, button(page < pageCount() - 1 ? Items.ARROW : Items.GRAY_STAINED_GLASS_PANE, "Siguiente »"));
+    }
+
+    @Override
+    public void clicked(int slotId, int button, ClickType clickType, Player player) {
+        // Handled entirely here: the server resyncs the slots the client predicted
+        if (!(player instanceof ServerPlayer serverPlayer)) {
+            return;
+        }
+
+        if (slotId == PREV_SLOT && page > 0) {
+            page--;
+            fill();
+        } else if (slotId == NEXT_SLOT && page < pageCount() - 1) {
+            page++;
+            fill();
+        } else if (slotId >= 0 && slotId < PAGE_SIZE && shown[slotId] != null) {
+            CompoundTag record = shown[slotId];
+            if (!vault.contains(record)) {
+                fill();
+            } else if (clickType == ClickType.QUICK_MOVE) {
+                withdraw(serverPlayer, record);
+            } else {
+                StoredMerchant.open(serverPlayer, vault, (ServerLevel) vault.getLevel(), record);
+            }
+        }
+    }
+
+    private void withdraw(ServerPlayer player, CompoundTag record) {
+        ItemStack net = player.getMainHandItem();
+        if (!net.is(ModItems.VILLAGER_NET)) {
+            player.displayClientMessage(Component.literal("Necesitas una red de aldeanos en la mano"), true);
+            return;
+        }
+
+        List<CompoundTag> entities = net.get(ModComponents.CAPTURED_VILLAGERS);
+        List<CompoundTag> newList = entities == null ? new ArrayList<>() : new ArrayList<>(entities);
+        int maxEntities = VillagersCatch.maxEntities();
+        if (newList.size() >= maxEntities) {
+            player.displayClientMessage(Component.literal("La red esta llena! (" + newList.size() + "/" + maxEntities + ")"), true);
+            return;
+        }
+
+        if (StoredMerchant.isTrading(record)) {
+            player.displayClientMessage(Component.literal("Alguien esta comerciando con este aldeano"), true);
+            return;
+        }
+
+        if (vault.remove(record)) {
+            newList.add(record);
+            net.set(ModComponents.CAPTURED_VILLAGERS, newList);
+            player.displayClientMessage(Component.literal(
+                    "Aldeano sacado del almacen (" + newList.size() + "/" + maxEntities + ")"), true);
+        }
+        fill();
+    }
+
+    @Override
+    public ItemStack quickMoveStack(Player player, int slot) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public boolean stillValid(Player player) {
+        return Container.stillValidBlockEntity(vault, player);
+    }
+
+    /**
+     * Display name of a stored villager: its profession, translated on the client.
+     */
+    static MutableComponent describe(CompoundTag record) {
+        String profession = record.getCompoundOrEmpty("VillagerData").getStringOr("profession", "minecraft:none");
+        ResourceLocation id = ResourceLocation.tryParse(profession);
+        if (id == null) {
+            return Component.literal(profession);
+        }
+        return Component.translatable("entity." + id.getNamespace() + ".villager." + id.getPath());
+    }
+
+    private static ItemStack icon(CompoundTag record) {
+        int offers = record.getCompoundOrEmpty("Offers").getListOrEmpty("Recipes").size();
+
+        ItemStack stack = new ItemStack(Items.VILLAGER_SPAWN_EGG);
+        stack.set(DataComponents.CUSTOM_NAME, describe(record).withStyle(style -> style.withItalic(false)));
+        stack.set(DataComponents.LORE, new ItemLore(List.of(
+                Component.literal("§7Nivel: §f" + StoredMerchant.getLevel(record)),
+                Component.literal("§7Ofertas: §f" + offers),
+                Component.literal("§eClic: §7comerciar"),
+                Component.literal("§eMayus+clic: §7sacar a la red"))));
+        return stack;
+    }
+
+    private static ItemStack button(net.minecraft.world.item.Item item, String label) {
+        ItemStack stack = new ItemStack(item);
+        stack.set(DataComponents.CUSTOM_NAME, Component.literal(label).withStyle(style -> style.withItalic(false)));
+        return stack;
+    }
+}
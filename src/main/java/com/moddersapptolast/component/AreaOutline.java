@@ -0,0 +1,219 @@
+package com.moddersapptolast.component;
+
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.task.TickScheduler;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.particles.DustParticleOptions;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Opt-in particle outline of a player's monitored area (/ironmonitor outline),
+ * plus the 17x13x17 golem spawn zone around the nearest ready villagers of the
+ * last analysis.
+ *
+ * Cost is bounded per player: only edge pieces within monitor.outlineViewDistance
+ * are drawn, and the spacing between particles grows with the visible edge length
+ * so a refresh (every monitor.outlineIntervalTicks) never exceeds
+ * outlineParticlesPerTick * outlineIntervalTicks particles. The refresh is then
+ * sent over the following ticks, at most outlineParticlesPerTick per player per
+ * tick, each tick's share in one bundle packet to that player only. Particles
+ * obey the client's particle setting.
+ */
+public final class AreaOutline {
+
+    // Villagers summon golems within 8 blocks horizontally and 6 vertically: a 17x13x17 box
+    private static final int ZONE_HORIZONTAL = 8;
+    private static final int ZONE_VERTICAL = 6;
+    private static final int MAX_ZONES = 8;
+
+    private static final double MIN_SPACING = 0.5;
+
+    private static final DustParticleOptions AREA_PARTICLE = new DustParticleOptions(0xFFAA00, 1.0f);
+    private static final DustParticleOptions ZONE_PARTICLE = new DustParticleOptions(0x55FF55, 0.8f);
+
+    /**
+     * Axis-aligned edge piece starting at (x, y, z) and running length blocks along axis (0 = x, 1 = y, 2 = z).
+     */
+    private record Edge(double x, double y, double z, int axis, double length, DustParticleOptions particle) {}
+
+    private AreaOutline() {}
+
+    /**
+     * Registers the outline task: a refresh every outlineIntervalTicks, sent out every tick.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        TickScheduler.repeat("ironmonitor-outline", TickScheduler.Priority.NORMAL, 1, AreaOutline::tick);
+    }
+
+    private static void tick(MinecraftServer server) {
+        ModConfig.Monitor config = ModConfig.get().monitor;
+        boolean refresh = server.getTickCount() % config.outlineIntervalTicks == 0;
+
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            PlayerMonitorData data = IronFarmMonitor.getData(player);
+            if (data == null || !data.isMonitoring() || !data.isOutlineEnabled()) {
+                continue;
+            }
+            if (refresh) {
+                data.setOutlinePending(build(player, data.getSession(), config));
+            }
+            send(player, data, config.outlineParticlesPerTick);
+        }
+    }
+
+    /**
+     * Sends the next particles of the player's current refresh, at most perTick of them.
+     */
+    private static void send(ServerPlayer player, PlayerMonitorData data, int perTick) {
+        List<ClientboundLevelParticlesPacket> pending = data.getOutlinePending();
+        if (pending == null) {
+            return;
+        }
+
+        int from = data.getOutlineCursor();
+        int to = Math.min(pending.size(), from + perTick);
+        if (from < to) {
+            List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>(pending.subList(from, to));
+            player.connection.send(new ClientboundBundlePacket(packets));
+        }
+        if (to >= pending.size()) {
+            data.setOutlinePending(null);
+        } else {
+            data.setOutlineCursor(to);
+        }
+    }
+
+    /**
+     * Particles of one refresh of the outline, or null if nothing is in view.
+     */
+    private static List<ClientboundLevelParticlesPacket> build(ServerPlayer player, FarmSession session, ModConfig.Monitor config) {
+        if (!player.level().dimension().equals(session.getDimension())) {
+            return null;
+        }
+
+        Vec3 eye = player.getEyePosition();
+        List<Edge> edges = new ArrayList<>();
+
+        // Monitoring area: blocks within radius of the center, so the outer faces are one block further
+        AABB area = session.getMonitoringArea();
+        addBox(edges, area.minX, area.minY, area.minZ, area.maxX + 1, area.maxY + 1, area.maxZ + 1,
+            AREA_PARTICLE, eye, config.outlineViewDistance);
+
+        for (BlockPos villager : nearestReadyVillagers(session.getLastAnalysis(), eye)) {
+            addBox(edges,
+                villager.getX() - ZONE_HORIZONTAL, villager.getY() - ZONE_VERTICAL, villager.getZ() - ZONE_HORIZONTAL,
+                villager.getX() + ZONE_HORIZONTAL + 1, villager.getY() + ZONE_VERTICAL + 1, villager.getZ() + ZONE_HORIZONTAL + 1,
+                ZONE_PARTICLE, eye, config.outlineViewDistance);
+        }
+
+        double totalLength = 0;
+        for (Edge edge : edges) {
+            totalLength += edge.length();
+        }
+        if (totalLength == 0) {
+            return null;
+        }
+
+        // Thin out evenly: one particle every `spacing` blocks along all visible edges together
+        int budget = config.outlineParticlesPerTick * config.outlineIntervalTicks;
+        double spacing = Math.max(MIN_SPACING, totalLength / budget);
+
+        List<ClientboundLevelParticlesPacket> packets = new ArrayList<>(Math.min(budget, (int) (totalLength / spacing) + 1));
+        double offset = 0;
+        for (Edge edge : edges) {
+            double d = offset;
+            for (; d <= edge.length() && packets.size() < budget; d += spacing) {
+                double x = edge.x() + (edge.axis() == 0 ? d : 0);
+                double y = edge.y() + (edge.axis() == 1 ? d : 0);
+                double z = edge.z() + (edge.axis() == 2 ? d : 0);
+                packets.add(new ClientboundLevelParticlesPacket(edge.particle(), false, false, x, y, z, 0, 0, 0, 0, 1));
+            }
+            // Carry the remainder so spacing stays even across edge boundaries
+            offset = d - edge.length();
+        }
+
+        return packets.isEmpty() ? null : packets;
+    }
+
+    /**
+     * Positions of the ready villagers nearest to the player, one per block.
+     */
+    private static List<BlockPos> nearestReadyVillagers(IronFarmAnalyzer.FarmAnalysis analysis, Vec3 eye) {
+        if (analysis == null) {
+            return List.of();
+        }
+
+        List<BlockPos> ready = new ArrayList<>();
+        LongOpenHashSet seen = new LongOpenHashSet();
+        for (int i = 0; i < analysis.getVillagerCount(); i++) {
+            BlockPos pos = analysis.getVillagerPos(i);
+            if (analysis.canVillagerTriggerSpawn(i) && seen.add(pos.asLong())) {
+                ready.add(pos);
+            }
+        }
+        ready.sort(Comparator.comparingDouble(pos -> pos.distToCenterSqr(eye)));
+        return ready.size() > MAX_ZONES ? ready.subList(0, MAX_ZONES) : ready;
+    }
+
+    /**
+     * Adds the 12 edges of a box, each clipped to the cube of the given range around the eye.
+     */
+    private static void addBox(List<Edge> edges, double minX, double minY, double minZ,
+                               double maxX, double maxY, double maxZ,
+                               DustParticleOptions particle, Vec3 eye, int range) {
+        for (double y : new double[] {minY, maxY}) {
+            for (double z : new double[] {minZ, maxZ}) {
+                addEdge(edges, 0, minX, maxX, y, z, particle, eye, range);
+            }
+        }
+        for (double x : new double[] {minX, maxX}) {
+            for (double z : new double[] {minZ, maxZ}) {
+                addEdge(edges, 1, minY, maxY, x, z, particle, eye, range);
+            }
+        }
+        for (double x : new double[] {minX, maxX}) {
+            for (double y : new double[] {minY, maxY}) {
+                addEdge(edges, 2, minZ, maxZ, x, y, particle, eye, range);
+            }
+        }
+    }
+
+    /**
+     * Adds the visible piece of an edge running from `from` to `to` along axis,
+     * with the other two coordinates fixed at a and b (in x, y, z order).
+     */
+    private static void addEdge(List<Edge> edges, int axis, double from, double to, double a, double b,
+                                DustParticleOptions particle, Vec3 eye, int range) {
+        double eyeAlong = axis == 0 ? eye.x : axis == 1 ? eye.y : eye.z;
+        double eyeA = axis == 0 ? eye.y : eye.x;
+        double eyeB = axis == 2 ? eye.y : eye.z;
+        if (Math.abs(a - eyeA) > range || Math.abs(b - eyeB) > range) {
+            return;
+        }
+
+        double start = Math.max(from, eyeAlong - range);
+        double end = Math.min(to, eyeAlong + range);
+        if (start >= end) {
+            return;
+        }
+
+        switch (axis) {
+            case 0 -> edges.add(new Edge(start, a, b, 0, end - start, particle));
+            case 1 -> edges.add(new Edge(a, start, b, 1, end - start, particle));
+            default -> edges.add(new Edge(a, b, start, 2, end - start, particle));
+        }
+    }
+}
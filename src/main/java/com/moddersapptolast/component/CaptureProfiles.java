@@ -0,0 +1,246 @@
+package com.moddersapptolast.component;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.moddersapptolast.VillagersCatch;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruning applied to an entity's NBT before it is stored in a net.
+ *
+ * saveWithoutId() writes transient state (motion, fall distance, brain memories
+ * pointing at the old POIs...) that the entity regenerates once released. Each
+ * net type has a profile in config/villagerscatch/capture_profiles.json:
+ *
+ * - deny: top-level keys removed on capture
+ * - allow: keys that are never removed, even if denied (trades, xp, profession,
+ *   names, conversion data...)
+ * - minGossipValue: gossip entries weaker than this are dropped (they would decay
+ *   away soon anyway); 0 keeps all of them
+ * - keepBrainMemories: the only brain memories kept (job_site and
+ *   potential_job_site by default), unless Brain is allowed. The brain is never
+ *   removed wholesale, even if deny lists it: without its job site memory, a
+ *   villager that has never traded loses its profession, and its rolled trades,
+ *   on its first tick after release. An empty list removes the brain.
+ *
+ * /villagerscatch reload reads and validates this file together with
+ * villagerscatch.json and applies both or neither (see read()/apply()).
+ */
+public final class CaptureProfiles {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "capture_profiles.json";
+
+    public enum NetType {
+        VILLAGER,
+        ZOMBIE
+    }
+
+    /**
+     * One net type's profile, as read from the config file.
+     */
+    public static final class Profile {
+        public List<String> deny = new ArrayList<>(List.of(
+            "Motion", "fall_distance", "FallDistance", "Fire", "Air", "OnGround", "FallFlying",
+            "PortalCooldown", "HurtTime", "HurtByTimestamp", "DeathTime", "sleeping_pos"));
+        public List<String> allow = new ArrayList<>(List.of(
+            "id", "UUID", "Health", "Offers", "Xp", "VillagerData", "Gossips", "CustomName",
+            "CustomNameVisible", "PersistenceRequired", "ConversionTime", "ConversionPlayer"));
+        public int minGossipValue = 5;
+        public List<String> keepBrainMemories = new ArrayList<>(List.of(
+            "minecraft:job_site", "minecraft:potential_job_site"));
+    }
+
+    /**
+     * Root of the config file.
+     */
+    public static final class Config {
+        Profile villager = new Profile();
+        Profile zombie = new Profile();
+    }
+
+    private static Config config = new Config();
+
+    // Bytes before/after pruning, per net type (shown with /villagerscatch capture)
+    private static final long[] captures = new long[NetType.values().length];
+    private static final long[] bytesBefore = new long[NetType.values().length];
+    private static final long[] bytesAfter = new long[NetType.values().length];
+
+    private CaptureProfiles() {}
+
+    /**
+     * Loads the profiles at startup, writing the defaults if the file does not exist.
+     * A broken or invalid file keeps the defaults and is left untouched.
+     */
+    public static void load() {
+        Path file = path();
+        if (!Files.exists(file)) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (Writer writer = Files.newBufferedWriter(file)) {
+                    GSON.toJson(new Config(), writer);
+                }
+            } catch (IOException e) {
+                VillagersCatch.LOGGER.warn("Could not write default {}", file, e);
+            }
+            config = new Config();
+            return;
+        }
+
+        List<String> errors = new ArrayList<>();
+        Config loaded = read(errors);
+        if (loaded != null) {
+            apply(loaded);
+        } else {
+            VillagersCatch.LOGGER.warn("Invalid {}, using default capture profiles: {}", file, String.join("; ", errors));
+        }
+    }
+
+    /**
+     * Reads and validates the file without applying it. A missing file reads as the defaults.
+     *
+     * @param errors receives the problems found
+     * @return the new profiles, or null if the file is not fully valid
+     */
+    public static Config read(List<String> errors) {
+        Path file = path();
+        if (!Files.exists(file)) {
+            return new Config();
+        }
+
+        Config loaded;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            loaded = GSON.fromJson(reader, Config.class);
+        } catch (IOException | JsonParseException e) {
+            errors.add("cannot read " + FILE_NAME + ": " + e.getMessage());
+            return null;
+        }
+        if (loaded == null) {
+            errors.add(FILE_NAME + " is empty");
+            return null;
+        }
+
+        // Missing sections in the file fall back to the defaults
+        if (loaded.villager == null) {
+            loaded.villager = new Profile();
+        }
+        if (loaded.zombie == null) {
+            loaded.zombie = new Profile();
+        }
+
+        int before = errors.size();
+        validate(errors, "villager", loaded.villager);
+        validate(errors, "zombie", loaded.zombie);
+        return errors.size() == before ? loaded : null;
+    }
+
+    /**
+     * Makes profiles returned by read() the current ones.
+     */
+    public static void apply(Config loaded) {
+        config = loaded;
+    }
+
+    private static void validate(List<String> errors, String name, Profile profile) {
+        if (profile.minGossipValue < 0 || profile.minGossipValue > 1000) {
+            errors.add(FILE_NAME + ": " + name + ".minGossipValue must be between 0 and 1000 (got "
+                + profile.minGossipValue + ")");
+        }
+        if (profile.deny != null && profile.deny.contains(null)) {
+            errors.add(FILE_NAME + ": " + name + ".deny contains null");
+        }
+        if (profile.allow != null && profile.allow.contains(null)) {
+            errors.add(FILE_NAME + ": " + name + ".allow contains null");
+        }
+        if (profile.keepBrainMemories != null && profile.keepBrainMemories.contains(null)) {
+            errors.add(FILE_NAME + ": " + name + ".keepBrainMemories contains null");
+        }
+    }
+
+    private static Path path() {
+        return FabricLoader.getInstance().getConfigDir().resolve("villagerscatch").resolve(FILE_NAME);
+    }
+
+    public static Profile get(NetType type) {
+        return type == NetType.VILLAGER ? config.villager : config.zombie;
+    }
+
+    /**
+     * Prunes the tag in place according to the net type's profile.
+     */
+    public static CompoundTag apply(NetType type, CompoundTag nbt) {
+        Profile profile = get(type);
+        int before = nbt.sizeInBytes();
+
+        if (profile.deny != null) {
+            for (String key : profile.deny) {
+                if (!"Brain".equals(key) && (profile.allow == null || !profile.allow.contains(key))) {
+                    nbt.remove(key);
+                }
+            }
+        }
+
+        boolean brainAllowed = profile.allow != null && profile.allow.contains("Brain");
+        if (!brainAllowed && profile.keepBrainMemories != null && nbt.get("Brain") instanceof CompoundTag brain) {
+            CompoundTag memories = brain.getCompoundOrEmpty("memories");
+            CompoundTag kept = new CompoundTag();
+            for (String memory : profile.keepBrainMemories) {
+                Tag value = memories.get(memory);
+                if (value != null) {
+                    kept.put(memory, value);
+                }
+            }
+            if (kept.isEmpty()) {
+                nbt.remove("Brain");
+            } else {
+                CompoundTag pruned = new CompoundTag();
+                pruned.put("memories", kept);
+                nbt.put("Brain", pruned);
+            }
+        }
+
+        if (profile.minGossipValue > 0 && nbt.get("Gossips") instanceof ListTag gossips) {
+            ListTag kept = new ListTag();
+            for (Tag gossip : gossips) {
+                if (gossip instanceof CompoundTag entry && entry.getIntOr("Value", 0) >= profile.minGossipValue) {
+                    kept.add(entry);
+                }
+            }
+            if (kept.size() != gossips.size()) {
+                nbt.put("Gossips", kept);
+            }
+        }
+
+        int index = type.ordinal();
+        captures[index]++;
+        bytesBefore[index] += before;
+        bytesAfter[index] += nbt.sizeInBytes();
+        return nbt;
+    }
+
+    // ============ Stats for admins ============
+
+    public static long getCaptures(NetType type) {
+        return captures[type.ordinal()];
+    }
+
+    public static long getBytesBefore(NetType type) {
+        return bytesBefore[type.ordinal()];
+    }
+
+    public static long getBytesAfter(NetType type) {
+        return bytesAfter[type.ordinal()];
+    }
+}
@@ -0,0 +1,69 @@
+package com.moddersapptolast.component;
+
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+
+/**
+ * Builds a multi-line chat message that is sent as a single Component,
+ * so a command report costs one chat packet instead of one per line.
+ *
+ * Every line is its own sibling component, so legacy § colors never bleed
+ * from one line into the next.
+ */
+public class ChatReport {
+
+    private final MutableComponent root = Component.empty();
+    private boolean empty = true;
+
+    /**
+     * Appends a line of legacy-formatted text.
+     */
+    public ChatReport line(String text) {
+        return line(Component.literal(text));
+    }
+
+    /**
+     * Appends a line built from a component (e.g. one with click events).
+     */
+    public ChatReport line(Component component) {
+        if (!empty) {
+            root.append("\n");
+        }
+        root.append(component);
+        empty = false;
+        return this;
+    }
+
+    /**
+     * Appends every line of a newline-separated block of text.
+     */
+    public ChatReport lines(String text) {
+        for (String line : text.split("\n")) {
+            line(line);
+        }
+        return this;
+    }
+
+    public ChatReport blank() {
+        return line("");
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public Component build() {
+        return root;
+    }
+
+    /**
+     * Creates a clickable piece of text that runs a command when clicked.
+     */
+    public static MutableComponent command(String label, String command, String hover) {
+        return Component.literal(label).withStyle(style -> style
+            .withClickEvent(new ClickEvent.RunCommand(command))
+            .withHoverEvent(new HoverEvent.ShowText(Component.literal(hover))));
+    }
+}
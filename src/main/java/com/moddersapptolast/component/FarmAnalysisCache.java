@@ -0,0 +1,270 @@
+package com.moddersapptolast.component;
+
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.task.ModExecutors;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Shared cache of farm snapshots, so players standing at the same farm don't
+ * each rescan it.
+ * 
+ * What is cached is the world-reading phase, IronFarmAnalyzer.snapshot: the
+ * villagers (and golem positions) of an area copied into primitive rows. A miss
+ * takes that snapshot on the server thread; a hit reuses it. Either way the rows
+ * are then filtered to exactly the requested box and counted by
+ * IronFarmAnalyzer.evaluate on ModExecutors.cpu(), so an analysis never counts
+ * villagers, beds or golems outside the requested radius.
+ *
+ * Cache key:
+ * - Dimension
+ * - Center snapped to an 8-block grid, and radius padded by half a grid step
+ *   (the most the snap moves the center) then rounded up to a multiple of 8, so
+ *   the analyzed box always contains the requested one
+ * A request is also served by any cached snapshot of the same dimension whose box
+ * contains the requested box, the smallest one first.
+ *
+ * Invalidation:
+ * - TTL: entries older than 200 ticks are never served
+ * - Entity events: a villager or iron golem loading/unloading inside a cached area drops that entry
+ *
+ * All access happens on the server thread; returned futures complete on it too.
+ */
+public class FarmAnalysisCache {
+
+    private static final int AREA_QUANTUM = 8;       // Blocks - center/radius granularity
+    private static final long TTL_TICKS = 200;       // 10 seconds
+    private static final int MAX_ENTRIES = 256;
+
+    private record Key(ResourceKey<Level> dimension, long center, int radius) {}
+
+    private static class Entry {
+        final AABB area;
+        final long createdAt;
+        final IronFarmAnalyzer.FarmSnapshot snapshot;
+
+        Entry(AABB area, long createdAt, IronFarmAnalyzer.FarmSnapshot snapshot) {
+            this.area = area;
+            this.createdAt = createdAt;
+            this.snapshot = snapshot;
+        }
+    }
+
+    // Access-ordered so the least recently used entry is evicted first
+    private static final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Counters (shown with /ironmonitor cache)
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long expirations = 0;
+    private static long invalidations = 0;
+    private static long evictions = 0;
+
+    /**
+     * Registers entity-event invalidation.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        ServerEntityEvents.ENTITY_LOAD.register(FarmAnalysisCache::onEntityChanged);
+        ServerEntityEvents.ENTITY_UNLOAD.register(FarmAnalysisCache::onEntityChanged);
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+    }
+
+    /**
+     * Analyzes exactly the requested area, from a cached snapshot covering it or a
+     * new one. The future completes on the server thread a tick or so later, or
+     * completes exceptionally if the evaluation fails.
+     */
+    public static CompletableFuture<IronFarmAnalyzer.FarmAnalysis> getOrAnalyze(ServerLevel world, BlockPos center, int radius) {
+        long gameTime = world.getGameTime();
+        purgeExpired(gameTime);
+
+        BlockPos snappedCenter = snap(center);
+        int snappedRadius = ((radius + AREA_QUANTUM / 2 + AREA_QUANTUM - 1) / AREA_QUANTUM) * AREA_QUANTUM;
+        Key key = new Key(world.dimension(), snappedCenter.asLong(), snappedRadius);
+        AABB requested = new AABB(
+            center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+            center.getX() + radius, center.getY() + radius, center.getZ() + radius
+        );
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = findCovering(key.dimension(), requested);
+        }
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+            long start = HandlerTimings.start();
+            IronFarmAnalyzer.FarmSnapshot snapshot = IronFarmAnalyzer.snapshot(world, snappedCenter, snappedRadius);
+            HandlerTimings.stop(HandlerTimings.Handler.FARM_ANALYSIS, start);
+            AABB area = new AABB(
+                snappedCenter.getX() - snappedRadius, snappedCenter.getY() - snappedRadius, snappedCenter.getZ() - snappedRadius,
+                snappedCenter.getX() + snappedRadius, snappedCenter.getY() + snappedRadius, snappedCenter.getZ() + snappedRadius
+            );
+            entry = new Entry(area, gameTime, snapshot);
+            entries.put(key, entry);
+        }
+
+        IronFarmAnalyzer.FarmSnapshot cached = entry.snapshot;
+        Supplier<IronFarmAnalyzer.FarmAnalysis> evaluate = () -> {
+            IronFarmAnalyzer.FarmSnapshot inside = cached.within(requested);
+            return IronFarmAnalyzer.evaluate(inside.rows(), inside.existingGolems());
+        };
+
+        CompletableFuture<IronFarmAnalyzer.FarmAnalysis> future = new CompletableFuture<>();
+        ModExecutors.supplyCpu(evaluate).whenCompleteAsync((analysis, error) -> {
+            if (error == null) {
+                future.complete(analysis);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!(cause instanceof RejectedExecutionException)) {
+                future.completeExceptionally(cause);
+                return;
+            }
+            // CPU pool saturated (or stopping): evaluate here rather than fail the request
+            try {
+                future.complete(evaluate.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, ModExecutors.mainThread());
+        return future;
+    }
+
+    /**
+     * Smallest cached entry of the dimension whose area contains the box, or null.
+     * Entries are already purged of expired ones.
+     */
+    private static Entry findCovering(ResourceKey<Level> dimension, AABB box) {
+        Key best = null;
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            if (e.getKey().dimension().equals(dimension) && contains(e.getValue().area, box)
+                    && (best == null || e.getKey().radius() < best.radius())) {
+                best = e.getKey();
+            }
+        }
+        // get() rather than the iterated value, to refresh the entry's LRU position
+        return best != null ? entries.get(best) : null;
+    }
+
+    private static boolean contains(AABB outer, AABB inner) {
+        return outer.minX <= inner.minX && outer.minY <= inner.minY && outer.minZ <= inner.minZ
+            && outer.maxX >= inner.maxX && outer.maxY >= inner.maxY && outer.maxZ >= inner.maxZ;
+    }
+
+    /**
+     * Drops every cached entry whose area contains an entity that affects the analysis.
+     */
+    private static void onEntityChanged(Entity entity, ServerLevel world) {
+        if (entries.isEmpty() || !(entity instanceof Villager || entity instanceof IronGolem)) {
+            return;
+        }
+
+        long start = HandlerTimings.start();
+        ResourceKey<Level> dimension = world.dimension();
+        double x = entity.getX(), y = entity.getY(), z = entity.getZ();
+
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().dimension().equals(dimension) && e.getValue().area.contains(x, y, z)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+        HandlerTimings.stop(HandlerTimings.Handler.CACHE_INVALIDATION, start);
+    }
+
+    private static void purgeExpired(long gameTime) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (gameTime - it.next().createdAt > TTL_TICKS) {
+                it.remove();
+                expirations++;
+            }
+        }
+    }
+
+    private static BlockPos snap(BlockPos pos) {
+        int half = AREA_QUANTUM / 2;
+        return new BlockPos(
+            Math.floorDiv(pos.getX(), AREA_QUANTUM) * AREA_QUANTUM + half,
+            Math.floorDiv(pos.getY(), AREA_QUANTUM) * AREA_QUANTUM + half,
+            Math.floorDiv(pos.getZ(), AREA_QUANTUM) * AREA_QUANTUM + half
+        );
+    }
+
+    /**
+     * Clears all entries and counters.
+     */
+    public static void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        expirations = 0;
+        invalidations = 0;
+        evictions = 0;
+    }
+
+    // ============ Stats for admins ============
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static long getExpirations() {
+        return expirations;
+    }
+
+    public static long getInvalidations() {
+        return invalidations;
+    }
+
+    public static long getEvictions() {
+        return evictions;
+    }
+
+    public static int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the hit ratio (0-1) since the last clear.
+     */
+    public static double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
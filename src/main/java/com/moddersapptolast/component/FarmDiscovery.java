@@ -0,0 +1,419 @@
+package com.moddersapptolast.component;
+
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.task.ModExecutors;
+import com.moddersapptolast.task.TickScheduler;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Server-wide iron farm discovery.
+ *
+ * Walks every loaded chunk in every dimension and groups villagers into candidate farms:
+ * - Loaded chunks are tracked with ServerChunkEvents.CHUNK_LOAD / CHUNK_UNLOAD (no chunk map walk)
+ * - Phase 1 (server thread): villager/golem state is snapshotted a few chunks per tick
+ *   as a low-priority TickScheduler task, so big scans are spread across many ticks
+ * - Phase 2 (ModExecutors CPU pool): each dimension is clustered as a separate CPU task,
+ *   in parallel, and each cluster is evaluated like a FarmAnalysis; the results are
+ *   merged and ranked back on the server thread. A dimension the pool rejects is
+ *   clustered on the server thread instead; any other error is passed to onFailure
+ *
+ * Only one scan runs at a time.
+ */
+public class FarmDiscovery {
+
+    private static final int MAX_CHUNKS_PER_TICK = 32;             // Hard cap of chunks snapshotted per tick
+    private static final int LINK_DISTANCE = 16;                   // Villagers closer than this belong to the same farm
+    private static final int GOLEM_MARGIN = 8;                     // Golems this close to a cluster count towards it
+    private static final int MAX_REPORT_ENTRIES = 10;
+
+    // Loaded chunk positions per dimension (ChunkPos.asLong)
+    private static final Map<ResourceKey<Level>, LongSet> loadedChunks = new HashMap<>();
+
+    private static DiscoveryScan activeScan = null;
+
+    /**
+     * A candidate farm found by the discovery scan.
+     */
+    public static class FarmCandidate {
+        public final ResourceKey<Level> dimension;
+        public final BlockPos center;
+        public final IronFarmAnalyzer.FarmAnalysis analysis;
+
+        public FarmCandidate(ResourceKey<Level> dimension, BlockPos center, IronFarmAnalyzer.FarmAnalysis analysis) {
+            this.dimension = dimension;
+            this.center = center;
+            this.analysis = analysis;
+        }
+    }
+
+    /**
+     * Registers chunk tracking.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) ->
+            loadedChunks.computeIfAbsent(world.dimension(), k -> new LongOpenHashSet()).add(chunk.getPos().toLong()));
+
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            LongSet chunks = loadedChunks.get(world.dimension());
+            if (chunks != null) {
+                chunks.remove(chunk.getPos().toLong());
+            }
+        });
+
+        // Drop state between integrated server sessions
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            activeScan = null;
+            loadedChunks.clear();
+        });
+    }
+
+    /**
+     * Starts a discovery scan over all currently loaded chunks.
+     * The report, or the error if clustering failed, is delivered on the server thread.
+     *
+     * @return number of chunks queued, or -1 if a scan is already running
+     */
+    public static int startScan(MinecraftServer server, Consumer<List<FarmCandidate>> onComplete,
+                                Consumer<Throwable> onFailure) {
+        if (activeScan != null) {
+            return -1;
+        }
+
+        DiscoveryScan scan = new DiscoveryScan(onComplete, onFailure);
+        for (ServerLevel level : server.getAllLevels()) {
+            LongSet chunks = loadedChunks.get(level.dimension());
+            if (chunks == null) {
+                continue;
+            }
+            for (long chunkPos : chunks) {
+                scan.pending.add(new PendingChunk(level.dimension(), chunkPos));
+            }
+        }
+
+        activeScan = scan;
+        TickScheduler.submit(server, "farm-discovery", TickScheduler.Priority.LOW, scan::tick);
+        return scan.pending.size();
+    }
+
+    /**
+     * Checks if a discovery scan is currently running.
+     */
+    public static boolean isScanning() {
+        return activeScan != null;
+    }
+
+    // ============ Phase 1: incremental snapshot (server thread) ============
+
+    private record PendingChunk(ResourceKey<Level> dimension, long chunkPos) {}
+
+    /**
+     * Raw per-dimension data copied from the world. Only touched by the server thread
+     * until the snapshot phase ends, then handed read-only to the clustering phase.
+     */
+    private static class DimensionSnapshot {
+        final VillagerBuffer villagers = new VillagerBuffer(64);
+        final LongArrayList golems = new LongArrayList();
+    }
+
+    private static class DiscoveryScan {
+        final ArrayDeque<PendingChunk> pending = new ArrayDeque<>();
+        final Map<ResourceKey<Level>, DimensionSnapshot> snapshots = new HashMap<>();
+        final Consumer<List<FarmCandidate>> onComplete;
+        final Consumer<Throwable> onFailure;
+
+        DiscoveryScan(Consumer<List<FarmCandidate>> onComplete, Consumer<Throwable> onFailure) {
+            this.onComplete = onComplete;
+            this.onFailure = onFailure;
+        }
+
+        /**
+         * Snapshots chunks until the scheduler deadline or the per-tick cap.
+         *
+         * @return true once every chunk is snapshotted and clustering has been handed off
+         */
+        boolean tick(MinecraftServer server, long deadlineNanos) {
+            if (activeScan != this) {
+                return true; // Server stopped mid-scan
+            }
+
+            long start = HandlerTimings.start();
+            // Always at least one chunk per slice, so a scan makes progress even on a strained server
+            int processed = 0;
+            while (!pending.isEmpty()
+                    && (processed == 0 || (processed < MAX_CHUNKS_PER_TICK && System.nanoTime() < deadlineNanos))) {
+                snapshotChunk(server, pending.poll());
+                processed++;
+            }
+            HandlerTimings.stop(HandlerTimings.Handler.DISCOVERY_TICK, start);
+
+            if (!pending.isEmpty()) {
+                return false;
+            }
+
+            // Snapshot complete - cluster off-thread, deliver back on the server thread
+            activeScan = null;
+            clusterAll(snapshots).whenCompleteAsync((candidates, error) -> {
+                if (error != null) {
+                    onFailure.accept(unwrap(error));
+                } else {
+                    onComplete.accept(candidates);
+                }
+            }, ModExecutors.mainThread());
+            return true;
+        }
+
+        private void snapshotChunk(MinecraftServer server, PendingChunk chunk) {
+            ServerLevel level = server.getLevel(chunk.dimension());
+            int chunkX = ChunkPos.getX(chunk.chunkPos());
+            int chunkZ = ChunkPos.getZ(chunk.chunkPos());
+            if (level == null || !level.hasChunk(chunkX, chunkZ)) {
+                return; // Unloaded since the scan started
+            }
+
+            AABB chunkBox = new AABB(
+                chunkX << 4, level.getMinY(), chunkZ << 4,
+                (chunkX << 4) + 16, level.getMaxY() + 1, (chunkZ << 4) + 16
+            );
+
+            List<Villager> villagers = level.getEntitiesOfClass(Villager.class, chunkBox);
+            List<IronGolem> golems = level.getEntitiesOfClass(IronGolem.class, chunkBox);
+            if (villagers.isEmpty() && golems.isEmpty()) {
+                return;
+            }
+
+            DimensionSnapshot snapshot = snapshots.computeIfAbsent(chunk.dimension(), k -> new DimensionSnapshot());
+            long gameTime = level.getGameTime();
+            for (Villager villager : villagers) {
+                IronFarmAnalyzer.addVillager(snapshot.villagers, villager, gameTime);
+            }
+            for (IronGolem golem : golems) {
+                snapshot.golems.add(golem.blockPosition().asLong());
+            }
+        }
+    }
+
+    // ============ Phase 2: clustering (CPU pool) ============
+
+    /**
+     * Clusters every dimension as its own CPU task and merges the ranked results
+     * on the server thread.
+     */
+    private static CompletableFuture<List<FarmCandidate>> clusterAll(Map<ResourceKey<Level>, DimensionSnapshot> snapshots) {
+        List<CompletableFuture<List<FarmCandidate>>> parts = new ArrayList<>(snapshots.size());
+        for (Map.Entry<ResourceKey<Level>, DimensionSnapshot> entry : snapshots.entrySet()) {
+            ResourceKey<Level> dimension = entry.getKey();
+            DimensionSnapshot snapshot = entry.getValue();
+            parts.add(ModExecutors.supplyCpu(() -> clusterDimension(dimension, snapshot))
+                .handleAsync((candidates, error) -> {
+                    if (error == null) {
+                        return candidates;
+                    }
+                    // CPU pool saturated (or stopping): cluster here rather than fail the scan.
+                    // Anything else is a real failure and goes to onFailure.
+                    if (unwrap(error) instanceof RejectedExecutionException) {
+                        return clusterDimension(dimension, snapshot);
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }, ModExecutors.mainThread()));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+            .thenApply(done -> rank(parts));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static List<FarmCandidate> rank(List<CompletableFuture<List<FarmCandidate>>> parts) {
+        return parts.stream()
+            .flatMap(part -> part.join().stream())
+            .sorted(Comparator
+                .comparingInt((FarmCandidate c) -> c.analysis.villagersReadyToSpawn).reversed()
+                .thenComparing(Comparator.comparingInt((FarmCandidate c) -> c.analysis.totalVillagers).reversed()))
+            .limit(MAX_REPORT_ENTRIES)
+            .toList();
+    }
+
+    /**
+     * Single-linkage clustering on a spatial hash: villagers within LINK_DISTANCE of
+     * each other end up in the same farm. Only the 27 neighbouring cells are compared.
+     */
+    private static List<FarmCandidate> clusterDimension(ResourceKey<Level> dimension, DimensionSnapshot snapshot) {
+        VillagerBuffer villagers = snapshot.villagers;
+        int count = villagers.size();
+        if (count < IronFarmAnalyzer.MIN_VILLAGERS_PANIC) {
+            return List.of();
+        }
+
+        // Bucket villagers by grid cell
+        Long2ObjectOpenHashMap<IntArrayList> cells = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < count; i++) {
+            cells.computeIfAbsent(cellKey(villagers.position(i)), k -> new IntArrayList()).add(i);
+        }
+
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+
+        long maxDistSq = (long) LINK_DISTANCE * LINK_DISTANCE;
+        for (int i = 0; i < count; i++) {
+            long pos = villagers.position(i);
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            int cx = Math.floorDiv(x, LINK_DISTANCE);
+            int cy = Math.floorDiv(y, LINK_DISTANCE);
+            int cz = Math.floorDiv(z, LINK_DISTANCE);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        IntArrayList cell = cells.get(BlockPos.asLong(cx + dx, cy + dy, cz + dz));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int k = 0; k < cell.size(); k++) {
+                            int j = cell.getInt(k);
+                            if (j > i && distSqr(x, y, z, villagers.position(j)) <= maxDistSq) {
+                                union(parent, i, j);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Group members by root
+        Map<Integer, VillagerBuffer> clusters = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            clusters.computeIfAbsent(find(parent, i), k -> new VillagerBuffer(8)).addFrom(villagers, i);
+        }
+
+        List<FarmCandidate> candidates = new ArrayList<>();
+        for (VillagerBuffer members : clusters.values()) {
+            if (members.size() >= IronFarmAnalyzer.MIN_VILLAGERS_PANIC) {
+                candidates.add(evaluateCluster(dimension, members, snapshot.golems));
+            }
+        }
+        return candidates;
+    }
+
+    private static FarmCandidate evaluateCluster(ResourceKey<Level> dimension,
+            VillagerBuffer members, LongArrayList golems) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (int i = 0; i < members.size(); i++) {
+            long pos = members.position(i);
+            minX = Math.min(minX, BlockPos.getX(pos));
+            minY = Math.min(minY, BlockPos.getY(pos));
+            minZ = Math.min(minZ, BlockPos.getZ(pos));
+            maxX = Math.max(maxX, BlockPos.getX(pos));
+            maxY = Math.max(maxY, BlockPos.getY(pos));
+            maxZ = Math.max(maxZ, BlockPos.getZ(pos));
+        }
+
+        int nearbyGolems = 0;
+        for (int i = 0; i < golems.size(); i++) {
+            long golem = golems.getLong(i);
+            int x = BlockPos.getX(golem), y = BlockPos.getY(golem), z = BlockPos.getZ(golem);
+            if (x >= minX - GOLEM_MARGIN && x <= maxX + GOLEM_MARGIN
+                    && y >= minY - GOLEM_MARGIN && y <= maxY + GOLEM_MARGIN
+                    && z >= minZ - GOLEM_MARGIN && z <= maxZ + GOLEM_MARGIN) {
+                nearbyGolems++;
+            }
+        }
+
+        BlockPos center = new BlockPos((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+        IronFarmAnalyzer.FarmAnalysis analysis = IronFarmAnalyzer.evaluate(members, nearbyGolems);
+        return new FarmCandidate(dimension, center, analysis);
+    }
+
+    private static long cellKey(long pos) {
+        return BlockPos.asLong(
+            Math.floorDiv(BlockPos.getX(pos), LINK_DISTANCE),
+            Math.floorDiv(BlockPos.getY(pos), LINK_DISTANCE),
+            Math.floorDiv(BlockPos.getZ(pos), LINK_DISTANCE));
+    }
+
+    private static long distSqr(int x, int y, int z, long other) {
+        long dx = x - BlockPos.getX(other);
+        long dy = y - BlockPos.getY(other);
+        long dz = z - BlockPos.getZ(other);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // Path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+
+    // ============ Report ============
+
+    /**
+     * Builds the ranked report lines for the given candidates.
+     */
+    public static List<Component> buildReport(List<FarmCandidate> candidates) {
+        List<Component> lines = new ArrayList<>();
+        if (candidates.isEmpty()) {
+            lines.add(Component.literal("§7No se encontraron granjas candidatas en los chunks cargados."));
+            return lines;
+        }
+
+        int rank = 1;
+        for (FarmCandidate candidate : candidates) {
+            IronFarmAnalyzer.FarmAnalysis analysis = candidate.analysis;
+            String verdict = analysis.canSpawnByGossip ? "§a✓ GOSSIP"
+                : analysis.canSpawnByPanic ? "§e✓ PÁNICO"
+                : "§c✗";
+            lines.add(Component.literal(
+                "§e#" + rank + " §7[" + candidate.dimension.location().getPath() + "] §f("
+                    + candidate.center.getX() + ", " + candidate.center.getY() + ", " + candidate.center.getZ() + ")"
+                    + " §7| §eAldeanos: §f" + analysis.totalVillagers
+                    + " §7| §eListos: §f" + analysis.villagersReadyToSpawn
+                    + " §7| §eGolems: §f" + analysis.existingGolems
+                    + " " + verdict
+            ));
+            rank++;
+        }
+        return lines;
+    }
+}
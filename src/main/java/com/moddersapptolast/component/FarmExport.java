@@ -0,0 +1,237 @@
+package com.moddersapptolast.component;
+
+import com.google.gson.stream.JsonWriter;
+import com.moddersapptolast.task.ModExecutors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * /ironmonitor export: writes a farm session's spawn events (with the interval
+ * to the previous spawn) and analysis snapshots to
+ * villagerscatch/exports/<farm>-<date>[-n].<csv|json> in the server directory.
+ * Admins only, since every export is a new file on the server's disk; an
+ * existing file is never overwritten, a counter is appended instead.
+ *
+ * The server thread only copies the primitive spawn log and the snapshot list;
+ * the file is written row by row on an I/O thread through a buffered writer, so
+ * memory stays at that copy no matter how long the session ran. The result is
+ * reported back to the player on the server thread.
+ */
+public final class FarmExport {
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private static final DateTimeFormatter FILE_DATE =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    // Sessions with an export in flight (server thread only)
+    private static final Set<String> running = new HashSet<>();
+
+    /**
+     * Everything an export needs, copied on the server thread.
+     */
+    private record Snapshot(String farm, String dimension, BlockPos center, int radius, long startTime,
+                            long exportedAt, int golems, int ironIngots, long droppedSpawns,
+                            long[] spawns, List<FarmSession.AnalysisSnapshot> analyses) {}
+
+    private FarmExport() {}
+
+    /**
+     * Starts an export of the session.
+     *
+     * @return false if one is already running for this session
+     */
+    public static boolean start(MinecraftServer server, ServerPlayer player, FarmSession session, Format format) {
+        if (!running.add(session.getName())) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = new Snapshot(session.getName(), session.getDimension().location().toString(),
+            session.getCenterPos(), session.getRadius(), session.getStartTime(), now,
+            session.getGolemCount(), session.getIronIngots(), session.getDroppedSpawnLogEntries(),
+            session.copySpawnLog(), session.copyAnalysisLog());
+
+        Path directory = server.getServerDirectory().resolve("villagerscatch").resolve("exports");
+        String baseName = sanitize(session.getName()) + "-" + FILE_DATE.format(Instant.ofEpochMilli(now));
+        String extension = format.name().toLowerCase(Locale.ROOT);
+        UUID playerId = player.getUUID();
+
+        ModExecutors.supplyIo(() -> write(directory, baseName, extension, snapshot, format))
+            .whenCompleteAsync((result, error) -> {
+                running.remove(snapshot.farm());
+                ServerPlayer target = server.getPlayerList().getPlayer(playerId);
+                if (target == null) {
+                    return;
+                }
+                if (error != null) {
+                    target.sendSystemMessage(Component.literal("§cNo se pudo exportar la granja: §7" + rootMessage(error)));
+                } else {
+                    target.sendSystemMessage(Component.literal("§a✓ §fExportados §6" + result.rows() + "§f registros en §e"
+                        + server.getServerDirectory().relativize(result.file())));
+                }
+            }, ModExecutors.mainThread());
+        return true;
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record Result(Path file, int rows) {}
+
+    /**
+     * Writes to a new file, <base>.<ext> or else <base>-2.<ext>, <base>-3.<ext>, ...
+     *
+     * @return the file and the rows written (spawns plus analysis snapshots)
+     */
+    private static Result write(Path directory, String baseName, String extension, Snapshot snapshot, Format format) {
+        try {
+            Files.createDirectories(directory);
+            Path file = createUnique(directory, baseName, extension);
+            try (Writer writer = Files.newBufferedWriter(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (format == Format.CSV) {
+                    writeCsv(writer, snapshot);
+                } else {
+                    writeJson(writer, snapshot);
+                }
+            }
+            return new Result(file, snapshot.spawns().length + snapshot.analyses().size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates the first free name atomically, so two exports never share a file.
+     */
+    private static Path createUnique(Path directory, String baseName, String extension) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            String suffix = attempt == 1 ? "" : "-" + attempt;
+            try {
+                return Files.createFile(directory.resolve(baseName + suffix + "." + extension));
+            } catch (FileAlreadyExistsException e) {
+                // Taken (same farm exported within the same second): try the next counter
+            }
+        }
+    }
+
+    /**
+     * One table, spawns and analyses merged in time order; columns that do not
+     * apply to a row type are left empty.
+     */
+    private static void writeCsv(Writer writer, Snapshot snapshot) throws IOException {
+        writer.write("type,time_ms,time,reason,interval_s,villagers,with_beds,with_jobs,slept_recently,ready,golems,valid\n");
+
+        long[] spawns = snapshot.spawns();
+        List<FarmSession.AnalysisSnapshot> analyses = snapshot.analyses();
+        int spawnIndex = 0;
+        int analysisIndex = 0;
+        long previousSpawn = 0;
+        while (spawnIndex < spawns.length || analysisIndex < analyses.size()) {
+            boolean spawnNext = analysisIndex >= analyses.size()
+                || (spawnIndex < spawns.length && SpawnLog.timeOf(spawns[spawnIndex]) <= analyses.get(analysisIndex).timeMs());
+
+            if (spawnNext) {
+                long entry = spawns[spawnIndex++];
+                long time = SpawnLog.timeOf(entry);
+                writer.write("spawn," + time + "," + Instant.ofEpochMilli(time) + "," + reason(entry) + ","
+                    + (previousSpawn > 0 ? seconds(time - previousSpawn) : "") + ",,,,,,,\n");
+                previousSpawn = time;
+            } else {
+                FarmSession.AnalysisSnapshot analysis = analyses.get(analysisIndex++);
+                writer.write("analysis," + analysis.timeMs() + "," + Instant.ofEpochMilli(analysis.timeMs()) + ",,,"
+                    + analysis.villagers() + "," + analysis.withBeds() + "," + analysis.withJobs() + ","
+                    + analysis.sleptRecently() + "," + analysis.ready() + "," + analysis.golems() + ","
+                    + analysis.valid() + "\n");
+            }
+        }
+    }
+
+    private static void writeJson(Writer writer, Snapshot snapshot) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent(" ");
+        json.beginObject();
+        json.name("farm").value(snapshot.farm());
+        json.name("dimension").value(snapshot.dimension());
+        json.name("center").beginArray()
+            .value(snapshot.center().getX()).value(snapshot.center().getY()).value(snapshot.center().getZ())
+            .endArray();
+        json.name("radius").value(snapshot.radius());
+        json.name("startTime").value(snapshot.startTime());
+        json.name("exportedAt").value(snapshot.exportedAt());
+        json.name("golems").value(snapshot.golems());
+        json.name("ironIngots").value(snapshot.ironIngots());
+        json.name("droppedSpawns").value(snapshot.droppedSpawns());
+
+        json.name("spawns").beginArray();
+        long previousSpawn = 0;
+        for (long entry : snapshot.spawns()) {
+            long time = SpawnLog.timeOf(entry);
+            json.beginObject();
+            json.name("time").value(time);
+            json.name("reason").value(reason(entry));
+            if (previousSpawn > 0) {
+                json.name("interval").value((time - previousSpawn) / 1000.0);
+            }
+            json.endObject();
+            previousSpawn = time;
+        }
+        json.endArray();
+
+        json.name("analyses").beginArray();
+        for (FarmSession.AnalysisSnapshot analysis : snapshot.analyses()) {
+            json.beginObject();
+            json.name("time").value(analysis.timeMs());
+            json.name("villagers").value(analysis.villagers());
+            json.name("withBeds").value(analysis.withBeds());
+            json.name("withJobs").value(analysis.withJobs());
+            json.name("sleptRecently").value(analysis.sleptRecently());
+            json.name("ready").value(analysis.ready());
+            json.name("golems").value(analysis.golems());
+            json.name("valid").value(analysis.valid());
+            json.endObject();
+        }
+        json.endArray();
+
+        json.endObject();
+        json.flush();
+    }
+
+    private static String reason(long entry) {
+        return SpawnLog.isPanic(entry) ? "panic" : "gossip";
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+}
@@ -0,0 +1,493 @@
+package com.moddersapptolast.component;
+
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.event.VillagerGolemEvents;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A monitored farm shared by any number of watching players.
+ *
+ * Golem spawns are recorded once per session and fanned out to subscribers,
+ * so memory and per-spawn cost grow with the number of farms, not watchers.
+ * Players subscribe with /ironmonitor start (creates a session) or /ironmonitor join <farm>.
+ */
+public class FarmSession {
+
+    static final int BACKLOG_ALERT_THRESHOLD = 4;  // Live golems before subscribers are warned
+    static final int BACKLOG_ALERT_STEP = 4;       // Warn again every 4 additional golems
+    private static final int MAX_TRACKED_GOLEMS = 256;
+    private static final int MAX_ANALYSIS_SNAPSHOTS = 1024;
+
+    // Identity
+    private final String name;
+    private final UUID owner;
+    private final ResourceKey<Level> dimension;
+
+    // Area configuration
+    private BlockPos centerPos;
+    private int radius;
+    private boolean followPlayer;
+
+    // Real-time statistics (shared by all subscribers)
+    private int golemCount = 0;
+    private int panicSpawns = 0;  // Subset of golemCount summoned by panicking villagers
+    private long startTime = 0;
+    private final List<Long> spawnTimes = new ArrayList<>();  // Real spawn timestamps
+    private long lastSpawnTime = 0;
+    private long previousSpawnTime = 0;  // For calculating interval between spawns
+
+    // Full spawn history and analysis results, for /ironmonitor export
+    private final SpawnLog spawnLog = new SpawnLog();
+    private final ArrayDeque<AnalysisSnapshot> analysisLog = new ArrayDeque<>();
+
+    // Iron output throughput (golem deaths inside the farm)
+    private int golemDeaths = 0;
+    private int ironIngots = 0;
+    private int poppies = 0;
+    private long totalKillLatencyMs = 0;
+    private int killLatencySamples = 0;
+
+    // Golem spawn attempts by villagers in the farm, per VillagerGolemEvents.AttemptOutcome
+    private final long[] attemptOutcomes = new long[VillagerGolemEvents.AttemptOutcome.values().length];
+
+    // Golems spawned by this farm that are still alive: UUID -> spawn time (ms)
+    private final Object2LongOpenHashMap<UUID> liveGolems = new Object2LongOpenHashMap<>();
+    private int alertedBacklog = 0;  // Backlog size last reported to subscribers
+
+    // Farm analysis cache
+    private IronFarmAnalyzer.FarmAnalysis lastAnalysis = null;
+
+    // Continuous villager readiness (filled by ReadinessSampler)
+    private final ReadinessTimeline readiness = new ReadinessTimeline();
+
+    // Watching players
+    private final Set<UUID> subscribers = new LinkedHashSet<>();
+
+    public FarmSession(String name, UUID owner, ResourceKey<Level> dimension, BlockPos centerPos,
+                       int radius, boolean followPlayer) {
+        this.name = name;
+        this.owner = owner;
+        this.dimension = dimension;
+        this.centerPos = centerPos;
+        this.radius = radius;
+        this.followPlayer = followPlayer;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public ResourceKey<Level> getDimension() {
+        return dimension;
+    }
+
+    public BlockPos getCenterPos() {
+        return centerPos;
+    }
+
+    /**
+     * Moves the session center. Callers must reindex the session afterwards
+     * (IronFarmMonitor does this for follow-mode sessions).
+     */
+    void setCenterPos(BlockPos centerPos) {
+        this.centerPos = centerPos;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public boolean isFollowPlayer() {
+        return followPlayer;
+    }
+
+    void setFollowPlayer(boolean followPlayer) {
+        this.followPlayer = followPlayer;
+    }
+
+    public int getGolemCount() {
+        return golemCount;
+    }
+
+    public int getGossipSpawns() {
+        return golemCount - panicSpawns;
+    }
+
+    public int getPanicSpawns() {
+        return panicSpawns;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getLastSpawnTime() {
+        return lastSpawnTime;
+    }
+
+    // ============ Subscribers ============
+
+    public Set<UUID> getSubscribers() {
+        return Collections.unmodifiableSet(subscribers);
+    }
+
+    void addSubscriber(UUID player) {
+        subscribers.add(player);
+    }
+
+    void removeSubscriber(UUID player) {
+        subscribers.remove(player);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // ============ Statistics ============
+
+    /**
+     * Records a real golem spawn event with timestamp.
+     * Called once per villager-summoned golem in the session area.
+     */
+    public void recordGolemSpawn(VillagerGolemEvents.SummonReason reason) {
+        this.golemCount++;
+        if (reason == VillagerGolemEvents.SummonReason.PANIC) {
+            this.panicSpawns++;
+        }
+        this.previousSpawnTime = this.lastSpawnTime;
+        this.lastSpawnTime = System.currentTimeMillis();
+        this.spawnTimes.add(this.lastSpawnTime);
+        this.spawnLog.add(this.lastSpawnTime, reason == VillagerGolemEvents.SummonReason.PANIC,
+            ModConfig.get().monitor.exportLogSize);
+
+        // Keep only the last monitor.spawnHistorySize spawn times for rate calculation
+        int historySize = ModConfig.get().monitor.spawnHistorySize;
+        while (spawnTimes.size() > historySize) {
+            spawnTimes.remove(0);
+        }
+    }
+
+    /**
+     * Gets the time in seconds since the last golem spawn.
+     * Returns 0 if no golem has spawned yet.
+     */
+    public double getSecondsSinceLastSpawn() {
+        if (lastSpawnTime == 0) {
+            return 0;
+        }
+        return (System.currentTimeMillis() - lastSpawnTime) / 1000.0;
+    }
+
+    /**
+     * Gets the interval in seconds between the last two spawns.
+     * Returns 0 if less than 2 golems have spawned.
+     */
+    public double getLastSpawnInterval() {
+        if (previousSpawnTime == 0 || lastSpawnTime == 0) {
+            return 0;
+        }
+        return (lastSpawnTime - previousSpawnTime) / 1000.0;
+    }
+
+    /**
+     * Gets the average spawn interval based on all recorded spawns.
+     * Returns 0 if less than 2 golems have spawned.
+     */
+    public double getAverageSpawnInterval() {
+        if (spawnTimes.size() < 2) {
+            return 0;
+        }
+
+        long firstSpawn = spawnTimes.get(0);
+        long lastSpawn = spawnTimes.get(spawnTimes.size() - 1);
+        long totalTimeMs = lastSpawn - firstSpawn;
+        int intervals = spawnTimes.size() - 1;
+
+        return (totalTimeMs / 1000.0) / intervals;
+    }
+
+    /**
+     * Creates an AABB (Axis-Aligned Bounding Box) for entity detection.
+     * Uses Minecraft's native AABB class for area calculations.
+     */
+    public AABB getMonitoringArea() {
+        return new AABB(
+            centerPos.getX() - radius, centerPos.getY() - radius, centerPos.getZ() - radius,
+            centerPos.getX() + radius, centerPos.getY() + radius, centerPos.getZ() + radius
+        );
+    }
+
+    /**
+     * Checks if a block position lies inside the monitoring area.
+     * Same bounds as getMonitoringArea() without allocating an AABB.
+     */
+    public boolean contains(BlockPos pos) {
+        return Math.abs(pos.getX() - centerPos.getX()) <= radius
+            && Math.abs(pos.getY() - centerPos.getY()) <= radius
+            && Math.abs(pos.getZ() - centerPos.getZ()) <= radius;
+    }
+
+    /**
+     * Calculates golems per minute based on recent spawn times (real data).
+     */
+    public double getGolemsPerMinute() {
+        if (spawnTimes.size() < 2) {
+            return 0.0;
+        }
+
+        long now = System.currentTimeMillis();
+        long oneMinuteAgo = now - 60000;
+
+        int countInLastMinute = 0;
+        for (Long time : spawnTimes) {
+            if (time >= oneMinuteAgo) {
+                countInLastMinute++;
+            }
+        }
+
+        return countInLastMinute;
+    }
+
+    /**
+     * Gets the projected golems per hour based on current spawn rate.
+     */
+    public double getProjectedGolemsPerHour() {
+        double avgInterval = getAverageSpawnInterval();
+        if (avgInterval <= 0) {
+            return 0;
+        }
+        return 3600.0 / avgInterval;
+    }
+
+    // ============ Spawn attempts ============
+
+    /**
+     * Counts one spawnGolemIfNeeded evaluation by a villager inside the farm.
+     */
+    void recordSpawnAttempt(VillagerGolemEvents.AttemptOutcome outcome) {
+        attemptOutcomes[outcome.ordinal()]++;
+    }
+
+    public long getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome outcome) {
+        return attemptOutcomes[outcome.ordinal()];
+    }
+
+    /**
+     * Gets how many times villagers actually tried to summon (wanted a golem).
+     */
+    public long getSpawnAttempts() {
+        long total = 0;
+        for (VillagerGolemEvents.AttemptOutcome outcome : VillagerGolemEvents.AttemptOutcome.values()) {
+            if (outcome.isAttempt()) {
+                total += attemptOutcomes[outcome.ordinal()];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the fraction (0-1) of attempts that summoned a golem.
+     * Returns 0 if nobody has tried yet.
+     */
+    public double getAttemptSuccessRatio() {
+        long attempts = getSpawnAttempts();
+        if (attempts == 0) {
+            return 0;
+        }
+        return (double) attemptOutcomes[VillagerGolemEvents.AttemptOutcome.SPAWNED.ordinal()] / attempts;
+    }
+
+    // ============ Throughput ============
+
+    /**
+     * Starts tracking a golem spawned by this farm, for kill latency and backlog.
+     * 
+     * @return false if the backlog is already at its tracking cap
+     */
+    boolean trackGolem(UUID golem, long spawnTimeMs) {
+        if (liveGolems.size() >= MAX_TRACKED_GOLEMS) {
+            return false;
+        }
+        liveGolems.put(golem, spawnTimeMs);
+        return true;
+    }
+
+    /**
+     * Stops tracking a golem that left the world without dying here (despawned, changed dimension).
+     */
+    void untrackGolem(UUID golem) {
+        liveGolems.removeLong(golem);
+    }
+
+    /**
+     * Records a golem death inside the farm together with its drops.
+     * Kill latency is only sampled for golems this session saw spawn.
+     */
+    public void recordGolemDeath(UUID golem, int ironDropped, int poppiesDropped) {
+        golemDeaths++;
+        ironIngots += ironDropped;
+        poppies += poppiesDropped;
+
+        if (liveGolems.containsKey(golem)) {
+            long spawnTime = liveGolems.removeLong(golem);
+            totalKillLatencyMs += System.currentTimeMillis() - spawnTime;
+            killLatencySamples++;
+        }
+    }
+
+    Set<UUID> getLiveGolems() {
+        return liveGolems.keySet();
+    }
+
+    public int getGolemDeaths() {
+        return golemDeaths;
+    }
+
+    public int getIronIngots() {
+        return ironIngots;
+    }
+
+    public int getPoppies() {
+        return poppies;
+    }
+
+    /**
+     * Gets the number of farm-spawned golems that are still alive.
+     */
+    public int getGolemBacklog() {
+        return liveGolems.size();
+    }
+
+    /**
+     * Gets the average time in seconds between a golem spawning and dying.
+     * Returns 0 if no tracked golem has died yet.
+     */
+    public double getAverageKillLatency() {
+        if (killLatencySamples == 0) {
+            return 0;
+        }
+        return totalKillLatencyMs / 1000.0 / killLatencySamples;
+    }
+
+    /**
+     * Gets iron ingots per hour since the session (or its stats) started.
+     */
+    public double getIronPerHour() {
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        if (elapsedMs <= 0 || ironIngots == 0) {
+            return 0;
+        }
+        return ironIngots * 3_600_000.0 / elapsedMs;
+    }
+
+    /**
+     * Checks whether the golem backlog grew past the alert threshold since the last alert.
+     * Re-arms once the backlog drops back below the threshold.
+     * 
+     * @return true if subscribers should be alerted now
+     */
+    boolean shouldAlertBacklog() {
+        int backlog = liveGolems.size();
+        if (backlog < BACKLOG_ALERT_THRESHOLD) {
+            alertedBacklog = 0;
+            return false;
+        }
+        if (backlog >= alertedBacklog + BACKLOG_ALERT_STEP || alertedBacklog == 0) {
+            alertedBacklog = backlog;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the last farm analysis result.
+     */
+    public IronFarmAnalyzer.FarmAnalysis getLastAnalysis() {
+        return lastAnalysis;
+    }
+
+    /**
+     * Sets the last farm analysis result.
+     */
+    public void setLastAnalysis(IronFarmAnalyzer.FarmAnalysis analysis) {
+        this.lastAnalysis = analysis;
+        if (analysis != null) {
+            analysisLog.addLast(AnalysisSnapshot.of(System.currentTimeMillis(), analysis));
+            while (analysisLog.size() > MAX_ANALYSIS_SNAPSHOTS) {
+                analysisLog.removeFirst();
+            }
+        }
+    }
+
+    public ReadinessTimeline getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * Counts of one analysis, kept for export after the analysis itself is replaced.
+     */
+    public record AnalysisSnapshot(long timeMs, int villagers, int withBeds, int withJobs,
+                                   int sleptRecently, int ready, int golems, boolean valid) {
+
+        static AnalysisSnapshot of(long timeMs, IronFarmAnalyzer.FarmAnalysis analysis) {
+            return new AnalysisSnapshot(timeMs, analysis.totalVillagers, analysis.villagersWithBeds,
+                analysis.villagersWithJobs, analysis.villagersWhoSleptRecently, analysis.villagersReadyToSpawn,
+                analysis.existingGolems, analysis.isValidFarm);
+        }
+    }
+
+    /**
+     * Copies the spawn log (packed, see SpawnLog) for an export.
+     */
+    public long[] copySpawnLog() {
+        return spawnLog.toArray();
+    }
+
+    public long getDroppedSpawnLogEntries() {
+        return spawnLog.getDropped();
+    }
+
+    public List<AnalysisSnapshot> copyAnalysisLog() {
+        return List.copyOf(analysisLog);
+    }
+
+    /**
+     * Resets all statistics (for every subscriber).
+     */
+    public void resetStats() {
+        this.golemCount = 0;
+        this.panicSpawns = 0;
+        this.startTime = System.currentTimeMillis();
+        this.spawnTimes.clear();
+        this.spawnLog.clear();
+        this.analysisLog.clear();
+        this.lastSpawnTime = 0;
+        this.previousSpawnTime = 0;
+        this.golemDeaths = 0;
+        this.ironIngots = 0;
+        this.poppies = 0;
+        this.totalKillLatencyMs = 0;
+        this.killLatencySamples = 0;
+        this.alertedBacklog = 0;
+        Arrays.fill(this.attemptOutcomes, 0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.moddersapptolast.component;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk-keyed spatial index of farm sessions.
+ *
+ * Every session is registered in each chunk its monitoring area touches, so
+ * finding the sessions around an entity is one hash lookup plus a bounds check
+ * per overlapping session, instead of a walk over every session on the server.
+ *
+ * All access happens on the server thread.
+ */
+class FarmSessionIndex {
+
+    private static final List<FarmSession> EMPTY = List.of();
+
+    private final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<List<FarmSession>>> byDimension = new HashMap<>();
+
+    // Chunk bounds each session is currently registered under: {minX, minZ, maxX, maxZ}
+    private final Map<FarmSession, int[]> registeredBounds = new IdentityHashMap<>();
+
+    /**
+     * Registers a session (or re-registers it after its area moved).
+     * Does nothing if the session still covers the same chunks.
+     */
+    void update(FarmSession session) {
+        BlockPos center = session.getCenterPos();
+        int radius = session.getRadius();
+        int[] bounds = {
+            SectionPos.blockToSectionCoord(center.getX() - radius),
+            SectionPos.blockToSectionCoord(center.getZ() - radius),
+            SectionPos.blockToSectionCoord(center.getX() + radius),
+            SectionPos.blockToSectionCoord(center.getZ() + radius)
+        };
+
+        int[] previous = registeredBounds.get(session);
+        if (previous != null && Arrays.equals(previous, bounds)) {
+            return;
+        }
+        if (previous != null) {
+            remove(session);
+        }
+
+        Long2ObjectOpenHashMap<List<FarmSession>> chunks =
+            byDimension.computeIfAbsent(session.getDimension(), k -> new Long2ObjectOpenHashMap<>());
+        for (int x = bounds[0]; x <= bounds[2]; x++) {
+            for (int z = bounds[1]; z <= bounds[3]; z++) {
+                chunks.computeIfAbsent(ChunkPos.asLong(x, z), k -> new ArrayList<>(1)).add(session);
+            }
+        }
+        registeredBounds.put(session, bounds);
+    }
+
+    /**
+     * Removes a session from every chunk it was registered under.
+     */
+    void remove(FarmSession session) {
+        int[] bounds = registeredBounds.remove(session);
+        if (bounds == null) {
+            return;
+        }
+
+        Long2ObjectOpenHashMap<List<FarmSession>> chunks = byDimension.get(session.getDimension());
+        if (chunks == null) {
+            return;
+        }
+        for (int x = bounds[0]; x <= bounds[2]; x++) {
+            for (int z = bounds[1]; z <= bounds[3]; z++) {
+                long key = ChunkPos.asLong(x, z);
+                List<FarmSession> list = chunks.get(key);
+                if (list != null) {
+                    list.remove(session);
+                    if (list.isEmpty()) {
+                        chunks.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the sessions registered in the chunk containing the position.
+     * Callers still need FarmSession.contains() for the exact bounds check.
+     */
+    List<FarmSession> candidatesAt(ResourceKey<Level> dimension, BlockPos pos) {
+        Long2ObjectOpenHashMap<List<FarmSession>> chunks = byDimension.get(dimension);
+        if (chunks == null) {
+            return EMPTY;
+        }
+        List<FarmSession> list = chunks.get(ChunkPos.asLong(
+            SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        return list != null ? list : EMPTY;
+    }
+
+    boolean isEmpty() {
+        return registeredBounds.isEmpty();
+    }
+
+    void clear() {
+        byDimension.clear();
+        registeredBounds.clear();
+    }
+}
@@ -1,15 +1,16 @@
 package com.moddersapptolast.component;
 
+import com.moddersapptolast.event.VillagerGolemEvents;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Holder;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.ai.Brain;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.npc.Villager;
-import net.minecraft.world.entity.npc.VillagerProfession;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,11 +33,21 @@ public class IronFarmAnalyzer {
     private static final int TICKS_20_MINUTES = 24000;  // Villagers must have slept within this time
     private static final int TICKS_30_SECONDS = 600;    // Golem detection cooldown
     private static final int MIN_VILLAGERS_GOSSIP = 5;  // Minimum villagers for gossip spawning
-    private static final int MIN_VILLAGERS_PANIC = 3;   // Minimum villagers for panic spawning
+    static final int MIN_VILLAGERS_PANIC = 3;           // Minimum villagers for panic spawning
     private static final int GOLEM_DETECTION_RANGE = 16; // Blocks - villagers check for golems in this range
     
+    // Per-villager flag bits stored in FarmAnalysis
+    public static final byte FLAG_BED = 1;            // Has a bed (HOME memory)
+    public static final byte FLAG_JOB = 1 << 1;       // Has a profession other than none/nitwit
+    public static final byte FLAG_SLEPT = 1 << 2;     // Slept in the last 20 minutes
+    public static final byte FLAG_COOLDOWN = 1 << 3;  // Detected a golem in the last 30 seconds
+    
     /**
      * Result of analyzing an iron farm area.
+     * 
+     * Per-villager data is stored struct-of-arrays: index i describes the same
+     * villager in every array, so a hall of hundreds of villagers is three
+     * primitive arrays instead of hundreds of objects.
      */
     public static class FarmAnalysis {
         public final int totalVillagers;
@@ -49,12 +60,17 @@ public class IronFarmAnalyzer {
         public final boolean canSpawnByPanic;
         public final boolean isValidFarm;
         public final String statusMessage;
-        public final List<VillagerInfo> villagerDetails;
+        
+        private final long[] villagerPositions;   // BlockPos.asLong
+        private final int[] villagerProfessions;  // Interned profession ids
+        private final byte[] villagerFlags;       // FLAG_* bits
+        private final int[] professionCounts;     // Villagers per profession id
         
         public FarmAnalysis(int totalVillagers, int villagersWithBeds, int villagersWithJobs,
                           int villagersWhoSleptRecently, int villagersReadyToSpawn, int existingGolems,
                           boolean canSpawnByGossip, boolean canSpawnByPanic, boolean isValidFarm,
-                          String statusMessage, List<VillagerInfo> villagerDetails) {
+                          String statusMessage, long[] villagerPositions, int[] villagerProfessions,
+                          byte[] villagerFlags, int[] professionCounts) {
             this.totalVillagers = totalVillagers;
             this.villagersWithBeds = villagersWithBeds;
             this.villagersWithJobs = villagersWithJobs;
@@ -65,32 +81,69 @@ public class IronFarmAnalyzer {
             this.canSpawnByPanic = canSpawnByPanic;
             this.isValidFarm = isValidFarm;
             this.statusMessage = statusMessage;
-            this.villagerDetails = villagerDetails;
+            this.villagerPositions = villagerPositions;
+            this.villagerProfessions = villagerProfessions;
+            this.villagerFlags = villagerFlags;
+            this.professionCounts = professionCounts;
+        }
+        
+        /**
+         * Number of per-villager rows (equal to totalVillagers).
+         */
+        public int getVillagerCount() {
+            return villagerFlags.length;
+        }
+        
+        public BlockPos getVillagerPos(int i) {
+            return BlockPos.of(villagerPositions[i]);
+        }
+        
+        public String getVillagerProfession(int i) {
+            return ProfessionTable.name(villagerProfessions[i]);
+        }
+        
+        /**
+         * Checks one of the FLAG_* bits of a villager.
+         */
+        public boolean villagerHas(int i, byte flag) {
+            return (villagerFlags[i] & flag) != 0;
+        }
+        
+        public boolean canVillagerTriggerSpawn(int i) {
+            return canTriggerSpawn(villagerFlags[i]);
+        }
+        
+        /**
+         * Builds a "farmer 4, librarian 2" breakdown from the precomputed counts, most common first.
+         */
+        public String getProfessionBreakdown() {
+            StringBuilder sb = new StringBuilder();
+            boolean[] listed = new boolean[professionCounts.length];
+            while (true) {
+                int best = -1;
+                for (int id = 0; id < professionCounts.length; id++) {
+                    if (!listed[id] && professionCounts[id] > 0
+                            && (best < 0 || professionCounts[id] > professionCounts[best])) {
+                        best = id;
+                    }
+                }
+                if (best < 0) {
+                    return sb.toString();
+                }
+                listed[best] = true;
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(ProfessionTable.name(best)).append(' ').append(professionCounts[best]);
+            }
         }
     }
     
     /**
-     * Information about a single villager.
+     * Checks if a villager's flags allow it to trigger a spawn (slept, no golem cooldown).
      */
-    public static class VillagerInfo {
-        public final BlockPos position;
-        public final String profession;
-        public final boolean hasBed;
-        public final boolean hasJobSite;
-        public final boolean sleptRecently;
-        public final boolean detectedGolemRecently;
-        public final boolean canTriggerSpawn;
-        
-        public VillagerInfo(BlockPos position, String profession, boolean hasBed, boolean hasJobSite,
-                          boolean sleptRecently, boolean detectedGolemRecently) {
-            this.position = position;
-            this.profession = profession;
-            this.hasBed = hasBed;
-            this.hasJobSite = hasJobSite;
-            this.sleptRecently = sleptRecently;
-            this.detectedGolemRecently = detectedGolemRecently;
-            this.canTriggerSpawn = sleptRecently && !detectedGolemRecently;
-        }
+    static boolean canTriggerSpawn(byte flags) {
+        return (flags & (FLAG_SLEPT | FLAG_COOLDOWN)) == FLAG_SLEPT;
     }
     
     /**
@@ -106,7 +159,60 @@ public class IronFarmAnalyzer {
             return createEmptyAnalysis();
         }
         
-        BlockPos center = player.blockPosition();
+        return analyzeFarm(world, player.blockPosition(), radius);
+    }
+    
+    /**
+     * Analyzes the iron farm structure around an arbitrary center, both phases on
+     * the calling thread. FarmAnalysisCache runs them split instead (snapshot here,
+     * evaluate on a worker) and snaps the center to a grid so nearby requests share results.
+     * 
+     * @param world The level to scan
+     * @param center Center of the search area
+     * @param radius The radius to search for villagers
+     * @return FarmAnalysis containing detailed information about the farm
+     */
+    public static FarmAnalysis analyzeFarm(ServerLevel world, BlockPos center, int radius) {
+        FarmSnapshot snapshot = snapshot(world, center, radius);
+        return evaluate(snapshot.rows(), snapshot.existingGolems());
+    }
+    
+    /**
+     * Raw per-villager rows of an area plus the golem positions (BlockPos.asLong):
+     * everything evaluate() needs.
+     */
+    record FarmSnapshot(VillagerBuffer rows, long[] golems) {
+        
+        int existingGolems() {
+            return golems.length;
+        }
+        
+        /**
+         * The rows and golems whose block position lies inside the box (bounds
+         * included), so a snapshot of a larger area can answer a smaller request.
+         */
+        FarmSnapshot within(AABB box) {
+            VillagerBuffer inside = new VillagerBuffer(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                if (contains(box, rows.position(i))) {
+                    inside.addFrom(rows, i);
+                }
+            }
+            return new FarmSnapshot(inside, Arrays.stream(golems).filter(pos -> contains(box, pos)).toArray());
+        }
+        
+        private static boolean contains(AABB box, long pos) {
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            return x >= box.minX && x <= box.maxX && y >= box.minY && y <= box.maxY && z >= box.minZ && z <= box.maxZ;
+        }
+    }
+    
+    /**
+     * Main-thread phase of an analysis: copies each villager's position, profession
+     * and flags into a primitive buffer. Counting, verdicts and the status message
+     * are left to evaluate(), which can run on a worker thread.
+     */
+    static FarmSnapshot snapshot(ServerLevel world, BlockPos center, int radius) {
         long currentGameTime = world.getGameTime();
         
         // Create search area
@@ -119,49 +225,72 @@ public class IronFarmAnalyzer {
         List<Villager> villagers = world.getEntitiesOfClass(Villager.class, searchArea);
         
         // Find existing iron golems in the area
-        int existingGolems = world.getEntitiesOfClass(
+        long[] golems = world.getEntitiesOfClass(
             net.minecraft.world.entity.animal.IronGolem.class, searchArea
-        ).size();
+        ).stream().mapToLong(golem -> golem.blockPosition().asLong()).toArray();
+        
+        // Copy each villager into packed rows
+        VillagerBuffer rows = new VillagerBuffer(villagers.size());
+        for (Villager villager : villagers) {
+            addVillager(rows, villager, currentGameTime);
+        }
+        
+        return new FarmSnapshot(rows, golems);
+    }
+    
+    /**
+     * Reads the golem-spawning state of a single villager and appends it as a row.
+     * Must be called on the server thread (reads the villager's brain memories).
+     */
+    static void addVillager(VillagerBuffer rows, Villager villager, long currentGameTime) {
+        int profession = ProfessionTable.idOf(villager.getVillagerData().profession());
+        rows.add(villager.blockPosition().asLong(), profession, villagerFlags(villager, profession, currentGameTime));
+    }
+    
+    /**
+     * FLAG_* bits of a single villager. Server thread only (reads brain memories).
+     * Also used by ReadinessSampler, one villager at a time.
+     */
+    static byte villagerFlags(Villager villager, int profession, long currentGameTime) {
+        Brain<Villager> brain = villager.getBrain();
+        
+        byte flags = 0;
+        // Check if villager has a bed
+        if (brain.hasMemoryValue(MemoryModuleType.HOME)) flags |= FLAG_BED;
+        // Check if villager has a job site (has a profession other than none/nitwit)
+        if (!ProfessionTable.isJobless(profession)) flags |= FLAG_JOB;
+        // Check if villager slept recently (within last 20 minutes)
+        if (checkIfSleptRecently(brain, currentGameTime)) flags |= FLAG_SLEPT;
+        // Check if villager detected a golem recently (within last 30 seconds)
+        if (brain.hasMemoryValue(MemoryModuleType.GOLEM_DETECTED_RECENTLY)) flags |= FLAG_COOLDOWN;
         
-        // Analyze each villager
-        java.util.ArrayList<VillagerInfo> villagerDetails = new java.util.ArrayList<>();
+        return flags;
+    }
+    
+    /**
+     * Turns packed villager rows into a FarmAnalysis (counts, verdicts + status message).
+     * Shared by the per-player analysis and the server-wide farm discovery, so it must
+     * not touch the world (discovery calls it from worker threads).
+     */
+    static FarmAnalysis evaluate(VillagerBuffer rows, int existingGolems) {
+        int totalVillagers = rows.size();
         int villagersWithBeds = 0;
         int villagersWithJobs = 0;
         int villagersWhoSleptRecently = 0;
         int villagersReadyToSpawn = 0;
+        int[] professionCounts = new int[ProfessionTable.size()];
         
-        for (Villager villager : villagers) {
-            // Check if villager has a bed
-            boolean hasBed = villager.getBrain()
-                .getMemory(MemoryModuleType.HOME)
-                .isPresent();
-            
-            // Check if villager has a job site (has a profession other than none/nitwit)
-            Holder<VillagerProfession> professionHolder = villager.getVillagerData().profession();
-            String professionName = getProfessionName(professionHolder);
-            boolean hasJobSite = !professionName.equals("none") && !professionName.equals("nitwit");
-            
-            // Check if villager slept recently (within last 20 minutes)
-            boolean sleptRecently = checkIfSleptRecently(villager, currentGameTime);
-            
-            // Check if villager detected a golem recently (within last 30 seconds)
-            boolean detectedGolemRecently = villager.getBrain()
-                .getMemory(MemoryModuleType.GOLEM_DETECTED_RECENTLY)
-                .isPresent();
-            
-            if (hasBed) villagersWithBeds++;
-            if (hasJobSite) villagersWithJobs++;
-            if (sleptRecently) villagersWhoSleptRecently++;
-            if (sleptRecently && !detectedGolemRecently) villagersReadyToSpawn++;
+        for (int i = 0; i < totalVillagers; i++) {
+            byte flags = rows.flags(i);
+            if ((flags & FLAG_BED) != 0) villagersWithBeds++;
+            if ((flags & FLAG_JOB) != 0) villagersWithJobs++;
+            if ((flags & FLAG_SLEPT) != 0) villagersWhoSleptRecently++;
+            if (canTriggerSpawn(flags)) villagersReadyToSpawn++;
             
-            villagerDetails.add(new VillagerInfo(
-                villager.blockPosition(),
-                professionName,
-                hasBed,
-                hasJobSite,
-                sleptRecently,
-                detectedGolemRecently
-            ));
+            int profession = rows.profession(i);
+            if (profession >= 0 && profession < professionCounts.length) {
+                professionCounts[profession]++;
+            }
         }
         
         // Determine if farm can spawn golems
@@ -171,12 +300,12 @@ public class IronFarmAnalyzer {
         
         // Build status message
         String statusMessage = buildStatusMessage(
-            villagers.size(), villagersWithBeds, villagersWhoSleptRecently,
+            totalVillagers, villagersWithBeds, villagersWhoSleptRecently,
             villagersReadyToSpawn, existingGolems, canSpawnByGossip, canSpawnByPanic
         );
         
         return new FarmAnalysis(
-            villagers.size(),
+            totalVillagers,
             villagersWithBeds,
             villagersWithJobs,
             villagersWhoSleptRecently,
@@ -186,35 +315,27 @@ public class IronFarmAnalyzer {
             canSpawnByPanic,
             isValidFarm,
             statusMessage,
-            villagerDetails
+            rows.positions(),
+            rows.professions(),
+            rows.flags(),
+            professionCounts
         );
     }
     
-    /**
-     * Gets the profession name from a Holder<VillagerProfession>.
-     * Works with Minecraft 1.21.10 Mojang mappings.
-     */
-    private static String getProfessionName(Holder<VillagerProfession> professionHolder) {
-        // Get the registry key name from the holder
-        return professionHolder.unwrapKey()
-            .map(key -> key.location().getPath())
-            .orElse("unknown");
-    }
-    
     /**
      * Creates an empty analysis result for error cases.
      */
     private static FarmAnalysis createEmptyAnalysis() {
         return new FarmAnalysis(0, 0, 0, 0, 0, 0, false, false, false,
-            "§c✗ Error al analizar", new java.util.ArrayList<>());
+            "§c✗ Error al analizar", new long[0], new int[0], new byte[0], new int[0]);
     }
     
     /**
      * Checks if a villager has slept within the last 20 minutes (24000 ticks).
      * Uses the LAST_SLEPT memory module from the villager's brain.
      */
-    private static boolean checkIfSleptRecently(Villager villager, long currentGameTime) {
-        Optional<Long> lastSlept = villager.getBrain().getMemory(MemoryModuleType.LAST_SLEPT);
+    private static boolean checkIfSleptRecently(Brain<Villager> brain, long currentGameTime) {
+        Optional<Long> lastSlept = brain.getMemory(MemoryModuleType.LAST_SLEPT);
         
         if (lastSlept.isPresent()) {
             long ticksSinceSlept = currentGameTime - lastSlept.get();
@@ -265,6 +386,37 @@ public class IronFarmAnalyzer {
         return sb.toString().trim();
     }
     
+    /**
+     * Describes how often the farm's villagers try to summon golems and why they fail.
+     * Shown next to the readiness numbers of the analysis report.
+     */
+    public static String getAttemptSummary(FarmSession session) {
+        long attempts = session.getSpawnAttempts();
+        long notReady = session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.NOT_SLEPT)
+            + session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.GOLEM_NEARBY);
+        
+        if (attempts == 0) {
+            return notReady == 0
+                ? "  §7Intentos de spawn: §fninguno todavía"
+                : "  §7Intentos de spawn: §c0 §7(" + notReady + " veces sin estar listos)";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("  §7Intentos de spawn: §f")
+            .append(session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.SPAWNED))
+            .append("/").append(attempts)
+            .append(" §7(").append(String.format("%.0f", session.getAttemptSuccessRatio() * 100)).append("% éxito)\n");
+        sb.append("  §7Fallos - pocos aldeanos: §f")
+            .append(session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.NOT_ENOUGH_VILLAGERS))
+            .append(" §7| sin espacio: §f")
+            .append(session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.NO_SPAWN_SPACE))
+            .append(" §7| sin dormir: §f")
+            .append(session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.NOT_SLEPT))
+            .append(" §7| cooldown: §f")
+            .append(session.getAttemptOutcomeCount(VillagerGolemEvents.AttemptOutcome.GOLEM_NEARBY));
+        return sb.toString();
+    }
+    
     /**
      * Gets a quick summary suitable for action bar display.
      */
@@ -1,33 +1,54 @@
 package com.moddersapptolast.component;
 
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.event.VillagerGolemEvents;
+import com.moddersapptolast.network.MonitorHudPayload;
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.task.TickScheduler;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.game.ClientboundSetActionBarTextPacket;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.animal.IronGolem;
-import net.minecraft.world.entity.npc.Villager;
-import net.minecraft.world.phys.AABB;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Iron Farm Monitor - Real-time server-side golem spawn tracker.
  * Compatible with Polymer - all messages sent only to the player.
  * 
  * Uses Fabric API events (verified from official fabric-lifecycle-events-v1):
- * - ServerEntityEvents.ENTITY_LOAD: Detects when Iron Golems spawn
- * - ServerTickEvents.END_SERVER_TICK: Updates action bar display
+ * - VillagerGolemEvents.GOLEM_SUMMONED: Fired by mixin.VillagerMixin when a villager summons a golem
+ * - TickScheduler (every monitor.displayIntervalTicks, 10 by default, high priority): Updates action bar display,
+ *   or sends the changed numbers as a MonitorHudPayload to clients that have the mod
+ * - ServerLivingEntityEvents.AFTER_DEATH + LootTableEvents.MODIFY_DROPS: Iron output per farm
  * 
- * Detection criteria for villager-spawned golems:
- * - IronGolem.isPlayerCreated() == false (not built by player)
- * - entity.tickCount <= 1 (newly spawned, not loaded from chunk)
- * - Villagers present in the monitoring area
+ * Monitored areas are shared FarmSessions: each spawn is recorded once per session
+ * (found through a chunk-keyed FarmSessionIndex) and then fanned out to its subscribers.
+ * 
+ * Detection is exact: the event carries the summoning villager and the reason
+ * (gossip or panic), so player-built golems, spawn eggs and commands are never counted.
  * 
  * Based on official Fabric API and Minecraft 1.21.10 mechanics.
  */
@@ -36,90 +57,281 @@ public class IronFarmMonitor {
     // Store monitoring data per player (by UUID)
     private static final Map<UUID, PlayerMonitorData> playerData = new HashMap<>();
     
+    // Shared farm sessions by name, plus their spatial index
+    private static final Map<String, FarmSession> sessions = new HashMap<>();
+    private static final FarmSessionIndex sessionIndex = new FarmSessionIndex();
+    // Same sessions in a list, for tasks that walk them by position every tick
+    private static final List<FarmSession> sessionList = new ArrayList<>();
+    private static final List<FarmSession> sessionListView = Collections.unmodifiableList(sessionList);
+    
+    // Farm-spawned golems still alive -> sessions that saw them spawn
+    private static final Map<UUID, List<FarmSession>> trackedGolems = new HashMap<>();
+    
+    // Drops of the golem currently dying (loot is rolled just before AFTER_DEATH fires)
+    private static IronGolem dyingGolem = null;
+    private static int dyingGolemIron = 0;
+    private static int dyingGolemPoppies = 0;
+    
     /**
      * Initializes the Iron Farm Monitor event listeners.
      * Called from main mod initializer.
      */
     public static void initialize() {
-        // Register entity load event to detect golem spawns
-        // Based on: ServerEntityEvents.ENTITY_LOAD from fabric-lifecycle-events-v1
-        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+        // Compact HUD channel; clients with the mod register a receiver for it (see VillagersCatchClient)
+        PayloadTypeRegistry.playS2C().register(MonitorHudPayload.TYPE, MonitorHudPayload.CODEC);
+        
+        // Exact golem spawn detection, fired by mixin.VillagerMixin when a villager summons a golem
+        VillagerGolemEvents.GOLEM_SUMMONED.register((world, villager, golem, reason) -> {
+            long start = HandlerTimings.start();
+            onGolemSummoned(golem, world, reason);
+            HandlerTimings.stop(HandlerTimings.Handler.GOLEM_SUMMONED, start);
+        });
+        
+        // Attempt tracing: every summon evaluation is counted in the farm the villager stands in
+        VillagerGolemEvents.SPAWN_ATTEMPT.register((world, villager, reason, outcome) -> {
+            if (!sessionIndex.isEmpty()) {
+                long start = HandlerTimings.start();
+                onSpawnAttempt(villager.blockPosition(), world, outcome);
+                HandlerTimings.stop(HandlerTimings.Handler.SPAWN_ATTEMPT, start);
+            }
+        });
+        
+        // Throughput: golem deaths, their drops, and golems leaving the world
+        // Based on: ServerLivingEntityEvents.AFTER_DEATH (fabric-entity-events-v1), LootTableEvents.MODIFY_DROPS (fabric-loot-api-v3)
+        LootTableEvents.MODIFY_DROPS.register((lootTable, context, drops) -> {
+            if (context.getOptionalParameter(LootContextParams.THIS_ENTITY) instanceof IronGolem golem
+                    && !sessionIndex.isEmpty()) {
+                onGolemDrops(golem, drops);
+            }
+        });
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, damageSource) -> {
+            if (entity instanceof IronGolem golem && entity.level() instanceof ServerLevel world) {
+                long start = HandlerTimings.start();
+                onGolemDeath(golem, world);
+                HandlerTimings.stop(HandlerTimings.Handler.GOLEM_DEATH, start);
+            }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
             if (entity instanceof IronGolem golem) {
-                onGolemLoaded(golem, world);
+                onGolemUnloaded(golem);
             }
         });
         
-        // Register tick event for action bar updates
-        // Based on: ServerTickEvents.END_SERVER_TICK from fabric-lifecycle-events-v1
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            // Update every 10 ticks (0.5 seconds) for performance
-            if (server.getTickCount() % 10 == 0) {
-                for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-                    updatePlayerDisplay(player);
-                }
+        // Action bar updates every monitor.displayIntervalTicks (10 = 0.5 seconds), through the shared tick budget
+        TickScheduler.repeat("ironmonitor-display", TickScheduler.Priority.HIGH,
+            () -> ModConfig.get().monitor.displayIntervalTicks, server -> {
+            long start = HandlerTimings.start();
+            updateFollowingSessions(server);
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                updatePlayerDisplay(player);
             }
+            HandlerTimings.stop(HandlerTimings.Handler.MONITOR_TICK, start);
+        });
+        
+        // Leave the farm session when the player disconnects
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> cleanup(handler.getPlayer().getUUID()));
+        
+        // Drop all sessions between integrated server sessions
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            playerData.clear();
+            sessions.clear();
+            sessionList.clear();
+            sessionIndex.clear();
+            trackedGolems.clear();
+            dyingGolem = null;
         });
     }
     
     /**
-     * Called when an Iron Golem is loaded into the world.
-     * Filters to only count golems spawned by villagers (not player-built or chunk-loaded).
-     * 
-     * Detection logic:
-     * 1. isPlayerCreated() == false: Golem was NOT built by a player
-     * 2. tickCount <= 1: Entity was just created (not loaded from existing chunk)
-     * 3. Villagers nearby: Confirms this is likely a villager-spawned golem
+     * Called when a villager summons an Iron Golem (gossip or panic).
+     * No heuristics needed: player-built golems, spawn eggs, commands and
+     * other mods never reach this point.
      */
-    private static void onGolemLoaded(IronGolem golem, ServerLevel world) {
-        // Filter 1: Skip player-created golems (built with iron blocks + pumpkin)
-        if (golem.isPlayerCreated()) {
+    private static void onGolemSummoned(IronGolem golem, ServerLevel world, VillagerGolemEvents.SummonReason reason) {
+        BlockPos golemPos = golem.blockPosition();
+        
+        // Only golems inside a monitored farm (chunk index lookup)
+        List<FarmSession> candidates = sessionIndex.candidatesAt(world.dimension(), golemPos);
+        if (candidates.isEmpty()) {
             return;
         }
         
-        // Filter 2: Skip golems loaded from chunks (tickCount > 1 means already existed)
-        // tickCount is 0 on first tick, 1 on second tick after spawn
-        if (golem.tickCount > 1) {
+        // This is a villager-spawned golem! Record once per session, then notify its watchers
+        for (FarmSession session : candidates) {
+            if (!session.contains(golemPos)) {
+                continue;
+            }
+            
+            // Record the spawn with real timestamp
+            session.recordGolemSpawn(reason);
+            if (session.trackGolem(golem.getUUID(), session.getLastSpawnTime())) {
+                trackedGolems.computeIfAbsent(golem.getUUID(), k -> new ArrayList<>(1)).add(session);
+            }
+            if (session.shouldAlertBacklog()) {
+                alertBacklog(session, world.getServer());
+            }
+            
+            // Notify the watchers (only them, not the server console).
+            // Digest watchers just bump counters; the chat line is only built if someone wants it per spawn.
+            long now = session.getLastSpawnTime();
+            Component text = null;
+            for (UUID subscriber : session.getSubscribers()) {
+                PlayerMonitorData data = playerData.get(subscriber);
+                if (data == null) {
+                    continue;
+                }
+                
+                switch (data.getNotificationMode()) {
+                    case DIGEST -> data.recordPendingSpawn(now);
+                    case EACH -> {
+                        ServerPlayer player = world.getServer().getPlayerList().getPlayer(subscriber);
+                        if (player != null) {
+                            if (text == null) {
+                                text = Component.literal(String.format(
+                                    "§a⚙ §fGolem #%d spawneado! §7(%s, %.1fs desde el anterior)",
+                                    session.getGolemCount(),
+                                    reason == VillagerGolemEvents.SummonReason.GOSSIP ? "gossip" : "pánico",
+                                    session.getLastSpawnInterval()
+                                ));
+                            }
+                            player.sendSystemMessage(text, false);
+                        }
+                    }
+                    case OFF -> { }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Counts a villager's golem spawn attempt (or non-attempt) in the farms around it.
+     */
+    private static void onSpawnAttempt(BlockPos villagerPos, ServerLevel world, VillagerGolemEvents.AttemptOutcome outcome) {
+        for (FarmSession session : sessionIndex.candidatesAt(world.dimension(), villagerPos)) {
+            if (session.contains(villagerPos)) {
+                session.recordSpawnAttempt(outcome);
+            }
+        }
+    }
+    
+    /**
+     * Remembers the iron and poppies rolled from a dying golem's loot table.
+     */
+    private static void onGolemDrops(IronGolem golem, List<ItemStack> drops) {
+        int iron = 0;
+        int poppies = 0;
+        for (ItemStack stack : drops) {
+            if (stack.is(Items.IRON_INGOT)) {
+                iron += stack.getCount();
+            } else if (stack.is(Items.POPPY)) {
+                poppies += stack.getCount();
+            }
+        }
+        dyingGolem = golem;
+        dyingGolemIron = iron;
+        dyingGolemPoppies = poppies;
+    }
+    
+    /**
+     * Records a golem death in the sessions that spawned it, or else in the farm it died in.
+     * Uses the tracked-golem map first, then the same chunk index as spawn detection.
+     */
+    private static void onGolemDeath(IronGolem golem, ServerLevel world) {
+        int iron = dyingGolem == golem ? dyingGolemIron : 0;
+        int poppies = dyingGolem == golem ? dyingGolemPoppies : 0;
+        dyingGolem = null;
+        
+        List<FarmSession> owners = trackedGolems.remove(golem.getUUID());
+        if (owners != null) {
+            for (FarmSession session : owners) {
+                session.recordGolemDeath(golem.getUUID(), iron, poppies);
+            }
             return;
         }
         
-        BlockPos golemPos = golem.blockPosition();
+        BlockPos pos = golem.blockPosition();
+        for (FarmSession session : sessionIndex.candidatesAt(world.dimension(), pos)) {
+            if (session.contains(pos)) {
+                session.recordGolemDeath(golem.getUUID(), iron, poppies);
+            }
+        }
+    }
+    
+    /**
+     * Stops tracking golems that left the world without dying (despawn, dimension change).
+     * Golems merely unloaded with their chunk stay in the backlog.
+     */
+    private static void onGolemUnloaded(IronGolem golem) {
+        Entity.RemovalReason reason = golem.getRemovalReason();
+        if (reason == null || reason == Entity.RemovalReason.UNLOADED_TO_CHUNK
+                || reason == Entity.RemovalReason.UNLOADED_WITH_PLAYER) {
+            return;
+        }
         
-        // Filter 3: Verify villagers are nearby (within 17 blocks - spawn range)
-        AABB villagerCheckArea = new AABB(
-            golemPos.getX() - 17, golemPos.getY() - 13, golemPos.getZ() - 17,
-            golemPos.getX() + 17, golemPos.getY() + 13, golemPos.getZ() + 17
+        List<FarmSession> owners = trackedGolems.remove(golem.getUUID());
+        if (owners != null) {
+            for (FarmSession session : owners) {
+                session.untrackGolem(golem.getUUID());
+            }
+        }
+    }
+    
+    /**
+     * Warns a session's watchers that golems are piling up instead of being killed.
+     */
+    private static void alertBacklog(FarmSession session, MinecraftServer server) {
+        Component text = Component.literal(
+            "§c⚠ §fGranja §6" + session.getName() + "§f: §c" + session.getGolemBacklog() +
+            " golems vivos acumulados §7(revisa la cámara de muerte - afecta al TPS)"
         );
-        
-        List<Villager> nearbyVillagers = world.getEntitiesOfClass(Villager.class, villagerCheckArea);
-        if (nearbyVillagers.isEmpty()) {
+        for (UUID subscriber : session.getSubscribers()) {
+            ServerPlayer player = server.getPlayerList().getPlayer(subscriber);
+            if (player != null) {
+                player.sendSystemMessage(text, false);
+            }
+        }
+    }
+    
+    /**
+     * Sends one summary chat line per digest window to players in DIGEST mode,
+     * e.g. "12 golems en los últimos 60s (promedio 5.0s)".
+     */
+    private static void flushDigest(ServerPlayer player, PlayerMonitorData data) {
+        long now = System.currentTimeMillis();
+        if (!data.isDigestDue(now)) {
             return;
         }
         
-        // This is a villager-spawned golem! Notify all monitoring players in range
-        for (Map.Entry<UUID, PlayerMonitorData> entry : playerData.entrySet()) {
-            PlayerMonitorData data = entry.getValue();
-            
-            if (!data.isMonitoring()) {
+        int count = data.getPendingSpawns();
+        if (count > 0) {
+            StringBuilder message = new StringBuilder();
+            message.append("§a⚙ §f").append(count).append(count == 1 ? " golem" : " golems")
+                .append(" en los últimos ").append(data.getDigestWindowSeconds()).append("s");
+            double avgInterval = data.getPendingAverageInterval();
+            if (avgInterval > 0) {
+                message.append(" §7(promedio ").append(String.format("%.1f", avgInterval)).append("s)");
+            }
+            player.sendSystemMessage(Component.literal(message.toString()), false);
+        }
+        data.clearDigest(now);
+    }
+    
+    /**
+     * Moves follow-mode sessions to their owner's position and reindexes them.
+     */
+    private static void updateFollowingSessions(MinecraftServer server) {
+        for (FarmSession session : sessions.values()) {
+            if (!session.isFollowPlayer()) {
                 continue;
             }
             
-            AABB monitorArea = data.getMonitoringArea();
-            if (monitorArea != null && monitorArea.contains(golemPos.getX(), golemPos.getY(), golemPos.getZ())) {
-                // Record the spawn with real timestamp
-                data.recordGolemSpawn();
-                
-                // Find player and send notification (only to the player, not to server console)
-                ServerPlayer player = world.getServer().getPlayerList().getPlayer(entry.getKey());
-                if (player != null) {
-                    // Send chat notification for the spawn event - only to this player
-                    String spawnMsg = String.format(
-                        "§a⚙ §fGolem #%d spawneado! §7(%.1fs desde el anterior)",
-                        data.getGolemCount(),
-                        data.getSecondsSinceLastSpawn()
-                    );
-                    player.sendSystemMessage(Component.literal(spawnMsg), false);
-                }
+            ServerPlayer owner = server.getPlayerList().getPlayer(session.getOwner());
+            if (owner == null || !owner.level().dimension().equals(session.getDimension())) {
+                continue;
             }
+            
+            session.setCenterPos(owner.blockPosition());
+            sessionIndex.update(session);
         }
     }
     
@@ -135,124 +347,265 @@ public class IronFarmMonitor {
             return;
         }
         
-        // Update center position if following player
-        if (data.isFollowPlayer()) {
-            data.setCenterPos(player.blockPosition());
+        if (data.getNotificationMode() == PlayerMonitorData.NotificationMode.DIGEST) {
+            flushDigest(player, data);
+        }
+        
+        FarmSession session = data.getSession();
+        
+        // Modded clients draw their own HUD: send them only the numbers that changed
+        if (ServerPlayNetworking.canSend(player, MonitorHudPayload.TYPE)) {
+            sendHudUpdate(player, data, session);
+            return;
         }
         
         // Build display message with real-time data
         StringBuilder message = new StringBuilder();
-        message.append("§6⚙ §eGolems: §f").append(data.getGolemCount());
+        message.append("§6⚙ §eGolems: §f").append(session.getGolemCount());
         
         // Show rate based on actual spawns
-        double rate = data.getGolemsPerMinute();
+        double rate = session.getGolemsPerMinute();
         if (rate > 0) {
             message.append(" §7| §eRate: §f").append(String.format("%.1f", rate)).append("/min");
         }
         
         // Show time since last spawn (real, not calculated)
-        double secondsSinceLast = data.getSecondsSinceLastSpawn();
-        if (data.getGolemCount() > 0) {
+        double secondsSinceLast = session.getSecondsSinceLastSpawn();
+        if (session.getGolemCount() > 0) {
             message.append(" §7| §eÚltimo: §f").append(String.format("%.0f", secondsSinceLast)).append("s");
         } else {
             message.append(" §7| §eEsperando spawn...");
         }
         
         // Show average interval if we have enough data
-        double avgInterval = data.getAverageSpawnInterval();
+        double avgInterval = session.getAverageSpawnInterval();
         if (avgInterval > 0) {
             message.append(" §7| §ePromedio: §f").append(String.format("%.1f", avgInterval)).append("s");
         }
         
+        // Show iron output and golems piling up
+        if (session.getIronIngots() > 0) {
+            message.append(" §7| §eHierro: §f").append(String.format("%.0f", session.getIronPerHour())).append("/h");
+        }
+        int backlog = session.getGolemBacklog();
+        if (backlog > 0) {
+            message.append(" §7| ").append(backlog >= FarmSession.BACKLOG_ALERT_THRESHOLD ? "§c" : "§e")
+                .append("Vivos: ").append(backlog);
+        }
+        
         // Send action bar packet directly to player (Polymer compatible)
         Component text = Component.literal(message.toString());
         player.connection.send(new ClientboundSetActionBarTextPacket(text));
     }
     
+    /**
+     * Sends the HUD fields that differ from what the player's client already shows.
+     * The time since the last spawn is sent once per spawn; the client keeps counting.
+     */
+    private static void sendHudUpdate(ServerPlayer player, PlayerMonitorData data, FarmSession session) {
+        IronFarmAnalyzer.FarmAnalysis analysis = session.getLastAnalysis();
+        
+        int[] values = new int[MonitorHudPayload.FIELDS];
+        values[MonitorHudPayload.GOLEMS] = session.getGolemCount();
+        values[MonitorHudPayload.RATE_TENTHS] = (int) Math.round(session.getGolemsPerMinute() * 10);
+        values[MonitorHudPayload.LAST_INTERVAL_TENTHS] = (int) Math.round(session.getLastSpawnInterval() * 10);
+        values[MonitorHudPayload.AVG_INTERVAL_TENTHS] = (int) Math.round(session.getAverageSpawnInterval() * 10);
+        values[MonitorHudPayload.LAST_SPAWN_AGE] = session.getLastSpawnTime() == 0 ? -1 : (int) session.getSecondsSinceLastSpawn();
+        // Sampled readiness once the sampler has a roster, else the last analysis
+        ReadinessTimeline readiness = session.getReadiness();
+        values[MonitorHudPayload.READY_VILLAGERS] = readiness.getRosterSize() > 0 ? readiness.getReady()
+            : analysis != null ? analysis.villagersReadyToSpawn : -1;
+        values[MonitorHudPayload.IRON_PER_HOUR] = session.getIronIngots() > 0 ? (int) Math.round(session.getIronPerHour()) : 0;
+        values[MonitorHudPayload.BACKLOG] = session.getGolemBacklog();
+        
+        int[] sent = data.getHudSent();
+        int changed = 0;
+        for (int field = 0; field < MonitorHudPayload.FIELDS; field++) {
+            boolean differs = field == MonitorHudPayload.LAST_SPAWN_AGE
+                ? session.getLastSpawnTime() != data.getHudSpawnTime()
+                : sent == null || sent[field] != values[field];
+            if (differs) {
+                changed |= 1 << field;
+            }
+        }
+        
+        if (changed != 0) {
+            ServerPlayNetworking.send(player, MonitorHudPayload.update(changed, values));
+            data.setHudSent(values, session.getLastSpawnTime());
+        }
+    }
+    
     // ============ Public API for Commands ============
     
     /**
      * Starts monitoring for a player with a fixed position.
-     * Automatically analyzes the iron farm structure.
+     * Creates a new farm session other players can join, and analyzes the farm structure.
      * 
-     * @return FarmAnalysis with information about the detected farm structure
+     * @return the farm analysis, completed on the server thread once evaluated
      */
-    public static IronFarmAnalyzer.FarmAnalysis startMonitoring(ServerPlayer player, int radius) {
-        PlayerMonitorData data = getOrCreateData(player);
-        data.setMonitoring(true);
-        data.setFollowPlayer(false);
-        data.setCenterPos(player.blockPosition());
-        data.setRadius(radius);
-        data.setStartTime(System.currentTimeMillis());
-        data.resetStats();
-        
-        // Analyze the farm structure
-        IronFarmAnalyzer.FarmAnalysis analysis = IronFarmAnalyzer.analyzeFarm(player, radius);
-        data.setLastAnalysis(analysis);
-        
-        return analysis;
+    public static CompletableFuture<IronFarmAnalyzer.FarmAnalysis> startMonitoring(ServerPlayer player, int radius) {
+        return startSession(player, radius, false);
     }
     
     /**
      * Starts monitoring for a player that follows their position.
-     * Automatically analyzes the iron farm structure.
+     * Creates a new farm session other players can join, and analyzes the farm structure.
+     * 
+     * @return the farm analysis, completed on the server thread once evaluated
+     */
+    public static CompletableFuture<IronFarmAnalyzer.FarmAnalysis> startMonitoringFollow(ServerPlayer player, int radius) {
+        return startSession(player, radius, true);
+    }
+    
+    private static CompletableFuture<IronFarmAnalyzer.FarmAnalysis> startSession(ServerPlayer player, int radius, boolean follow) {
+        leaveSession(player.getUUID());
+        
+        FarmSession session = new FarmSession(
+            uniqueSessionName(player.getName().getString()),
+            player.getUUID(),
+            player.level().dimension(),
+            player.blockPosition(),
+            radius,
+            follow
+        );
+        sessions.put(session.getName(), session);
+        sessionList.add(session);
+        sessionIndex.update(session);
+        subscribe(player, session);
+        
+        // Analyze the farm structure (shared with other players at the same farm)
+        return FarmAnalysisCache.getOrAnalyze((ServerLevel) player.level(), player.blockPosition(), radius)
+            .thenApply(analysis -> {
+                session.setLastAnalysis(analysis);
+                return analysis;
+            });
+    }
+    
+    /**
+     * Subscribes a player to an existing farm session.
+     * 
+     * @return the joined session, or null if no session has that name
+     */
+    public static FarmSession joinSession(ServerPlayer player, String name) {
+        FarmSession session = sessions.get(name.toLowerCase(Locale.ROOT));
+        if (session == null) {
+            return null;
+        }
+        
+        leaveSession(player.getUUID());
+        subscribe(player, session);
+        return session;
+    }
+    
+    private static void subscribe(ServerPlayer player, FarmSession session) {
+        session.addSubscriber(player.getUUID());
+        getOrCreateData(player).setSession(session);
+    }
+    
+    /**
+     * Unsubscribes a player from their session and drops the session once nobody watches it.
+     */
+    private static void leaveSession(UUID playerUUID) {
+        PlayerMonitorData data = playerData.get(playerUUID);
+        if (data == null || data.getSession() == null) {
+            return;
+        }
+        
+        FarmSession session = data.getSession();
+        session.removeSubscriber(playerUUID);
+        data.stopMonitoring();
+        
+        if (session.getSubscriberCount() == 0) {
+            sessions.remove(session.getName());
+            sessionList.remove(session);
+            sessionIndex.remove(session);
+            for (UUID golem : session.getLiveGolems()) {
+                List<FarmSession> owners = trackedGolems.get(golem);
+                if (owners != null) {
+                    owners.remove(session);
+                    if (owners.isEmpty()) {
+                        trackedGolems.remove(golem);
+                    }
+                }
+            }
+        } else if (session.isFollowPlayer() && session.getOwner().equals(playerUUID)) {
+            // Owner left a shared follow session: freeze it where it is
+            session.setFollowPlayer(false);
+        }
+    }
+    
+    /**
+     * Picks a session name based on the player name, unique among active sessions.
+     */
+    private static String uniqueSessionName(String playerName) {
+        String base = playerName.toLowerCase(Locale.ROOT);
+        String name = base;
+        int suffix = 2;
+        while (sessions.containsKey(name)) {
+            name = base + "-" + suffix++;
+        }
+        return name;
+    }
+    
+    /**
+     * Sets how spawn notifications are delivered to a player.
      * 
-     * @return FarmAnalysis with information about the detected farm structure
+     * @param digestWindowSeconds window length for DIGEST mode
      */
-    public static IronFarmAnalyzer.FarmAnalysis startMonitoringFollow(ServerPlayer player, int radius) {
-        PlayerMonitorData data = getOrCreateData(player);
-        data.setMonitoring(true);
-        data.setFollowPlayer(true);
-        data.setCenterPos(player.blockPosition());
-        data.setRadius(radius);
-        data.setStartTime(System.currentTimeMillis());
-        data.resetStats();
-        
-        // Analyze the farm structure
-        IronFarmAnalyzer.FarmAnalysis analysis = IronFarmAnalyzer.analyzeFarm(player, radius);
-        data.setLastAnalysis(analysis);
-        
-        return analysis;
+    public static void setNotificationMode(ServerPlayer player, PlayerMonitorData.NotificationMode mode,
+                                           int digestWindowSeconds) {
+        getOrCreateData(player).setNotificationMode(mode, digestWindowSeconds);
+    }
+    
+    /**
+     * Turns the particle outline of the monitored area on or off for a player (see AreaOutline).
+     */
+    public static void setOutline(ServerPlayer player, boolean enabled) {
+        getOrCreateData(player).setOutlineEnabled(enabled);
     }
     
     /**
      * Re-analyzes the farm structure for a player.
      * Useful when the player wants to refresh the farm status.
+     * 
+     * @return the new analysis, completed on the server thread; null if the player is not monitoring
      */
-    public static IronFarmAnalyzer.FarmAnalysis reanalyzeFarm(ServerPlayer player) {
+    public static CompletableFuture<IronFarmAnalyzer.FarmAnalysis> reanalyzeFarm(ServerPlayer player) {
         PlayerMonitorData data = playerData.get(player.getUUID());
         if (data == null || !data.isMonitoring()) {
             return null;
         }
         
-        // Update center if following player
-        if (data.isFollowPlayer()) {
-            data.setCenterPos(player.blockPosition());
+        FarmSession session = data.getSession();
+        ServerLevel level = ((ServerLevel) player.level()).getServer().getLevel(session.getDimension());
+        if (level == null) {
+            return null;
         }
         
-        IronFarmAnalyzer.FarmAnalysis analysis = IronFarmAnalyzer.analyzeFarm(player, data.getRadius());
-        data.setLastAnalysis(analysis);
-        
-        return analysis;
+        return FarmAnalysisCache.getOrAnalyze(level, session.getCenterPos(), session.getRadius())
+            .thenApply(analysis -> {
+                session.setLastAnalysis(analysis);
+                return analysis;
+            });
     }
     
     /**
      * Stops monitoring for a player.
      */
     public static void stopMonitoring(ServerPlayer player) {
-        PlayerMonitorData data = playerData.get(player.getUUID());
-        if (data != null) {
-            data.stopMonitoring();
+        leaveSession(player.getUUID());
+        if (ServerPlayNetworking.canSend(player, MonitorHudPayload.TYPE)) {
+            ServerPlayNetworking.send(player, MonitorHudPayload.stopped());
         }
     }
     
     /**
-     * Resets statistics for a player.
+     * Resets statistics of the player's farm session (for all of its watchers).
      */
     public static void resetStats(ServerPlayer player) {
         PlayerMonitorData data = playerData.get(player.getUUID());
-        if (data != null) {
-            data.resetStats();
+        if (data != null && data.isMonitoring()) {
+            data.getSession().resetStats();
         }
     }
     
@@ -263,6 +616,29 @@ public class IronFarmMonitor {
         return playerData.get(player.getUUID());
     }
     
+    /**
+     * Gets the farm session a player is watching, or null.
+     */
+    public static FarmSession getSession(ServerPlayer player) {
+        PlayerMonitorData data = playerData.get(player.getUUID());
+        return data != null ? data.getSession() : null;
+    }
+    
+    /**
+     * Gets all active farm sessions (for /ironmonitor join suggestions and listing).
+     */
+    public static Collection<FarmSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+    
+    /**
+     * Live read-only view of the active farm sessions, without copying.
+     * Server thread only; do not add or remove sessions while iterating it.
+     */
+    public static List<FarmSession> getActiveSessions() {
+        return sessionListView;
+    }
+    
     /**
      * Checks if a player is currently monitoring.
      */
@@ -282,6 +658,7 @@ public class IronFarmMonitor {
      * Cleans up data for a player (call on disconnect).
      */
     public static void cleanup(UUID playerUUID) {
+        leaveSession(playerUUID);
         playerData.remove(playerUUID);
     }
 }
@@ -1,15 +1,23 @@
 package com.moddersapptolast.component;
 
+import com.moddersapptolast.config.ModConfig;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.commands.CommandBuildContext;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Command registration for Iron Farm Monitor.
  * Compatible with Polymer - all messages sent only to the player (not to server console).
@@ -23,7 +31,7 @@ import net.minecraft.server.level.ServerPlayer;
  */
 public class IronMonitorCommand {
     
-    private static final int DEFAULT_RADIUS = 32;
+    private static final int DETAILS_PAGE_SIZE = 10;
     
     /**
      * Registers all /ironmonitor commands.
@@ -47,18 +55,52 @@ public class IronMonitorCommand {
             Commands.literal("ironmonitor")
                 // /ironmonitor start [radius]
                 .then(Commands.literal("start")
-                    .executes(ctx -> executeStart(ctx, DEFAULT_RADIUS, false))
-                    .then(Commands.argument("radius", IntegerArgumentType.integer(1, 128))
+                    .executes(ctx -> executeStart(ctx, ModConfig.get().monitor.defaultRadius, false))
+                    .then(Commands.argument("radius", IntegerArgumentType.integer(1))
                         .executes(ctx -> executeStart(ctx, 
                             IntegerArgumentType.getInteger(ctx, "radius"), false))))
                 
                 // /ironmonitor follow [radius]
                 .then(Commands.literal("follow")
-                    .executes(ctx -> executeStart(ctx, DEFAULT_RADIUS, true))
-                    .then(Commands.argument("radius", IntegerArgumentType.integer(1, 128))
+                    .executes(ctx -> executeStart(ctx, ModConfig.get().monitor.defaultRadius, true))
+                    .then(Commands.argument("radius", IntegerArgumentType.integer(1))
                         .executes(ctx -> executeStart(ctx, 
                             IntegerArgumentType.getInteger(ctx, "radius"), true))))
                 
+                // /ironmonitor join <farm> - Watch an existing farm session
+                .then(Commands.literal("join")
+                    .then(Commands.argument("farm", StringArgumentType.word())
+                        .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(
+                            IronFarmMonitor.getSessions().stream().map(FarmSession::getName), builder))
+                        .executes(ctx -> executeJoin(ctx, StringArgumentType.getString(ctx, "farm")))))
+                
+                // /ironmonitor list - List active farm sessions
+                .then(Commands.literal("list")
+                    .executes(IronMonitorCommand::executeList))
+                
+                // /ironmonitor notify <each|digest [seconds]|off> - Spawn notification mode
+                .then(Commands.literal("notify")
+                    .then(Commands.literal("each")
+                        .executes(ctx -> executeNotify(ctx, PlayerMonitorData.NotificationMode.EACH,
+                            PlayerMonitorData.DEFAULT_DIGEST_WINDOW_SECONDS)))
+                    .then(Commands.literal("digest")
+                        .executes(ctx -> executeNotify(ctx, PlayerMonitorData.NotificationMode.DIGEST,
+                            PlayerMonitorData.DEFAULT_DIGEST_WINDOW_SECONDS))
+                        .then(Commands.argument("seconds", IntegerArgumentType.integer(5, 3600))
+                            .executes(ctx -> executeNotify(ctx, PlayerMonitorData.NotificationMode.DIGEST,
+                                IntegerArgumentType.getInteger(ctx, "seconds")))))
+                    .then(Commands.literal("off")
+                        .executes(ctx -> executeNotify(ctx, PlayerMonitorData.NotificationMode.OFF,
+                            PlayerMonitorData.DEFAULT_DIGEST_WINDOW_SECONDS))))
+                
+                // /ironmonitor outline [on|off] - Particle outline of the monitored area
+                .then(Commands.literal("outline")
+                    .executes(ctx -> executeOutline(ctx, null))
+                    .then(Commands.literal("on")
+                        .executes(ctx -> executeOutline(ctx, true)))
+                    .then(Commands.literal("off")
+                        .executes(ctx -> executeOutline(ctx, false))))
+                
                 // /ironmonitor stop
                 .then(Commands.literal("stop")
                     .executes(IronMonitorCommand::executeStop))
@@ -71,10 +113,38 @@ public class IronMonitorCommand {
                 .then(Commands.literal("analyze")
                     .executes(IronMonitorCommand::executeAnalyze))
                 
+                // /ironmonitor details [page] - Per-villager details of the last analysis
+                .then(Commands.literal("details")
+                    .executes(ctx -> executeDetails(ctx, 1))
+                    .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                        .executes(ctx -> executeDetails(ctx, 
+                            IntegerArgumentType.getInteger(ctx, "page")))))
+                
+                // /ironmonitor export [csv|json] - Write spawn events and analyses to a server file (admins only)
+                .then(Commands.literal("export")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(ctx -> executeExport(ctx, FarmExport.Format.CSV))
+                    .then(Commands.literal("csv")
+                        .executes(ctx -> executeExport(ctx, FarmExport.Format.CSV)))
+                    .then(Commands.literal("json")
+                        .executes(ctx -> executeExport(ctx, FarmExport.Format.JSON))))
+                
                 // /ironmonitor reset
                 .then(Commands.literal("reset")
                     .executes(IronMonitorCommand::executeReset))
                 
+                // /ironmonitor discover - Server-wide farm discovery (admins only)
+                .then(Commands.literal("discover")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(IronMonitorCommand::executeDiscover))
+                
+                // /ironmonitor cache [clear] - Shared analysis cache stats (admins only)
+                .then(Commands.literal("cache")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(IronMonitorCommand::executeCacheStats)
+                    .then(Commands.literal("clear")
+                        .executes(IronMonitorCommand::executeCacheClear)))
+                
                 // /ironmonitor help
                 .then(Commands.literal("help")
                     .executes(IronMonitorCommand::executeHelp))
@@ -97,26 +167,143 @@ public class IronMonitorCommand {
             source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
             return 0;
         }
+
+        int maxRadius = ModConfig.get().monitor.maxRadius;
+        if (radius > maxRadius) {
+            source.sendFailure(Component.literal("§cEl radio máximo es §e" + maxRadius + " bloques§c."));
+            return 0;
+        }
         
-        // Start monitoring and get farm analysis
-        IronFarmAnalyzer.FarmAnalysis analysis;
+        // Start monitoring; the analysis is evaluated off-thread and reported when ready
+        CompletableFuture<IronFarmAnalyzer.FarmAnalysis> analysis;
+        ChatReport report = new ChatReport();
         if (follow) {
             analysis = IronFarmMonitor.startMonitoringFollow(player, radius);
-            source.sendSuccess(() -> Component.literal(
-                "§a✓ §fMonitoreo iniciado §e(siguiendo tu posición)§f con radio de §6" + radius + " bloques§f."
-            ), false);
+            report.line("§a✓ §fMonitoreo iniciado §e(siguiendo tu posición)§f con radio de §6" + radius + " bloques§f.");
         } else {
             analysis = IronFarmMonitor.startMonitoring(player, radius);
-            source.sendSuccess(() -> Component.literal(
-                "§a✓ §fMonitoreo iniciado en §6" + formatPos(player) + " §fcon radio de §6" + radius + " bloques§f."
-            ), false);
+            report.line("§a✓ §fMonitoreo iniciado en §6" + formatPos(player) + " §fcon radio de §6" + radius + " bloques§f.");
         }
         
-        // Display farm analysis results
-        source.sendSuccess(() -> Component.literal(""), false);
-        source.sendSuccess(() -> Component.literal("§6═══ Análisis de Granja de Hierro ═══"), false);
-        displayFarmAnalysis(source, analysis);
-        source.sendSuccess(() -> Component.literal("§6═════════════════════════════════"), false);
+        FarmSession session = IronFarmMonitor.getSession(player);
+        report.line("§7Otros jugadores pueden unirse con §e/ironmonitor join " + session.getName());
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+        
+        analysis.whenComplete((result, error) -> {
+            if (error != null) {
+                sendAnalysisFailure(source, error);
+            } else {
+                sendFarmAnalysis(source, result, session);
+            }
+        });
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor join <farm> - Subscribe to an existing farm session
+     */
+    private static int executeJoin(CommandContext<CommandSourceStack> ctx, String farmName) {
+        CommandSourceStack source = ctx.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+        
+        FarmSession session = IronFarmMonitor.joinSession(player, farmName);
+        if (session == null) {
+            source.sendFailure(Component.literal("§cNo existe la granja §e" + farmName + "§c. Usa §e/ironmonitor list"));
+            return 0;
+        }
+        
+        source.sendSuccess(() -> Component.literal(
+            "§a✓ §fObservando la granja §6" + session.getName() + " §f(" + session.getSubscriberCount() + " observando)."
+        ), false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor list - List active farm sessions
+     */
+    private static int executeList(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        
+        Collection<FarmSession> sessions = IronFarmMonitor.getSessions();
+        if (sessions.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("§7No hay granjas monitoreadas."), false);
+            return 1;
+        }
+        
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Granjas Monitoreadas ═══");
+        for (FarmSession session : sessions) {
+            report.line(Component.literal(
+                    "§e" + session.getName() + " §f" + formatBlockPos(session.getCenterPos()) +
+                    " §7| §eGolems: §f" + session.getGolemCount() +
+                    " §7| §eObservando: §f" + session.getSubscriberCount() + " ")
+                .append(ChatReport.command("§a[Unirse]", "/ironmonitor join " + session.getName(),
+                    "Observar la granja " + session.getName())));
+        }
+        report.line("§6════════════════════════════");
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor notify <each|digest [seconds]|off> - Choose how spawns are announced
+     */
+    private static int executeNotify(CommandContext<CommandSourceStack> ctx,
+                                     PlayerMonitorData.NotificationMode mode, int digestSeconds) {
+        CommandSourceStack source = ctx.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+        
+        IronFarmMonitor.setNotificationMode(player, mode, digestSeconds);
+        
+        String description = switch (mode) {
+            case EACH -> "un mensaje por cada golem";
+            case DIGEST -> "un resumen cada " + digestSeconds + "s";
+            case OFF -> "solo barra de acción";
+        };
+        source.sendSuccess(() -> Component.literal("§a✓ §fNotificaciones: §6" + description + "§f."), false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor outline [on|off] - Toggle the particle outline (null toggles)
+     */
+    private static int executeOutline(CommandContext<CommandSourceStack> ctx, Boolean enabled) {
+        CommandSourceStack source = ctx.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+        
+        PlayerMonitorData data = IronFarmMonitor.getData(player);
+        boolean enable = enabled != null ? enabled : data == null || !data.isOutlineEnabled();
+        IronFarmMonitor.setOutline(player, enable);
+        
+        if (!enable) {
+            source.sendSuccess(() -> Component.literal("§a✓ §fContorno del área §6desactivado§f."), false);
+        } else if (!IronFarmMonitor.isMonitoring(player)) {
+            source.sendSuccess(() -> Component.literal(
+                "§a✓ §fContorno del área §6activado§f. §7Se mostrará al monitorear una granja."), false);
+        } else {
+            source.sendSuccess(() -> Component.literal(
+                "§a✓ §fContorno del área §6activado§f. §7Naranja: área monitoreada | Verde: zona de spawn de aldeanos listos"), false);
+        }
         
         return 1;
     }
@@ -138,25 +325,29 @@ public class IronMonitorCommand {
         }
         
         // Get final stats before stopping
-        PlayerMonitorData data = IronFarmMonitor.getData(player);
-        if (data != null && data.getGolemCount() > 0) {
-            source.sendSuccess(() -> Component.literal("§6═══ Resumen Final ═══"), false);
-            source.sendSuccess(() -> Component.literal("§eGolems detectados: §f" + data.getGolemCount()), false);
+        ChatReport report = new ChatReport();
+        FarmSession session = IronFarmMonitor.getSession(player);
+        if (session != null && session.getGolemCount() > 0) {
+            report.line("§6═══ Resumen Final ═══");
+            report.line("§eGolems detectados: §f" + session.getGolemCount());
             
-            double avgInterval = data.getAverageSpawnInterval();
+            double avgInterval = session.getAverageSpawnInterval();
             if (avgInterval > 0) {
-                source.sendSuccess(() -> Component.literal(
-                    "§eIntervalo promedio: §f" + String.format("%.1f", avgInterval) + "s"
-                ), false);
-                source.sendSuccess(() -> Component.literal(
-                    "§eProyección: §f" + String.format("%.0f", data.getProjectedGolemsPerHour()) + " golems/hora"
-                ), false);
+                report.line("§eIntervalo promedio: §f" + String.format("%.1f", avgInterval) + "s");
+                report.line("§eProyección: §f" + String.format("%.0f", session.getProjectedGolemsPerHour()) + " golems/hora");
             }
-            source.sendSuccess(() -> Component.literal("§6═══════════════════"), false);
+            if (session.getIronIngots() > 0) {
+                report.line("§eHierro recogido: §f" + session.getIronIngots() +
+                    " §7(" + String.format("%.0f", session.getIronPerHour()) + "/hora)");
+            }
+            report.line("§6═══════════════════");
         }
         
         IronFarmMonitor.stopMonitoring(player);
-        source.sendSuccess(() -> Component.literal("§c✗ §fMonitoreo detenido."), false);
+        report.line("§c✗ §fMonitoreo detenido.");
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
         
         return 1;
     }
@@ -172,56 +363,113 @@ public class IronMonitorCommand {
             return 0;
         }
         
-        PlayerMonitorData data = IronFarmMonitor.getData(player);
+        FarmSession session = IronFarmMonitor.getSession(player);
         
-        if (data == null || !data.isMonitoring()) {
+        if (session == null) {
             source.sendFailure(Component.literal("§cNo estás monitoreando ninguna granja. Usa §e/ironmonitor start"));
             return 0;
         }
         
         // Calculate elapsed time
-        long elapsedMs = System.currentTimeMillis() - data.getStartTime();
+        long elapsedMs = System.currentTimeMillis() - session.getStartTime();
         long elapsedSec = elapsedMs / 1000;
         long minutes = elapsedSec / 60;
         long seconds = elapsedSec % 60;
         
-        source.sendSuccess(() -> Component.literal("§6═══ Iron Farm Monitor - Estadísticas ═══"), false);
-        source.sendSuccess(() -> Component.literal("§eGolems detectados: §f" + data.getGolemCount()), false);
-        source.sendSuccess(() -> Component.literal("§eTiempo activo: §f" + minutes + "m " + seconds + "s"), false);
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Iron Farm Monitor - Estadísticas ═══");
+        report.line("§eGranja: §f" + session.getName() + " §7(" + session.getSubscriberCount() + " observando)");
+        report.line("§eGolems detectados: §f" + session.getGolemCount() +
+            " §7(gossip: " + session.getGossipSpawns() + ", pánico: " + session.getPanicSpawns() + ")");
+        report.line("§eTiempo activo: §f" + minutes + "m " + seconds + "s");
         
         // Real-time rate
-        source.sendSuccess(() -> Component.literal("§eRate actual: §f" + String.format("%.1f", data.getGolemsPerMinute()) + "/min"), false);
+        report.line("§eRate actual: §f" + String.format("%.1f", session.getGolemsPerMinute()) + "/min");
         
         // Spawn interval stats (real data)
-        double avgInterval = data.getAverageSpawnInterval();
+        double avgInterval = session.getAverageSpawnInterval();
         if (avgInterval > 0) {
-            source.sendSuccess(() -> Component.literal("§eIntervalo promedio: §f" + String.format("%.1f", avgInterval) + "s"), false);
-            source.sendSuccess(() -> Component.literal("§eProyección: §f" + String.format("%.0f", data.getProjectedGolemsPerHour()) + " golems/hora"), false);
+            report.line("§eIntervalo promedio: §f" + String.format("%.1f", avgInterval) + "s");
+            report.line("§eProyección: §f" + String.format("%.0f", session.getProjectedGolemsPerHour()) + " golems/hora");
         }
         
-        double lastInterval = data.getLastSpawnInterval();
+        double lastInterval = session.getLastSpawnInterval();
         if (lastInterval > 0) {
-            source.sendSuccess(() -> Component.literal("§eÚltimo intervalo: §f" + String.format("%.1f", lastInterval) + "s"), false);
+            report.line("§eÚltimo intervalo: §f" + String.format("%.1f", lastInterval) + "s");
         }
         
-        double timeSinceLast = data.getSecondsSinceLastSpawn();
-        if (data.getGolemCount() > 0) {
-            source.sendSuccess(() -> Component.literal("§eTiempo desde último spawn: §f" + String.format("%.0f", timeSinceLast) + "s"), false);
+        if (session.getGolemCount() > 0) {
+            report.line("§eTiempo desde último spawn: §f" + String.format("%.0f", session.getSecondsSinceLastSpawn()) + "s");
         }
         
+        // Iron output (golem deaths inside the farm)
+        if (session.getGolemDeaths() > 0) {
+            report.line("§eGolems muertos: §f" + session.getGolemDeaths() +
+                " §7| §eHierro: §f" + session.getIronIngots() +
+                " §7| §eAmapolas: §f" + session.getPoppies());
+            report.line("§eHierro/hora: §f" + String.format("%.0f", session.getIronPerHour()));
+            double killLatency = session.getAverageKillLatency();
+            if (killLatency > 0) {
+                report.line("§eLatencia spawn→muerte: §f" + String.format("%.1f", killLatency) + "s");
+            }
+        }
+        int backlog = session.getGolemBacklog();
+        report.line("§eGolems vivos acumulados: " + (backlog >= FarmSession.BACKLOG_ALERT_THRESHOLD ? "§c" : "§f") + backlog);
+        
+        // Continuous readiness sampling
+        appendReadiness(report, session.getReadiness());
+        
         // Monitoring area info
-        if (data.isFollowPlayer()) {
-            source.sendSuccess(() -> Component.literal("§eModo: §fSiguiendo jugador"), false);
+        if (session.isFollowPlayer()) {
+            report.line("§eModo: §fSiguiendo jugador");
         } else {
-            source.sendSuccess(() -> Component.literal("§eCentro: §f" + formatBlockPos(data.getCenterPos())), false);
+            report.line("§eCentro: §f" + formatBlockPos(session.getCenterPos()));
         }
-        source.sendSuccess(() -> Component.literal("§eRadio: §f" + data.getRadius() + " bloques"), false);
+        report.line("§eRadio: §f" + session.getRadius() + " bloques");
+        
+        report.line("§6═══════════════════════════════════════");
         
-        source.sendSuccess(() -> Component.literal("§6═══════════════════════════════════════"), false);
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
         
         return 1;
     }
     
+    private static final char[] SPARK = {'▁', '▂', '▃', '▄', '▅', '▆', '▇', '█'};
+    
+    /**
+     * Appends the sampled readiness: current counts and one bar per minute of the
+     * last day-night cycle (blue = night, yellow = day), scaled to the roster size.
+     */
+    private static void appendReadiness(ChatReport report, ReadinessTimeline timeline) {
+        int roster = timeline.getRosterSize();
+        if (roster == 0) {
+            report.line("§eAldeanos listos: §7muestreando...");
+            return;
+        }
+        
+        report.line("§eAldeanos listos: §f" + timeline.getReady() + "§7/" + roster +
+            " §7| §eDurmiendo: §f" + timeline.getSleeping() +
+            (timeline.getSampledCount() < roster ? " §7(" + timeline.getSampledCount() + " muestreados)" : ""));
+        
+        int minutes = timeline.getMinuteCount();
+        if (minutes == 0) {
+            return;
+        }
+        StringBuilder bars = new StringBuilder();
+        char lastColor = 0;
+        for (int i = 0; i < minutes; i++) {
+            char color = timeline.isMinuteNight(i) ? '9' : 'e';
+            if (color != lastColor) {
+                bars.append('§').append(color);
+                lastColor = color;
+            }
+            int level = Math.round(timeline.getMinuteReady(i) / roster * (SPARK.length - 1));
+            bars.append(SPARK[Math.max(0, Math.min(SPARK.length - 1, level))]);
+        }
+        report.line("§eListos por minuto §7(" + minutes + " min)§e: " + bars);
+    }
+    
     /**
      * /ironmonitor analyze - Re-analyze the farm structure
      */
@@ -238,21 +486,124 @@ public class IronMonitorCommand {
             return 0;
         }
         
-        // Re-analyze the farm
-        IronFarmAnalyzer.FarmAnalysis analysis = IronFarmMonitor.reanalyzeFarm(player);
+        // Re-analyze the farm (evaluated off-thread, reported when ready)
+        CompletableFuture<IronFarmAnalyzer.FarmAnalysis> analysis = IronFarmMonitor.reanalyzeFarm(player);
         
         if (analysis == null) {
             source.sendFailure(Component.literal("§cError al analizar la granja."));
             return 0;
         }
         
-        source.sendSuccess(() -> Component.literal("§6═══ Análisis de Granja de Hierro ═══"), false);
-        displayFarmAnalysis(source, analysis);
-        source.sendSuccess(() -> Component.literal("§6═════════════════════════════════"), false);
+        FarmSession session = IronFarmMonitor.getSession(player);
+        analysis.whenComplete((result, error) -> {
+            if (error != null) {
+                sendAnalysisFailure(source, error);
+            } else {
+                sendFarmAnalysis(source, result, session);
+            }
+        });
         
         return 1;
     }
     
+    /**
+     * Reports a failed analysis (start and analyze).
+     */
+    private static void sendAnalysisFailure(CommandSourceStack source, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        source.sendFailure(Component.literal(
+            "§cNo se pudo analizar la granja: §7"
+                + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName())));
+    }
+    
+    /**
+     * Sends the framed analysis report (start and analyze).
+     */
+    private static void sendFarmAnalysis(CommandSourceStack source, IronFarmAnalyzer.FarmAnalysis analysis,
+                                         FarmSession session) {
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Análisis de Granja de Hierro ═══");
+        appendFarmAnalysis(report, analysis, session);
+        report.line("§6═════════════════════════════════");
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+    }
+    
+    /**
+     * /ironmonitor details [page] - Page through the per-villager details
+     * 
+     * Rows are rendered from the session's last analysis (no rescan), and only
+     * the requested page is formatted, so a hall with hundreds of villagers
+     * still costs one small chat packet per page.
+     */
+    private static int executeDetails(CommandContext<CommandSourceStack> ctx, int page) {
+        CommandSourceStack source = ctx.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+        
+        FarmSession session = IronFarmMonitor.getSession(player);
+        if (session == null) {
+            source.sendFailure(Component.literal("§cNo estás monitoreando ninguna granja. Usa §e/ironmonitor start"));
+            return 0;
+        }
+        
+        IronFarmAnalyzer.FarmAnalysis analysis = session.getLastAnalysis();
+        if (analysis == null || analysis.getVillagerCount() == 0) {
+            source.sendFailure(Component.literal("§cNo hay aldeanos en el último análisis. Usa §e/ironmonitor analyze"));
+            return 0;
+        }
+        
+        int count = analysis.getVillagerCount();
+        int pages = (count + DETAILS_PAGE_SIZE - 1) / DETAILS_PAGE_SIZE;
+        int current = Math.min(page, pages);
+        int from = (current - 1) * DETAILS_PAGE_SIZE;
+        int to = Math.min(from + DETAILS_PAGE_SIZE, count);
+        
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Aldeanos de " + session.getName() + " §7(" + count + ") §6═══");
+        for (int i = from; i < to; i++) {
+            report.line(formatVillager(analysis, i));
+        }
+        report.line(pageNavigation(current, pages));
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor export [csv|json] - Export the farm session to a file (admins only)
+     * 
+     * The file is written off-thread; the player gets a second message when it is done.
+     */
+    private static int executeExport(CommandContext<CommandSourceStack> ctx, FarmExport.Format format) {
+        CommandSourceStack source = ctx.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("Este comando solo puede ser ejecutado por un jugador."));
+            return 0;
+        }
+        
+        FarmSession session = IronFarmMonitor.getSession(player);
+        if (session == null) {
+            source.sendFailure(Component.literal("§cNo estás monitoreando ninguna granja. Usa §e/ironmonitor start"));
+            return 0;
+        }
+        
+        if (!FarmExport.start(source.getServer(), player, session, format)) {
+            source.sendFailure(Component.literal("§cYa hay una exportación en curso para §e" + session.getName() + "§c."));
+            return 0;
+        }
+        
+        source.sendSuccess(() -> Component.literal("§7Exportando §e" + session.getName() + "§7..."), false);
+        return 1;
+    }
+    
     /**
      * /ironmonitor reset - Reset statistics
      */
@@ -270,8 +621,75 @@ public class IronMonitorCommand {
         }
         
         IronFarmMonitor.resetStats(player);
-        source.sendSuccess(() -> Component.literal("§a✓ §fEstadísticas reiniciadas."), false);
+        source.sendSuccess(() -> Component.literal("§a✓ §fEstadísticas de la granja reiniciadas."), false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor discover - Scan all loaded chunks for iron farms (admins only)
+     * 
+     * The snapshot is spread over many ticks and clustering runs off-thread,
+     * so the report arrives a few ticks after the command.
+     */
+    private static int executeDiscover(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        
+        int queued = FarmDiscovery.startScan(source.getServer(), candidates -> {
+            ChatReport report = new ChatReport();
+            report.line("§6═══ Granjas de Hierro del Servidor ═══");
+            for (Component line : FarmDiscovery.buildReport(candidates)) {
+                report.line(line);
+            }
+            report.line("§6══════════════════════════════════");
+            
+            Component message = report.build();
+            source.sendSuccess(() -> message, false);
+        }, error -> source.sendFailure(Component.literal(
+            "§cNo se pudo completar el escaneo de granjas: §7"
+                + (error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName()))));
+        
+        if (queued < 0) {
+            source.sendFailure(Component.literal("§cYa hay un escaneo de granjas en curso."));
+            return 0;
+        }
+        
+        source.sendSuccess(() -> Component.literal(
+            "§a✓ §fEscaneando §6" + queued + " chunks §fcargados en busca de granjas..."
+        ), false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor cache - Show shared analysis cache counters (admins only)
+     */
+    private static int executeCacheStats(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Caché de Análisis ═══");
+        report.line("§eEntradas: §f" + FarmAnalysisCache.getSize());
+        report.line("§eAciertos: §f" + FarmAnalysisCache.getHits() +
+            " §7| §eFallos: §f" + FarmAnalysisCache.getMisses() +
+            " §7(" + String.format("%.0f", FarmAnalysisCache.getHitRatio() * 100) + "%)");
+        report.line("§eExpiradas: §f" + FarmAnalysisCache.getExpirations() +
+            " §7| §eInvalidadas: §f" + FarmAnalysisCache.getInvalidations() +
+            " §7| §eDesalojadas: §f" + FarmAnalysisCache.getEvictions());
+        report.line("§6═════════════════════════");
         
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
+        
+        return 1;
+    }
+    
+    /**
+     * /ironmonitor cache clear - Drop all cached analyses and reset counters (admins only)
+     */
+    private static int executeCacheClear(CommandContext<CommandSourceStack> ctx) {
+        FarmAnalysisCache.clear();
+        ctx.getSource().sendSuccess(() -> Component.literal("§a✓ §fCaché de análisis vaciada."), false);
         return 1;
     }
     
@@ -281,76 +699,126 @@ public class IronMonitorCommand {
     private static int executeHelp(CommandContext<CommandSourceStack> ctx) {
         CommandSourceStack source = ctx.getSource();
         
-        source.sendSuccess(() -> Component.literal("§6═══ Iron Farm Monitor - Ayuda ═══"), false);
-        source.sendSuccess(() -> Component.literal("§eDetección en tiempo real de golems spawneados por aldeanos"), false);
-        source.sendSuccess(() -> Component.literal(""), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor start [radio]"), false);
-        source.sendSuccess(() -> Component.literal("  §7Inicia monitoreo + analiza granja"), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor follow [radio]"), false);
-        source.sendSuccess(() -> Component.literal("  §7Inicia monitoreo siguiendo tu posición"), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor stop"), false);
-        source.sendSuccess(() -> Component.literal("  §7Detiene el monitoreo y muestra resumen"), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor stats"), false);
-        source.sendSuccess(() -> Component.literal("  §7Muestra estadísticas en tiempo real"), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor analyze"), false);
-        source.sendSuccess(() -> Component.literal("  §7Re-analiza la estructura de la granja"), false);
-        source.sendSuccess(() -> Component.literal("§e/ironmonitor reset"), false);
-        source.sendSuccess(() -> Component.literal("  §7Reinicia las estadísticas"), false);
-        source.sendSuccess(() -> Component.literal("§6══════════════════════════════════"), false);
+        ChatReport report = new ChatReport();
+        report.line("§6═══ Iron Farm Monitor - Ayuda ═══");
+        report.line("§eDetección en tiempo real de golems spawneados por aldeanos");
+        report.blank();
+        report.line("§e/ironmonitor start [radio]");
+        report.line("  §7Inicia monitoreo + analiza granja");
+        report.line("§e/ironmonitor follow [radio]");
+        report.line("  §7Inicia monitoreo siguiendo tu posición");
+        report.line("§e/ironmonitor join <granja>");
+        report.line("  §7Observa una granja ya monitoreada");
+        report.line("§e/ironmonitor list");
+        report.line("  §7Lista las granjas monitoreadas");
+        report.line("§e/ironmonitor notify <each|digest [seg]|off>");
+        report.line("  §7Un aviso por golem, un resumen periódico o ninguno");
+        report.line("§e/ironmonitor outline [on|off]");
+        report.line("  §7Muestra con partículas el área y las zonas de spawn");
+        report.line("§e/ironmonitor stop");
+        report.line("  §7Detiene el monitoreo y muestra resumen");
+        report.line("§e/ironmonitor stats");
+        report.line("  §7Muestra estadísticas en tiempo real");
+        report.line("§e/ironmonitor analyze");
+        report.line("  §7Re-analiza la estructura de la granja");
+        report.line("§e/ironmonitor details [página]");
+        report.line("  §7Detalle por aldeano del último análisis");
+        report.line("§e/ironmonitor reset");
+        report.line("  §7Reinicia las estadísticas");
+        if (source.hasPermission(2)) {
+            report.line("§e/ironmonitor discover");
+            report.line("  §7Busca granjas en todos los chunks cargados (admin)");
+            report.line("§e/ironmonitor cache [clear]");
+            report.line("  §7Estadísticas de la caché de análisis (admin)");
+            report.line("§e/ironmonitor export [csv|json]");
+            report.line("  §7Exporta spawns y análisis a un archivo del servidor (admin)");
+        }
+        report.line("§6══════════════════════════════════");
+        
+        Component message = report.build();
+        source.sendSuccess(() -> message, false);
         
         return 1;
     }
     
     /**
-     * Displays detailed farm analysis results.
+     * Appends the detailed farm analysis results to a report.
+     * Per-villager rows are not included; they are paged with /ironmonitor details.
      */
-    private static void displayFarmAnalysis(CommandSourceStack source, IronFarmAnalyzer.FarmAnalysis analysis) {
+    private static void appendFarmAnalysis(ChatReport report, IronFarmAnalyzer.FarmAnalysis analysis,
+                                           FarmSession session) {
         // Basic counts
-        source.sendSuccess(() -> Component.literal(
-            "§eAldeanos encontrados: §f" + analysis.totalVillagers
-        ), false);
+        report.line("§eAldeanos encontrados: §f" + analysis.totalVillagers);
         
         if (analysis.totalVillagers > 0) {
-            source.sendSuccess(() -> Component.literal(
-                "  §7Con cama: §f" + analysis.villagersWithBeds + 
-                " §7| Con trabajo: §f" + analysis.villagersWithJobs
-            ), false);
-            
-            source.sendSuccess(() -> Component.literal(
-                "  §7Durmieron recientemente: §f" + analysis.villagersWhoSleptRecently
-            ), false);
+            report.line("  §7Con cama: §f" + analysis.villagersWithBeds + 
+                " §7| Con trabajo: §f" + analysis.villagersWithJobs);
+            report.line("  §7Durmieron recientemente: §f" + analysis.villagersWhoSleptRecently);
+            report.line("  §7Listos para spawn: §f" + analysis.villagersReadyToSpawn + 
+                " §7(sin golem en cooldown)");
+            report.line("  §7Profesiones: §f" + analysis.getProfessionBreakdown());
             
-            source.sendSuccess(() -> Component.literal(
-                "  §7Listos para spawn: §f" + analysis.villagersReadyToSpawn + 
-                " §7(sin golem en cooldown)"
-            ), false);
+            // Attempt tracing from the farm session (cumulative since the session started)
+            if (session != null) {
+                report.lines(IronFarmAnalyzer.getAttemptSummary(session));
+            }
         }
         
-        source.sendSuccess(() -> Component.literal(
-            "§eGolems existentes en área: §f" + analysis.existingGolems
-        ), false);
+        report.line("§eGolems existentes en área: §f" + analysis.existingGolems);
         
-        source.sendSuccess(() -> Component.literal(""), false);
+        report.blank();
         
         // Status message with validation results
-        for (String line : analysis.statusMessage.split("\n")) {
-            final String finalLine = line;
-            source.sendSuccess(() -> Component.literal(finalLine), false);
-        }
+        report.lines(analysis.statusMessage);
         
         // Spawn mode info
         if (analysis.canSpawnByGossip) {
-            source.sendSuccess(() -> Component.literal(
-                "§aModo de spawn: §fGOSSIP (automático cada ~35s)"
-            ), false);
+            report.line("§aModo de spawn: §fGOSSIP (automático cada ~35s)");
         } else if (analysis.canSpawnByPanic) {
-            source.sendSuccess(() -> Component.literal(
-                "§eModo de spawn: §fPÁNICO (requiere amenaza cercana)"
-            ), false);
+            report.line("§eModo de spawn: §fPÁNICO (requiere amenaza cercana)");
+        }
+        
+        if (session != null && analysis.getVillagerCount() > 0) {
+            report.line(ChatReport.command("§b[Ver detalle de aldeanos]", "/ironmonitor details 1",
+                analysis.getVillagerCount() + " aldeanos, " + DETAILS_PAGE_SIZE + " por página"));
         }
     }
     
+    /**
+     * Formats one row of /ironmonitor details.
+     */
+    private static String formatVillager(IronFarmAnalyzer.FarmAnalysis analysis, int i) {
+        return "§7#" + (i + 1) + " §f" + formatBlockPos(analysis.getVillagerPos(i)) +
+            " §e" + analysis.getVillagerProfession(i) +
+            " §7Cama " + mark(analysis.villagerHas(i, IronFarmAnalyzer.FLAG_BED)) +
+            " §7Trabajo " + mark(analysis.villagerHas(i, IronFarmAnalyzer.FLAG_JOB)) +
+            " §7Durmió " + mark(analysis.villagerHas(i, IronFarmAnalyzer.FLAG_SLEPT)) +
+            " §7Cooldown " + (analysis.villagerHas(i, IronFarmAnalyzer.FLAG_COOLDOWN) ? "§c✓" : "§a✗") +
+            (analysis.canVillagerTriggerSpawn(i) ? " §a→ listo" : "");
+    }
+    
+    /**
+     * Builds the clickable "[«] page/total [»]" footer.
+     */
+    private static Component pageNavigation(int page, int pages) {
+        MutableComponent previous = page > 1
+            ? ChatReport.command("§e[«]", "/ironmonitor details " + (page - 1), "Página anterior")
+            : Component.literal("§8[«]");
+        MutableComponent next = page < pages
+            ? ChatReport.command("§e[»]", "/ironmonitor details " + (page + 1), "Página siguiente")
+            : Component.literal("§8[»]");
+        
+        return Component.empty()
+            .append(previous)
+            .append(Component.literal(" §7Página §f" + page + "§7/§f" + pages + " "))
+            .append(next);
+    }
+    
     // Helper methods
+    private static String mark(boolean value) {
+        return value ? "§a✓" : "§c✗";
+    }
+    
     private static String formatPos(ServerPlayer player) {
         return String.format("(%d, %d, %d)", 
             player.getBlockX(), player.getBlockY(), player.getBlockZ());
@@ -13,21 +13,21 @@ import java.util.List;
 
 public class ModComponents {
 
-    // Componente que guarda una LISTA de aldeanos (hasta 64)
+    // Componente que guarda una LISTA de aldeanos (hasta 64), con sub-tags deduplicados (NetContents)
     public static final DataComponentType<List<CompoundTag>> CAPTURED_VILLAGERS = Registry.register(
             BuiltInRegistries.DATA_COMPONENT_TYPE,
             ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, "captured_villagers"),
             DataComponentType.<List<CompoundTag>>builder()
-                    .persistent(CompoundTag.CODEC.listOf())
+                    .persistent(NetContents.CODEC)
                     .build()
     );
 
-    // Componente que guarda una LISTA de zombies (hasta 64)
+    // Componente que guarda una LISTA de zombies (hasta 64), con sub-tags deduplicados (NetContents)
     public static final DataComponentType<List<CompoundTag>> CAPTURED_ZOMBIES = Registry.register(
             BuiltInRegistries.DATA_COMPONENT_TYPE,
             ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, "captured_zombies"),
             DataComponentType.<List<CompoundTag>>builder()
-                    .persistent(CompoundTag.CODEC.listOf())
+                    .persistent(NetContents.CODEC)
                     .build()
     );
 
@@ -0,0 +1,226 @@
+package com.moddersapptolast.component;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage format of the entities held by a net (CAPTURED_VILLAGERS / CAPTURED_ZOMBIES).
+ *
+ * Whole trade or gossip lists are rarely equal between two villagers (trades
+ * are rolled per villager), but their elements often are: the same offer,
+ * the same gossip about the same player, the same attribute entry. The
+ * elements of the shared lists (Offers.Recipes, Gossips, attributes) are split
+ * out and deduplicated:
+ *
+ * - On save, each net writes a chunk table with every distinct element once, and
+ *   the lists in its entries hold {"villagerscatch:ref": index} pointers instead.
+ *   Each net stays self-contained, so copying, dropping or moving a net between
+ *   worlds is safe.
+ * - In memory, identical elements are interned (content hash + equals) into one
+ *   shared instance across all nets, captured or loaded.
+ * - Nets saved with whole-value references, or before this format (a plain
+ *   list of entity tags), still load.
+ *
+ * Interned tags are shared between entities and nets: never mutate a tag read
+ * from a net, copy() it first.
+ */
+public final class NetContents {
+
+    static final String REF_KEY = "villagerscatch:ref";
+
+    // Lists whose elements are worth sharing: a top-level key, and the key of the
+    // list inside it when the key holds a compound (Offers is {Recipes: [...]}).
+    // Brain is not shared: after capture it holds only the villager's own job site
+    // memories (see CaptureProfiles), which no two villagers have in common.
+    private record SharedList(String key, String nested) {}
+
+    private static final List<SharedList> SHARED_LISTS = List.of(
+        new SharedList("Offers", "Recipes"),
+        new SharedList("Gossips", null),
+        new SharedList("attributes", null));
+
+    private static final Codec<List<CompoundTag>> PACKED_CODEC =
+        CompoundTag.CODEC.xmap(NetContents::unpack, NetContents::pack);
+
+    /**
+     * Component codec: writes the packed format, reads packed or legacy lists.
+     */
+    public static final Codec<List<CompoundTag>> CODEC =
+        Codec.withAlternative(PACKED_CODEC, CompoundTag.CODEC.listOf());
+
+    // Canonical instance of each distinct sub-tag still referenced somewhere
+    private static final Map<Tag, WeakReference<Tag>> interned = new WeakHashMap<>();
+
+    // Counters (shown with /villagerscatch netstore)
+    private static long lookups = 0;
+    private static long hits = 0;
+    private static long bytesShared = 0;
+
+    private NetContents() {}
+
+    /**
+     * Replaces the elements of the shared lists of a freshly captured entity with
+     * their interned instances. Returns the same tag for convenience.
+     */
+    public static CompoundTag internSharedTags(CompoundTag entity) {
+        return mapSharedElements(entity, NetContents::intern);
+    }
+
+    /**
+     * Replaces, in place, every shared list of the entity tag with a new list of the
+     * mapped elements (elements mapped to null are dropped). A compound holding a
+     * nested list is replaced with a copy too, so the lists and compounds being
+     * replaced, which may be shared, are never modified.
+     */
+    private static CompoundTag mapSharedElements(CompoundTag entity, UnaryOperator<Tag> mapper) {
+        for (SharedList shared : SHARED_LISTS) {
+            Tag value = entity.get(shared.key());
+            if (shared.nested() == null) {
+                if (value instanceof ListTag list) {
+                    entity.put(shared.key(), mapElements(list, mapper));
+                }
+            } else if (value instanceof CompoundTag container && container.get(shared.nested()) instanceof ListTag list) {
+                CompoundTag copy = new CompoundTag();
+                for (String key : container.keySet()) {
+                    copy.put(key, container.get(key));
+                }
+                copy.put(shared.nested(), mapElements(list, mapper));
+                entity.put(shared.key(), copy);
+            }
+        }
+        return entity;
+    }
+
+    private static ListTag mapElements(ListTag list, UnaryOperator<Tag> mapper) {
+        ListTag mapped = new ListTag();
+        for (Tag element : list) {
+            Tag result = mapper.apply(element);
+            if (result != null) {
+                mapped.add(result);
+            }
+        }
+        return mapped;
+    }
+
+    private static boolean isPointer(Tag tag) {
+        return tag instanceof CompoundTag pointer && pointer.size() == 1 && pointer.contains(REF_KEY);
+    }
+
+    private static CompoundTag pack(List<CompoundTag> entities) {
+        Map<Tag, Integer> chunkIndex = new HashMap<>();
+        ListTag chunks = new ListTag();
+        ListTag entries = new ListTag();
+
+        UnaryOperator<Tag> toPointer = element -> {
+            Integer ref = chunkIndex.get(element);
+            if (ref == null) {
+                ref = chunks.size();
+                CompoundTag chunk = new CompoundTag();
+                chunk.put("v", element);
+                chunks.add(chunk);
+                chunkIndex.put(element, ref);
+            }
+            CompoundTag pointer = new CompoundTag();
+            pointer.putInt(REF_KEY, ref);
+            return pointer;
+        };
+
+        for (CompoundTag entity : entities) {
+            CompoundTag entry = new CompoundTag();
+            for (String key : entity.keySet()) {
+                entry.put(key, entity.get(key));
+            }
+            entries.add(mapSharedElements(entry, toPointer));
+        }
+
+        CompoundTag packed = new CompoundTag();
+        packed.put("chunks", chunks);
+        packed.put("entries", entries);
+        return packed;
+    }
+
+    private static List<CompoundTag> unpack(CompoundTag packed) {
+        ListTag chunks = packed.getListOrEmpty("chunks");
+        ListTag entries = packed.getListOrEmpty("entries");
+
+        Tag[] resolved = new Tag[chunks.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = chunks.getCompoundOrEmpty(i).get("v");
+        }
+
+        // Dangling references resolve to null: the field or element is dropped
+        UnaryOperator<Tag> resolve = tag -> {
+            if (!isPointer(tag)) {
+                return tag;
+            }
+            int ref = ((CompoundTag) tag).getIntOr(REF_KEY, -1);
+            return ref >= 0 && ref < resolved.length ? resolved[ref] : null;
+        };
+
+        List<CompoundTag> entities = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            CompoundTag entry = entries.getCompoundOrEmpty(i);
+            CompoundTag entity = new CompoundTag();
+            for (String key : entry.keySet()) {
+                // Whole-value references, as written by the previous packed format
+                Tag value = resolve.apply(entry.get(key));
+                if (value != null) {
+                    entity.put(key, value);
+                }
+            }
+            entities.add(mapSharedElements(entity, tag -> {
+                Tag element = resolve.apply(tag);
+                return element != null ? intern(element) : null;
+            }));
+        }
+        return entities;
+    }
+
+    /**
+     * Gets the shared instance equal to the given tag, registering it if it is new.
+     * Synchronized: components can be decoded off the server thread (chunk/player loading).
+     */
+    private static synchronized Tag intern(Tag tag) {
+        lookups++;
+        WeakReference<Tag> ref = interned.get(tag);
+        Tag canonical = ref != null ? ref.get() : null;
+        if (canonical != null) {
+            hits++;
+            bytesShared += canonical.sizeInBytes();
+            return canonical;
+        }
+        interned.put(tag, new WeakReference<>(tag));
+        return tag;
+    }
+
+    // ============ Stats for admins ============
+
+    public static synchronized int getUniqueCount() {
+        return interned.size();
+    }
+
+    public static synchronized long getLookups() {
+        return lookups;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Approximate in-memory bytes not duplicated thanks to interning.
+     */
+    public static synchronized long getBytesShared() {
+        return bytesShared;
+    }
+}
@@ -1,220 +1,183 @@
 package com.moddersapptolast.component;
 
-import net.minecraft.core.BlockPos;
-import net.minecraft.world.phys.AABB;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Stores monitoring data for each player using the Iron Farm Monitor.
  * 
- * Now tracks real spawn times instead of calculated estimates.
+ * Spawn statistics live in the shared FarmSession the player is subscribed to;
+ * this class only keeps what is specific to one watcher (notification preferences
+ * and the pending spawn digest).
  * Based on Fabric API lifecycle patterns from fabric-lifecycle-events-v1.
  */
 public class PlayerMonitorData {
     
-    // Monitoring state
-    private boolean monitoring = false;
-    private boolean followPlayer = false;
+    /**
+     * How spawn notifications are delivered to this player.
+     */
+    public enum NotificationMode {
+        EACH,    // One chat line per golem
+        DIGEST,  // One summary line per window
+        OFF      // Action bar only
+    }
     
-    // Area configuration
-    private BlockPos centerPos = null;
-    private int radius = 32;
+    public static final int DEFAULT_DIGEST_WINDOW_SECONDS = 60;
     
-    // Real-time statistics (no more theoretical calculations)
-    private int golemCount = 0;
-    private long startTime = 0;
-    private final List<Long> spawnTimes = new ArrayList<>();  // Real spawn timestamps
-    private long lastSpawnTime = 0;
-    private long previousSpawnTime = 0;  // For calculating interval between spawns
+    // Farm session this player is watching (null when not monitoring)
+    private FarmSession session = null;
     
-    // Farm analysis cache
-    private IronFarmAnalyzer.FarmAnalysis lastAnalysis = null;
+    // Notification preferences
+    private NotificationMode notificationMode = NotificationMode.EACH;
+    private int digestWindowSeconds = DEFAULT_DIGEST_WINDOW_SECONDS;
     
-    // Getters and Setters
-    public boolean isMonitoring() {
-        return monitoring;
-    }
+    // Particle outline of the monitored area (see AreaOutline), and the particles
+    // of the current refresh still to be sent
+    private boolean outlineEnabled = false;
+    private List<ClientboundLevelParticlesPacket> outlinePending = null;
+    private int outlineCursor = 0;
     
-    public void setMonitoring(boolean monitoring) {
-        this.monitoring = monitoring;
-    }
+    // Pending digest (primitive counters only - nothing is formatted until the flush)
+    private long digestWindowStart = 0;
+    private int pendingSpawns = 0;
+    private long firstPendingSpawn = 0;
+    private long lastPendingSpawn = 0;
     
-    public boolean isFollowPlayer() {
-        return followPlayer;
-    }
+    // Values last sent to a modded client's HUD (null = nothing sent yet), and the spawn they describe
+    private int[] hudSent = null;
+    private long hudSpawnTime = -1;
     
-    public void setFollowPlayer(boolean followPlayer) {
-        this.followPlayer = followPlayer;
+    // Getters and Setters
+    public boolean isMonitoring() {
+        return session != null;
     }
     
-    public BlockPos getCenterPos() {
-        return centerPos;
+    public FarmSession getSession() {
+        return session;
     }
     
-    public void setCenterPos(BlockPos centerPos) {
-        this.centerPos = centerPos;
+    public void setSession(FarmSession session) {
+        this.session = session;
     }
     
-    public int getRadius() {
-        return radius;
+    public NotificationMode getNotificationMode() {
+        return notificationMode;
     }
     
-    public void setRadius(int radius) {
-        this.radius = radius;
+    public int getDigestWindowSeconds() {
+        return digestWindowSeconds;
     }
     
-    public int getGolemCount() {
-        return golemCount;
+    public boolean isOutlineEnabled() {
+        return outlineEnabled;
     }
     
-    /**
-     * Records a real golem spawn event with timestamp.
-     * Called when a villager-spawned golem is detected in the monitoring area.
-     */
-    public void recordGolemSpawn() {
-        this.golemCount++;
-        this.previousSpawnTime = this.lastSpawnTime;
-        this.lastSpawnTime = System.currentTimeMillis();
-        this.spawnTimes.add(this.lastSpawnTime);
-        
-        // Keep only last 100 spawn times for rate calculation
-        if (spawnTimes.size() > 100) {
-            spawnTimes.remove(0);
-        }
+    public void setOutlineEnabled(boolean outlineEnabled) {
+        this.outlineEnabled = outlineEnabled;
+        setOutlinePending(null);
     }
     
-    public long getStartTime() {
-        return startTime;
+    public List<ClientboundLevelParticlesPacket> getOutlinePending() {
+        return outlinePending;
     }
     
-    public void setStartTime(long startTime) {
-        this.startTime = startTime;
+    public int getOutlineCursor() {
+        return outlineCursor;
     }
     
-    public long getLastSpawnTime() {
-        return lastSpawnTime;
+    public void setOutlineCursor(int outlineCursor) {
+        this.outlineCursor = outlineCursor;
     }
     
     /**
-     * Gets the time in seconds since the last golem spawn.
-     * Returns 0 if no golem has spawned yet.
+     * Replaces the particles left to send with a new refresh (null = nothing to send).
      */
-    public double getSecondsSinceLastSpawn() {
-        if (lastSpawnTime == 0) {
-            return 0;
-        }
-        return (System.currentTimeMillis() - lastSpawnTime) / 1000.0;
+    public void setOutlinePending(List<ClientboundLevelParticlesPacket> outlinePending) {
+        this.outlinePending = outlinePending;
+        this.outlineCursor = 0;
     }
     
     /**
-     * Gets the interval in seconds between the last two spawns.
-     * Returns 0 if less than 2 golems have spawned.
+     * Changes the notification mode and starts a fresh digest window.
      */
-    public double getLastSpawnInterval() {
-        if (previousSpawnTime == 0 || lastSpawnTime == 0) {
-            return 0;
-        }
-        return (lastSpawnTime - previousSpawnTime) / 1000.0;
+    public void setNotificationMode(NotificationMode mode, int digestWindowSeconds) {
+        this.notificationMode = mode;
+        this.digestWindowSeconds = digestWindowSeconds;
+        clearDigest(System.currentTimeMillis());
     }
     
+    // ============ Spawn digest ============
+    
     /**
-     * Gets the average spawn interval based on all recorded spawns.
-     * Returns 0 if less than 2 golems have spawned.
+     * Buffers a spawn for the next digest line. Hot path: counters only.
      */
-    public double getAverageSpawnInterval() {
-        if (spawnTimes.size() < 2) {
-            return 0;
+    public void recordPendingSpawn(long timeMs) {
+        if (pendingSpawns == 0) {
+            firstPendingSpawn = timeMs;
         }
-        
-        long firstSpawn = spawnTimes.get(0);
-        long lastSpawn = spawnTimes.get(spawnTimes.size() - 1);
-        long totalTimeMs = lastSpawn - firstSpawn;
-        int intervals = spawnTimes.size() - 1;
-        
-        return (totalTimeMs / 1000.0) / intervals;
+        pendingSpawns++;
+        lastPendingSpawn = timeMs;
     }
     
     /**
-     * Creates an AABB (Axis-Aligned Bounding Box) for entity detection.
-     * Uses Minecraft's native AABB class for area calculations.
+     * Checks if the current digest window has elapsed.
      */
-    public AABB getMonitoringArea() {
-        if (centerPos == null) {
-            return null;
-        }
-        return new AABB(
-            centerPos.getX() - radius, centerPos.getY() - radius, centerPos.getZ() - radius,
-            centerPos.getX() + radius, centerPos.getY() + radius, centerPos.getZ() + radius
-        );
+    public boolean isDigestDue(long nowMs) {
+        return nowMs - digestWindowStart >= digestWindowSeconds * 1000L;
     }
     
-    /**
-     * Calculates golems per minute based on recent spawn times (real data).
-     */
-    public double getGolemsPerMinute() {
-        if (spawnTimes.size() < 2) {
-            return 0.0;
-        }
-        
-        long now = System.currentTimeMillis();
-        long oneMinuteAgo = now - 60000;
-        
-        int countInLastMinute = 0;
-        for (Long time : spawnTimes) {
-            if (time >= oneMinuteAgo) {
-                countInLastMinute++;
-            }
-        }
-        
-        return countInLastMinute;
+    public int getPendingSpawns() {
+        return pendingSpawns;
     }
     
     /**
-     * Gets the projected golems per hour based on current spawn rate.
+     * Gets the average interval in seconds between the buffered spawns.
+     * Returns 0 if less than 2 golems are buffered.
      */
-    public double getProjectedGolemsPerHour() {
-        double avgInterval = getAverageSpawnInterval();
-        if (avgInterval <= 0) {
+    public double getPendingAverageInterval() {
+        if (pendingSpawns < 2) {
             return 0;
         }
-        return 3600.0 / avgInterval;
+        return (lastPendingSpawn - firstPendingSpawn) / 1000.0 / (pendingSpawns - 1);
     }
     
     /**
-     * Gets the last farm analysis result.
+     * Empties the digest buffer and starts a new window.
      */
-    public IronFarmAnalyzer.FarmAnalysis getLastAnalysis() {
-        return lastAnalysis;
+    public void clearDigest(long nowMs) {
+        this.digestWindowStart = nowMs;
+        this.pendingSpawns = 0;
+        this.firstPendingSpawn = 0;
+        this.lastPendingSpawn = 0;
     }
     
+    // ============ Client HUD ============
+    
     /**
-     * Sets the last farm analysis result.
+     * Values the player's HUD currently shows, or null if nothing was sent yet.
      */
-    public void setLastAnalysis(IronFarmAnalyzer.FarmAnalysis analysis) {
-        this.lastAnalysis = analysis;
+    public int[] getHudSent() {
+        return hudSent;
     }
     
-    /**
-     * Resets all statistics.
-     */
-    public void resetStats() {
-        this.golemCount = 0;
-        this.startTime = System.currentTimeMillis();
-        this.spawnTimes.clear();
-        this.lastSpawnTime = 0;
-        this.previousSpawnTime = 0;
+    public long getHudSpawnTime() {
+        return hudSpawnTime;
+    }
+    
+    public void setHudSent(int[] values, long spawnTime) {
+        this.hudSent = values;
+        this.hudSpawnTime = spawnTime;
     }
     
     /**
      * Stops monitoring and clears all data.
      */
     public void stopMonitoring() {
-        this.monitoring = false;
-        this.followPlayer = false;
-        this.centerPos = null;
-        this.lastAnalysis = null;
-        resetStats();
+        this.session = null;
+        this.hudSent = null;
+        this.hudSpawnTime = -1;
+        setOutlinePending(null);
+        clearDigest(System.currentTimeMillis());
     }
 }
@@ -0,0 +1,69 @@
+package com.moddersapptolast.component;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.npc.VillagerProfession;
+
+import java.util.Optional;
+
+/**
+ * Villager professions interned to small integer ids.
+ *
+ * The id is the profession's raw id in the built-in registry, so looking one up
+ * is a single map read with no String or Optional allocation. Names and the
+ * "jobless" flag (none/nitwit) are read from the registry once, the first time
+ * any id is resolved - after the registries are frozen.
+ */
+final class ProfessionTable {
+
+    static final int UNKNOWN = -1;
+
+    private ProfessionTable() {}
+
+    // Initialization-on-demand holder: loaded once, safely visible to worker threads
+    private static final class Loaded {
+        static final String[] NAMES;
+        static final boolean[] JOBLESS;
+
+        static {
+            Registry<VillagerProfession> registry = BuiltInRegistries.VILLAGER_PROFESSION;
+            int size = registry.size();
+            NAMES = new String[size];
+            JOBLESS = new boolean[size];
+            for (int id = 0; id < size; id++) {
+                VillagerProfession profession = registry.byId(id);
+                Optional<ResourceKey<VillagerProfession>> key = registry.getResourceKey(profession);
+                NAMES[id] = key.map(k -> k.location().getPath()).orElse("unknown");
+                JOBLESS[id] = key.isPresent()
+                    && (key.get().equals(VillagerProfession.NONE) || key.get().equals(VillagerProfession.NITWIT));
+            }
+        }
+    }
+
+    /**
+     * Gets the interned id of a profession, or UNKNOWN if it is not registered.
+     */
+    static int idOf(Holder<VillagerProfession> profession) {
+        return BuiltInRegistries.VILLAGER_PROFESSION.getId(profession.value());
+    }
+
+    /**
+     * Number of ids, i.e. the length of a per-profession counts array.
+     */
+    static int size() {
+        return Loaded.NAMES.length;
+    }
+
+    static String name(int id) {
+        return id >= 0 && id < Loaded.NAMES.length ? Loaded.NAMES[id] : "unknown";
+    }
+
+    /**
+     * Checks if a profession has no job site (none or nitwit).
+     */
+    static boolean isJobless(int id) {
+        return id < 0 || id >= Loaded.JOBLESS.length || Loaded.JOBLESS[id];
+    }
+}
@@ -0,0 +1,142 @@
+package com.moddersapptolast.component;
+
+import com.moddersapptolast.config.ModConfig;
+import com.moddersapptolast.task.TickScheduler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background readiness sampler for monitored farms (see ReadinessTimeline).
+ *
+ * Every tick, across all farm sessions together:
+ * - one chunk column of one session is scanned for villagers, rebuilding that
+ *   session's roster a column at a time. At most SWEEP_VILLAGERS_PER_TICK new
+ *   villagers are taken per tick; a crowded column is resumed on the next
+ *   tick, skipping the villagers it already found;
+ * - monitor.samplerVillagersPerTick villagers are sampled round-robin (brain
+ *   memories, as in IronFarmAnalyzer), spread over the sessions in turn.
+ * The cost per tick is therefore fixed, whatever the size of the farms; a large
+ * hall just takes longer to go around. A full pass of a 100-villager farm at
+ * the default 4 samples per tick takes about a second.
+ */
+public final class ReadinessSampler {
+
+    private static final int SWEEP_VILLAGERS_PER_TICK = 16;
+    private static final EntityTypeTest<Entity, Villager> VILLAGERS =
+        EntityTypeTest.forClass(Villager.class);
+
+    // Reused by every sweep (server thread only)
+    private static final List<Villager> found = new ArrayList<>();
+
+    private static int sweepCursor = 0;
+    private static int sampleCursor = 0;
+
+    private ReadinessSampler() {}
+
+    /**
+     * Registers the sampling task.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        TickScheduler.repeat("ironmonitor-readiness", TickScheduler.Priority.LOW, 1, ReadinessSampler::tick);
+    }
+
+    private static void tick(MinecraftServer server) {
+        List<FarmSession> sessions = IronFarmMonitor.getActiveSessions();
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        sweep(server, sessions.get(Math.floorMod(sweepCursor++, sessions.size())));
+
+        int samples = ModConfig.get().monitor.samplerVillagersPerTick;
+        for (int i = 0; i < samples; i++) {
+            sample(server, sessions.get(Math.floorMod(sampleCursor++, sessions.size())));
+        }
+
+        for (FarmSession session : sessions) {
+            ServerLevel level = server.getLevel(session.getDimension());
+            if (level != null) {
+                session.getReadiness().tick(level.getGameTime(), level.getDayTime());
+            }
+        }
+    }
+
+    /**
+     * Scans the session's current chunk column for villagers not found yet by
+     * this sweep, and moves to the next column once none are left.
+     */
+    private static void sweep(MinecraftServer server, FarmSession session) {
+        ServerLevel level = server.getLevel(session.getDimension());
+        if (level == null) {
+            return;
+        }
+
+        AABB area = session.getMonitoringArea();
+        int minChunkX = SectionPos.blockToSectionCoord(area.minX);
+        int minChunkZ = SectionPos.blockToSectionCoord(area.minZ);
+        int chunksX = SectionPos.blockToSectionCoord(area.maxX) - minChunkX + 1;
+        int chunksZ = SectionPos.blockToSectionCoord(area.maxZ) - minChunkZ + 1;
+        int chunkCount = chunksX * chunksZ;
+
+        ReadinessTimeline timeline = session.getReadiness();
+        int index = timeline.currentChunk(chunkCount);
+        int chunkX = minChunkX + index % chunksX;
+        int chunkZ = minChunkZ + index / chunksX;
+
+        boolean columnDone = true;
+        if (level.hasChunk(chunkX, chunkZ)) {
+            AABB column = new AABB(
+                Math.max(area.minX, SectionPos.sectionToBlockCoord(chunkX)), area.minY,
+                Math.max(area.minZ, SectionPos.sectionToBlockCoord(chunkZ)),
+                Math.min(area.maxX + 1, SectionPos.sectionToBlockCoord(chunkX + 1)), area.maxY + 1,
+                Math.min(area.maxZ + 1, SectionPos.sectionToBlockCoord(chunkZ + 1))
+            );
+            // The entity lookup stops as soon as the cap is reached
+            level.getEntities(VILLAGERS, column, villager -> !timeline.isInNextRoster(villager),
+                found, SWEEP_VILLAGERS_PER_TICK);
+            for (Villager villager : found) {
+                timeline.addToNextRoster(villager);
+            }
+            columnDone = found.size() < SWEEP_VILLAGERS_PER_TICK;
+            found.clear();
+        }
+        if (columnDone) {
+            timeline.advanceChunk();
+        }
+
+        if (timeline.isSweepComplete(chunkCount)) {
+            timeline.finishSweep();
+        }
+    }
+
+    /**
+     * Samples the session's next villager.
+     */
+    private static void sample(MinecraftServer server, FarmSession session) {
+        ReadinessTimeline timeline = session.getReadiness();
+        Villager villager = timeline.nextToSample();
+        if (villager == null) {
+            return;
+        }
+
+        BlockPos pos = villager.blockPosition();
+        if (villager.isRemoved() || !(villager.level() instanceof ServerLevel level)
+                || !level.dimension().equals(session.getDimension()) || !session.contains(pos)) {
+            timeline.forget(villager);
+            return;
+        }
+
+        int profession = ProfessionTable.idOf(villager.getVillagerData().profession());
+        timeline.record(villager, IronFarmAnalyzer.villagerFlags(villager, profession, level.getGameTime()));
+    }
+}
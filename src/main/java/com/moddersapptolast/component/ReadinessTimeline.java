@@ -0,0 +1,264 @@
+package com.moddersapptolast.component;
+
+import it.unimi.dsi.fastutil.objects.Object2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.world.entity.npc.Villager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Villager readiness of one farm session over time, filled by ReadinessSampler.
+ *
+ * Holds the session's villager roster (rebuilt one chunk column at a time), the
+ * last sampled IronFarmAnalyzer flags of every villager, running counts of the
+ * ready and sleeping ones, and per-minute averages of those counts for the last
+ * day-night cycle (20 minutes). Server thread only.
+ */
+public class ReadinessTimeline {
+
+    public static final int TICKS_PER_MINUTE = 1200;
+    public static final int MINUTES = 20;  // One day-night cycle
+
+    // Local bit next to IronFarmAnalyzer.FLAG_*: sleeping when sampled
+    private static final byte FLAG_SLEEPING = 1 << 6;
+
+    // Villagers found by the last full sweep, and the sweep in progress (with its members by UUID)
+    private List<Villager> roster = new ArrayList<>();
+    private List<Villager> nextRoster = new ArrayList<>();
+    private final ObjectOpenHashSet<UUID> nextMembers = new ObjectOpenHashSet<>();
+    private int chunkCursor = 0;
+    private int sampleCursor = 0;
+
+    // Last sampled flags per villager of the roster, and the same for the sweep in progress
+    private Object2ByteOpenHashMap<UUID> states = new Object2ByteOpenHashMap<>();
+    private Object2ByteOpenHashMap<UUID> nextStates = new Object2ByteOpenHashMap<>();
+    private int ready = 0;
+    private int sleeping = 0;
+    private int nextReady = 0;
+    private int nextSleeping = 0;
+
+    // Minute being accumulated
+    private long currentMinute = -1;
+    private long readySum = 0;
+    private long sleepingSum = 0;
+    private int tickSamples = 0;
+
+    // Closed minutes, oldest first once full (ring)
+    private final float[] minuteReady = new float[MINUTES];
+    private final float[] minuteSleeping = new float[MINUTES];
+    private final boolean[] minuteNight = new boolean[MINUTES];
+    private int minuteHead = 0;
+    private int minuteCount = 0;
+
+    // ============ Roster sweep ============
+
+    /**
+     * Chunk column being swept; stays the same until advanceChunk().
+     */
+    int currentChunk(int chunkCount) {
+        if (chunkCursor >= chunkCount) {
+            chunkCursor = 0;
+        }
+        return chunkCursor;
+    }
+
+    void advanceChunk() {
+        chunkCursor++;
+    }
+
+    boolean isInNextRoster(Villager villager) {
+        return nextMembers.contains(villager.getUUID());
+    }
+
+    boolean isSweepComplete(int chunkCount) {
+        return chunkCursor >= chunkCount;
+    }
+
+    /**
+     * Adds a villager found by the sweep in progress, keeping its last known state.
+     */
+    void addToNextRoster(Villager villager) {
+        UUID id = villager.getUUID();
+        if (!nextMembers.add(id)) {
+            return;
+        }
+        nextRoster.add(villager);
+        if (states.containsKey(id)) {
+            byte flags = states.getByte(id);
+            nextStates.put(id, flags);
+            nextReady += isReady(flags) ? 1 : 0;
+            nextSleeping += isSleeping(flags) ? 1 : 0;
+        }
+    }
+
+    /**
+     * Makes the finished sweep the current roster. Villagers it did not find are dropped.
+     */
+    void finishSweep() {
+        List<Villager> oldRoster = roster;
+        roster = nextRoster;
+        nextRoster = oldRoster;
+        nextRoster.clear();
+
+        Object2ByteOpenHashMap<UUID> oldStates = states;
+        states = nextStates;
+        nextStates = oldStates;
+        nextStates.clear();
+        nextMembers.clear();
+
+        ready = nextReady;
+        sleeping = nextSleeping;
+        nextReady = 0;
+        nextSleeping = 0;
+        if (sampleCursor >= roster.size()) {
+            sampleCursor = 0;
+        }
+    }
+
+    // ============ Sampling ============
+
+    /**
+     * Next villager of the roster to sample, or null if the roster is empty.
+     */
+    Villager nextToSample() {
+        if (roster.isEmpty()) {
+            return null;
+        }
+        if (sampleCursor >= roster.size()) {
+            sampleCursor = 0;
+        }
+        return roster.get(sampleCursor++);
+    }
+
+    void record(Villager villager, byte analyzerFlags) {
+        byte flags = villager.isSleeping() ? (byte) (analyzerFlags | FLAG_SLEEPING) : analyzerFlags;
+        UUID id = villager.getUUID();
+
+        if (states.containsKey(id)) {
+            byte old = states.getByte(id);
+            ready -= isReady(old) ? 1 : 0;
+            sleeping -= isSleeping(old) ? 1 : 0;
+        }
+        states.put(id, flags);
+        ready += isReady(flags) ? 1 : 0;
+        sleeping += isSleeping(flags) ? 1 : 0;
+
+        // Already found again by the sweep in progress: keep its copy current too
+        if (nextMembers.contains(id)) {
+            if (nextStates.containsKey(id)) {
+                byte old = nextStates.getByte(id);
+                nextReady -= isReady(old) ? 1 : 0;
+                nextSleeping -= isSleeping(old) ? 1 : 0;
+            }
+            nextStates.put(id, flags);
+            nextReady += isReady(flags) ? 1 : 0;
+            nextSleeping += isSleeping(flags) ? 1 : 0;
+        }
+    }
+
+    /**
+     * Forgets a villager that died or left the level (until the next sweep drops it).
+     */
+    void forget(Villager villager) {
+        UUID id = villager.getUUID();
+        if (states.containsKey(id)) {
+            byte old = states.removeByte(id);
+            ready -= isReady(old) ? 1 : 0;
+            sleeping -= isSleeping(old) ? 1 : 0;
+        }
+        if (nextStates.containsKey(id)) {
+            byte old = nextStates.removeByte(id);
+            nextReady -= isReady(old) ? 1 : 0;
+            nextSleeping -= isSleeping(old) ? 1 : 0;
+        }
+    }
+
+    private static boolean isReady(byte flags) {
+        return IronFarmAnalyzer.canTriggerSpawn(flags);
+    }
+
+    private static boolean isSleeping(byte flags) {
+        return (flags & FLAG_SLEEPING) != 0;
+    }
+
+    // ============ Timeline ============
+
+    /**
+     * Adds the current counts to the minute being accumulated; closes it when the minute changes.
+     *
+     * @param dayTime level day time, to mark night minutes
+     */
+    void tick(long gameTime, long dayTime) {
+        long minute = gameTime / TICKS_PER_MINUTE;
+        if (minute != currentMinute) {
+            if (currentMinute >= 0 && tickSamples > 0) {
+                int slot = (minuteHead + minuteCount) % MINUTES;
+                if (minuteCount == MINUTES) {
+                    minuteHead = (minuteHead + 1) % MINUTES;
+                } else {
+                    minuteCount++;
+                }
+                minuteReady[slot] = (float) readySum / tickSamples;
+                minuteSleeping[slot] = (float) sleepingSum / tickSamples;
+                minuteNight[slot] = isNight(dayTime);
+            }
+            currentMinute = minute;
+            readySum = 0;
+            sleepingSum = 0;
+            tickSamples = 0;
+        }
+        readySum += ready;
+        sleepingSum += sleeping;
+        tickSamples++;
+    }
+
+    // Villagers go to bed from 12000 and get up at 0 (day time 0..23999)
+    private static boolean isNight(long dayTime) {
+        return dayTime % 24000 >= 12000;
+    }
+
+    // ============ Queries ============
+
+    public int getRosterSize() {
+        return roster.size();
+    }
+
+    /**
+     * Villagers of the roster sampled at least once.
+     */
+    public int getSampledCount() {
+        return states.size();
+    }
+
+    public int getReady() {
+        return ready;
+    }
+
+    public int getSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Closed minutes available, up to MINUTES.
+     */
+    public int getMinuteCount() {
+        return minuteCount;
+    }
+
+    /**
+     * Average ready villagers in a closed minute (0 = oldest).
+     */
+    public float getMinuteReady(int index) {
+        return minuteReady[(minuteHead + index) % MINUTES];
+    }
+
+    public float getMinuteSleeping(int index) {
+        return minuteSleeping[(minuteHead + index) % MINUTES];
+    }
+
+    public boolean isMinuteNight(int index) {
+        return minuteNight[(minuteHead + index) % MINUTES];
+    }
+}
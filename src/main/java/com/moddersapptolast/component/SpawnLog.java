@@ -0,0 +1,85 @@
+package com.moddersapptolast.component;
+
+/**
+ * Every golem spawn of a farm session, for /ironmonitor export.
+ *
+ * A ring buffer of primitive longs (spawn time in ms, shifted left one bit, with
+ * the low bit set for panic spawns): 8 bytes per golem, growing by doubling up to
+ * the capacity, after which the oldest spawns are overwritten. A week of a fast
+ * farm (one golem every 10 s) is about 60k entries, under half a megabyte.
+ */
+public final class SpawnLog {
+
+    private static final int INITIAL_SIZE = 64;
+
+    private long[] entries = new long[0];
+    private int start = 0;
+    private int size = 0;
+    private long dropped = 0;
+
+    public void add(long timeMs, boolean panic, int capacity) {
+        long entry = timeMs << 1 | (panic ? 1 : 0);
+        if (size < entries.length) {
+            entries[(start + size) % entries.length] = entry;
+            size++;
+            return;
+        }
+        if (entries.length < capacity) {
+            grow(Math.min(capacity, Math.max(INITIAL_SIZE, entries.length * 2)));
+            entries[size++] = entry;
+            return;
+        }
+        // Full: overwrite the oldest
+        entries[start] = entry;
+        start = (start + 1) % entries.length;
+        dropped++;
+    }
+
+    private void grow(int newLength) {
+        long[] grown = new long[newLength];
+        copyTo(grown);
+        entries = grown;
+        start = 0;
+    }
+
+    private void copyTo(long[] target) {
+        int firstPart = Math.min(size, entries.length - start);
+        System.arraycopy(entries, start, target, 0, firstPart);
+        System.arraycopy(entries, 0, target, firstPart, size - firstPart);
+    }
+
+    /**
+     * The logged spawns, oldest first, in the packed format (see decode helpers).
+     */
+    public long[] toArray() {
+        long[] copy = new long[size];
+        copyTo(copy);
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Spawns overwritten because the log was full.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void clear() {
+        entries = new long[0];
+        start = 0;
+        size = 0;
+        dropped = 0;
+    }
+
+    public static long timeOf(long entry) {
+        return entry >>> 1;
+    }
+
+    public static boolean isPanic(long entry) {
+        return (entry & 1) != 0;
+    }
+}
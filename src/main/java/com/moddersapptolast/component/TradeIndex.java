@@ -0,0 +1,151 @@
+package com.moddersapptolast.component;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.item.enchantment.ItemEnchantments;
+import net.minecraft.world.item.trading.MerchantOffer;
+import net.minecraft.world.item.trading.MerchantOffers;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Small searchable summary of a captured villager, stored inside its own
+ * record under KEY so it travels with it (nets, vaults):
+ *
+ *   {profession: "minecraft:librarian", level: 3,
+ *    terms: ["minecraft:enchanted_book", "minecraft:mending 1", "minecraft:emerald", ...]}
+ *
+ * Terms are the items bought and sold plus every enchantment (with level) on
+ * them. Built once at capture time, so searching never decodes trades again.
+ * Entities ignore the extra key when they are released.
+ */
+public final class TradeIndex {
+
+    public static final String KEY = "villagerscatch:index";
+
+    private TradeIndex() {}
+
+    /**
+     * Gets the index of a record, or null if it was captured before indexing existed.
+     */
+    public static CompoundTag get(CompoundTag record) {
+        return record.get(KEY) instanceof CompoundTag index ? index : null;
+    }
+
+    /**
+     * Builds the index of a villager record from its saved VillagerData and Offers.
+     */
+    public static CompoundTag build(CompoundTag record, HolderLookup.Provider registries) {
+        CompoundTag villagerData = record.getCompoundOrEmpty("VillagerData");
+        CompoundTag index = new CompoundTag();
+        index.putString("profession", villagerData.getStringOr("profession", "minecraft:none"));
+        index.putInt("level", villagerData.getIntOr("level", 1));
+
+        Set<String> terms = new LinkedHashSet<>();
+        Tag stored = record.get("Offers");
+        if (stored != null) {
+            MerchantOffers offers = MerchantOffers.CODEC
+                .parse(registries.createSerializationContext(NbtOps.INSTANCE), stored)
+                .result()
+                .orElseGet(MerchantOffers::new);
+            for (MerchantOffer offer : offers) {
+                addTerms(terms, offer.getResult());
+                addTerms(terms, offer.getBaseCostA());
+                addTerms(terms, offer.getCostB());
+            }
+        }
+
+        ListTag list = new ListTag();
+        for (String term : terms) {
+            list.add(StringTag.valueOf(term));
+        }
+        index.put("terms", list);
+        return index;
+    }
+
+    /**
+     * Returns a copy of the record with its index attached (records are shared, never mutated).
+     */
+    public static CompoundTag withIndex(CompoundTag record, CompoundTag index) {
+        CompoundTag updated = new CompoundTag();
+        for (String key : record.keySet()) {
+            updated.put(key, record.get(key));
+        }
+        updated.put(KEY, index);
+        return updated;
+    }
+
+    private static void addTerms(Set<String> terms, ItemStack stack) {
+        if (stack.isEmpty()) {
+            return;
+        }
+        terms.add(BuiltInRegistries.ITEM.getKey(stack.getItem()).toString());
+        addEnchantments(terms, stack.getOrDefault(DataComponents.STORED_ENCHANTMENTS, ItemEnchantments.EMPTY));
+        addEnchantments(terms, stack.getOrDefault(DataComponents.ENCHANTMENTS, ItemEnchantments.EMPTY));
+    }
+
+    private static void addEnchantments(Set<String> terms, ItemEnchantments enchantments) {
+        for (Object2IntMap.Entry<Holder<Enchantment>> entry : enchantments.entrySet()) {
+            entry.getKey().unwrapKey().ifPresent(key -> terms.add(key.location() + " " + entry.getIntValue()));
+        }
+    }
+
+    /**
+     * True if every word of the query appears in the profession or in some term.
+     */
+    public static boolean matches(CompoundTag index, String query) {
+        String profession = index.getStringOr("profession", "");
+        ListTag terms = index.getListOrEmpty("terms");
+
+        for (String word : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (word.isEmpty() || profession.contains(word)) {
+                continue;
+            }
+            boolean found = false;
+            for (int i = 0; i < terms.size() && !found; i++) {
+                found = terms.getStringOr(i, "").contains(word);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Enchantments offered by the villager ("mending 1, unbreaking 3"), or its
+     * traded items if it offers none.
+     */
+    public static String describeTerms(CompoundTag index, int max) {
+        ListTag terms = index.getListOrEmpty("terms");
+        StringBuilder enchantments = new StringBuilder();
+        StringBuilder items = new StringBuilder();
+        int enchantmentCount = 0;
+        int itemCount = 0;
+
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.getStringOr(i, "");
+            String shortTerm = term.startsWith("minecraft:") ? term.substring("minecraft:".length()) : term;
+            if (term.contains(" ")) {
+                if (enchantmentCount++ < max) {
+                    enchantments.append(enchantments.isEmpty() ? "" : ", ").append(shortTerm);
+                }
+            } else if (itemCount++ < max) {
+                items.append(items.isEmpty() ? "" : ", ").append(shortTerm);
+            }
+        }
+        return !enchantments.isEmpty() ? enchantments.toString() : items.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.moddersapptolast.component;
+
+import java.util.Arrays;
+
+/**
+ * Growable struct-of-arrays buffer of villager rows, used while collecting
+ * villagers for a FarmAnalysis.
+ *
+ * Row i is (positions[i], professions[i], flags[i]):
+ * - position: BlockPos.asLong
+ * - profession: ProfessionTable id
+ * - flags: IronFarmAnalyzer.FLAG_* bits
+ *
+ * Not thread-safe; a buffer is filled by one thread and then only read.
+ */
+class VillagerBuffer {
+
+    private long[] positions;
+    private int[] professions;
+    private byte[] flags;
+    private int size;
+
+    VillagerBuffer(int capacity) {
+        int initial = Math.max(capacity, 4);
+        this.positions = new long[initial];
+        this.professions = new int[initial];
+        this.flags = new byte[initial];
+    }
+
+    void add(long position, int profession, byte villagerFlags) {
+        if (size == positions.length) {
+            int grown = size + (size >> 1);
+            positions = Arrays.copyOf(positions, grown);
+            professions = Arrays.copyOf(professions, grown);
+            flags = Arrays.copyOf(flags, grown);
+        }
+        positions[size] = position;
+        professions[size] = profession;
+        flags[size] = villagerFlags;
+        size++;
+    }
+
+    /**
+     * Copies row i of another buffer into this one.
+     */
+    void addFrom(VillagerBuffer other, int i) {
+        add(other.positions[i], other.professions[i], other.flags[i]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long position(int i) {
+        return positions[i];
+    }
+
+    int profession(int i) {
+        return professions[i];
+    }
+
+    byte flags(int i) {
+        return flags[i];
+    }
+
+    // Exact-length arrays for FarmAnalysis (no copy when the buffer was sized exactly)
+
+    long[] positions() {
+        return positions.length == size ? positions : Arrays.copyOf(positions, size);
+    }
+
+    int[] professions() {
+        return professions.length == size ? professions : Arrays.copyOf(professions, size);
+    }
+
+    byte[] flags() {
+        return flags.length == size ? flags : Arrays.copyOf(flags, size);
+    }
+}
@@ -0,0 +1,199 @@
+package com.moddersapptolast.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.moddersapptolast.VillagersCatch;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mod settings, read from config/villagerscatch/villagerscatch.json.
+ *
+ * The file is written with the defaults the first time the mod starts; missing
+ * fields keep their default values. Every load is validated as a whole and then
+ * swapped in with a single reference write, so a reload (/villagerscatch reload)
+ * either applies every change or none. Readers should call get() once per
+ * operation and treat the result as read-only.
+ */
+public final class ModConfig {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "villagerscatch.json";
+
+    private static volatile ModConfig current = new ModConfig();
+
+    /**
+     * Iron farm monitor cost knobs.
+     */
+    public static final class Monitor {
+        // Ticks between action bar updates (and follow-mode moves)
+        public int displayIntervalTicks = 10;
+        // Spawn timestamps kept per farm session for rate calculation
+        public int spawnHistorySize = 100;
+        // Radius used by /ironmonitor start|follow without an argument, and the largest allowed
+        public int defaultRadius = 32;
+        public int maxRadius = 128;
+        // /ironmonitor outline: refresh interval, particles per player per tick, and how far
+        // from the player edges are drawn (32 is the distance clients show ordinary particles at)
+        public int outlineIntervalTicks = 10;
+        public int outlineParticlesPerTick = 24;
+        public int outlineViewDistance = 32;
+        // Golem spawns kept per farm session for /ironmonitor export (8 bytes each)
+        public int exportLogSize = 100000;
+        // Villagers whose sleep/readiness is sampled per tick, across all farms (see ReadinessSampler)
+        public int samplerVillagersPerTick = 4;
+    }
+
+    /**
+     * Villager and zombie nets.
+     */
+    public static final class Nets {
+        public int maxEntities = 64;
+    }
+
+    /**
+     * Limits on releasing entities from nets into crowded areas (see world.ReleaseGuard).
+     */
+    public static final class ReleaseGuard {
+        public boolean enabled = true;
+        // Mobs allowed in the target chunk, counting the released one
+        public int maxMobsPerChunk = 48;
+        // "refuse" keeps the entity in the net, "redistribute" releases it in the
+        // least crowded loaded chunk within redistributeRadius chunks
+        public String mode = "refuse";
+        public int redistributeRadius = 2;
+    }
+
+    public Monitor monitor = new Monitor();
+    public Nets nets = new Nets();
+    public ReleaseGuard releaseGuard = new ReleaseGuard();
+
+    /**
+     * Current settings. Never null.
+     */
+    public static ModConfig get() {
+        return current;
+    }
+
+    /**
+     * Loads the settings at startup, writing the defaults if the file does not exist.
+     * A broken or invalid file is logged and the defaults are used.
+     */
+    public static void load() {
+        Path file = path();
+        if (!Files.exists(file)) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (Writer writer = Files.newBufferedWriter(file)) {
+                    GSON.toJson(new ModConfig(), writer);
+                }
+            } catch (IOException e) {
+                VillagersCatch.LOGGER.warn("Could not write default {}", file, e);
+            }
+            return;
+        }
+
+        List<String> errors = reload();
+        if (!errors.isEmpty()) {
+            VillagersCatch.LOGGER.warn("Invalid {}, using default settings: {}", file, String.join("; ", errors));
+        }
+    }
+
+    /**
+     * Reads and validates the file, and applies it only if it is fully valid.
+     *
+     * @return the problems found; empty if the new settings were applied
+     */
+    public static List<String> reload() {
+        List<String> errors = new ArrayList<>();
+        ModConfig loaded = read(errors);
+        if (loaded != null) {
+            apply(loaded);
+        }
+        return errors;
+    }
+
+    /**
+     * Reads and validates the file without applying it, so it can be swapped in
+     * together with other files (see /villagerscatch reload).
+     *
+     * @param errors receives the problems found
+     * @return the new settings, or null if the file is not fully valid
+     */
+    public static ModConfig read(List<String> errors) {
+        Path file = path();
+        ModConfig loaded;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            loaded = GSON.fromJson(reader, ModConfig.class);
+        } catch (IOException | JsonParseException e) {
+            errors.add("cannot read " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+        if (loaded == null) {
+            errors.add(file.getFileName() + " is empty");
+            return null;
+        }
+
+        List<String> problems = loaded.validate();
+        errors.addAll(problems);
+        return problems.isEmpty() ? loaded : null;
+    }
+
+    /**
+     * Makes settings returned by read() the current ones.
+     */
+    public static void apply(ModConfig loaded) {
+        current = loaded;
+    }
+
+    private static Path path() {
+        return FabricLoader.getInstance().getConfigDir().resolve("villagerscatch").resolve(FILE_NAME);
+    }
+
+    /**
+     * Fills missing sections with defaults and checks every value.
+     */
+    private List<String> validate() {
+        if (monitor == null) {
+            monitor = new Monitor();
+        }
+        if (nets == null) {
+            nets = new Nets();
+        }
+        if (releaseGuard == null) {
+            releaseGuard = new ReleaseGuard();
+        }
+
+        List<String> errors = new ArrayList<>();
+        check(errors, "monitor.displayIntervalTicks", monitor.displayIntervalTicks, 1, 200);
+        check(errors, "monitor.spawnHistorySize", monitor.spawnHistorySize, 2, 10000);
+        check(errors, "monitor.maxRadius", monitor.maxRadius, 1, 512);
+        check(errors, "monitor.defaultRadius", monitor.defaultRadius, 1, monitor.maxRadius);
+        check(errors, "monitor.outlineIntervalTicks", monitor.outlineIntervalTicks, 1, 40);
+        check(errors, "monitor.outlineParticlesPerTick", monitor.outlineParticlesPerTick, 1, 64);
+        check(errors, "monitor.outlineViewDistance", monitor.outlineViewDistance, 4, 32);
+        check(errors, "monitor.exportLogSize", monitor.exportLogSize, 1000, 1000000);
+        check(errors, "monitor.samplerVillagersPerTick", monitor.samplerVillagersPerTick, 1, 64);
+        check(errors, "nets.maxEntities", nets.maxEntities, 1, 1024);
+        check(errors, "releaseGuard.maxMobsPerChunk", releaseGuard.maxMobsPerChunk, 1, 10000);
+        check(errors, "releaseGuard.redistributeRadius", releaseGuard.redistributeRadius, 0, 8);
+        if (!"refuse".equals(releaseGuard.mode) && !"redistribute".equals(releaseGuard.mode)) {
+            errors.add("releaseGuard.mode must be \"refuse\" or \"redistribute\"");
+        }
+        return errors;
+    }
+
+    private static void check(List<String> errors, String name, int value, int min, int max) {
+        if (value < min || value > max) {
+            errors.add(name + " must be between " + min + " and " + max + " (got " + value + ")");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.moddersapptolast.event;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+
+/**
+ * Events fired from the server's entity section tracking (see mixin.EntitySectionCallbackMixin).
+ *
+ * Together with ServerEntityEvents.ENTITY_LOAD/ENTITY_UNLOAD this lets per-chunk
+ * counters follow every entity without ever scanning the world.
+ */
+public final class EntityChunkEvents {
+
+    /**
+     * Fired on the server thread when a loaded entity moves into another chunk.
+     * Chunks are given as ChunkPos.toLong() keys.
+     */
+    public static final Event<ChunkChanged> CHUNK_CHANGED = EventFactory.createArrayBacked(ChunkChanged.class,
+        callbacks -> (level, entity, fromChunk, toChunk) -> {
+            for (ChunkChanged callback : callbacks) {
+                callback.onChunkChanged(level, entity, fromChunk, toChunk);
+            }
+        });
+
+    @FunctionalInterface
+    public interface ChunkChanged {
+        void onChunkChanged(ServerLevel level, Entity entity, long fromChunk, long toChunk);
+    }
+
+    private EntityChunkEvents() {
+    }
+}
@@ -0,0 +1,81 @@
+package com.moddersapptolast.event;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.npc.Villager;
+
+/**
+ * Events fired from the villager golem-summoning code (see mixin.VillagerMixin).
+ *
+ * Unlike ServerEntityEvents.ENTITY_LOAD, these only fire for golems actually summoned
+ * by villagers - never for player-built golems, spawn eggs, commands or other mods.
+ */
+public final class VillagerGolemEvents {
+
+    /**
+     * Why the villager tried to summon a golem.
+     * Vanilla calls Villager.spawnGolemIfNeeded with a quorum of 5 after gossiping
+     * and a quorum of 3 while panicking.
+     */
+    public enum SummonReason {
+        GOSSIP,
+        PANIC;
+
+        public static SummonReason fromQuorum(int minVillagerAmount) {
+            return minVillagerAmount <= 3 ? PANIC : GOSSIP;
+        }
+    }
+
+    /**
+     * Result of one call to Villager.spawnGolemIfNeeded.
+     * The first three are real attempts (the villager wanted a golem); the last two
+     * mean the villager didn't try at all.
+     */
+    public enum AttemptOutcome {
+        SPAWNED,              // Golem summoned
+        NOT_ENOUGH_VILLAGERS, // Fewer ready villagers around than the quorum
+        NO_SPAWN_SPACE,       // No valid spawn position (bad platform blocks or crowded area)
+        NOT_SLEPT,            // Not trying: hasn't slept in the last 20 minutes
+        GOLEM_NEARBY;         // Not trying: detected a golem in the last 30 seconds
+
+        public boolean isAttempt() {
+            return this == SPAWNED || this == NOT_ENOUGH_VILLAGERS || this == NO_SPAWN_SPACE;
+        }
+    }
+
+    /**
+     * Fired on the server thread every time a villager evaluates summoning a golem.
+     * Carries no entity queries or formatting, so listeners can stay registered permanently.
+     */
+    public static final Event<SpawnAttempt> SPAWN_ATTEMPT = EventFactory.createArrayBacked(SpawnAttempt.class,
+        callbacks -> (level, villager, reason, outcome) -> {
+            for (SpawnAttempt callback : callbacks) {
+                callback.onSpawnAttempt(level, villager, reason, outcome);
+            }
+        });
+
+    /**
+     * Fired on the server thread right after a villager summoned an iron golem.
+     */
+    public static final Event<GolemSummoned> GOLEM_SUMMONED = EventFactory.createArrayBacked(GolemSummoned.class,
+        callbacks -> (level, villager, golem, reason) -> {
+            for (GolemSummoned callback : callbacks) {
+                callback.onGolemSummoned(level, villager, golem, reason);
+            }
+        });
+
+    @FunctionalInterface
+    public interface GolemSummoned {
+        void onGolemSummoned(ServerLevel level, Villager villager, IronGolem golem, SummonReason reason);
+    }
+
+    @FunctionalInterface
+    public interface SpawnAttempt {
+        void onSpawnAttempt(ServerLevel level, Villager villager, SummonReason reason, AttemptOutcome outcome);
+    }
+
+    private VillagerGolemEvents() {
+    }
+}
@@ -0,0 +1,157 @@
+package com.moddersapptolast.item;
+
+import com.moddersapptolast.component.CaptureProfiles;
+import com.moddersapptolast.component.ModComponents;
+import com.moddersapptolast.world.ReleaseGuard;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.SimpleMenuProvider;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.ChestMenu;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.ItemLore;
+
+import java.util.List;
+
+/**
+ * Read-only chest view of the entities in the net held in one hand, built on a
+ * vanilla 6-row chest (like VillagerVaultMenu) so vanilla clients can use it.
+ *
+ * Only the entries of the current page are decoded, through NetSummaries, so
+ * opening a full net costs at most one page of decodes (none if cached).
+ *
+ * - Click an entity: release it where the player stands (through ReleaseGuard)
+ * - Bottom row: page navigation
+ */
+public class NetContentsMenu extends ChestMenu {
+
+    private static final int PAGE_SIZE = 45;
+    private static final int PREV_SLOT = 45;
+    private static final int INFO_SLOT = 49;
+    private static final int NEXT_SLOT = 53;
+
+    private final InteractionHand hand;
+    private final ItemStack net;
+    private final CaptureProfiles.NetType type;
+    private final DataComponentType<List<CompoundTag>> component;
+    private final Container display;
+    private int page = 0;
+
+    /**
+     * Opens the contents of the net in the given hand.
+     */
+    public static void open(ServerPlayer player, InteractionHand hand, CaptureProfiles.NetType type) {
+        ItemStack net = player.getItemInHand(hand);
+        player.openMenu(new SimpleMenuProvider(
+                (id, inventory, p) -> new NetContentsMenu(id, inventory, hand, net, type, new SimpleContainer(54)),
+                net.getHoverName()));
+    }
+
+    private NetContentsMenu(int id, Inventory inventory, InteractionHand hand, ItemStack net,
+                            CaptureProfiles.NetType type, Container display) {
+        super(MenuType.GENERIC_9x6, id, inventory, display, 6);
+        this.hand = hand;
+        this.net = net;
+        this.type = type;
+        this.component = type == CaptureProfiles.NetType.VILLAGER
+                ? ModComponents.CAPTURED_VILLAGERS : ModComponents.CAPTURED_ZOMBIES;
+        this.display = display;
+        fill();
+    }
+
+    private List<CompoundTag> contents() {
+        return net.getOrDefault(component, List.of());
+    }
+
+    private int pageCount() {
+        return Math.max(1, (contents().size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    private void fill() {
+        List<CompoundTag> contents = contents();
+        page = Math.min(page, pageCount() - 1);
+
+        display.clearContent();
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            int index = page * PAGE_SIZE + slot;
+            if (index < contents.size()) {
+                display.setItem(slot, icon(NetSummaries.get(contents, index, type)));
+            }
+        }
+
+        display.setItem(PREV_SLOT, button(page > 0 ? Items.ARROW : Items.GRAY_STAINED_GLASS_PANE, "« Anterior"));
+        display.setItem(INFO_SLOT, button(Items.BOOK, "Pagina " + (page + 1) + "/" + pageCount() +
+                " - " + contents.size() + " entidad(es)"));
+        display.setItem(NEXT_SLOT, button(page < pageCount() - 1 ? Items.ARROW : Items.GRAY_STAINED_GLASS_PANE, "Siguiente »"));
+    }
+
+    @Override
+    public void clicked(int slotId, int button, ClickType clickType, Player player) {
+        // Handled entirely here: the server resyncs the slots the client predicted
+        if (!(player instanceof ServerPlayer serverPlayer)) {
+            return;
+        }
+
+        if (slotId == PREV_SLOT && page > 0) {
+            page--;
+            fill();
+        } else if (slotId == NEXT_SLOT && page < pageCount() - 1) {
+            page++;
+            fill();
+        } else if (slotId >= 0 && slotId < PAGE_SIZE && page * PAGE_SIZE + slotId < contents().size()) {
+            release(serverPlayer, page * PAGE_SIZE + slotId);
+        }
+    }
+
+    private void release(ServerPlayer player, int index) {
+        ReleaseGuard.Decision decision = NetRelease.releaseAtPlayer(player, net, component, index);
+        if (!decision.allowed()) {
+            player.displayClientMessage(Component.literal(decision.describe()), true);
+            return;
+        }
+
+        int remaining = contents().size();
+        player.displayClientMessage(Component.literal(
+                "Liberado! (" + remaining + " en la red) - " + decision.describe()), true);
+        if (remaining == 0) {
+            player.closeContainer();
+        } else {
+            fill();
+        }
+    }
+
+    @Override
+    public ItemStack quickMoveStack(Player player, int slot) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public boolean stillValid(Player player) {
+        // Closes if the net leaves the hand it was opened from
+        return player.getItemInHand(hand) == net && !net.isEmpty();
+    }
+
+    private static ItemStack icon(NetSummaries.Summary summary) {
+        ItemStack stack = new ItemStack(summary.icon());
+        stack.set(DataComponents.CUSTOM_NAME, summary.name().copy().withStyle(style -> style.withItalic(false)));
+        stack.set(DataComponents.LORE, new ItemLore(summary.lore()));
+        return stack;
+    }
+
+    private static ItemStack button(Item item, String label) {
+        ItemStack stack = new ItemStack(item);
+        stack.set(DataComponents.CUSTOM_NAME, Component.literal(label).withStyle(style -> style.withItalic(false)));
+        return stack;
+    }
+}
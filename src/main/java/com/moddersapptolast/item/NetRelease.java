@@ -0,0 +1,64 @@
+package com.moddersapptolast.item;
+
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.world.ReleaseGuard;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releasing one chosen entity of a net at the player's position, shared by
+ * /villagerscatch release and the net contents menu.
+ */
+public final class NetRelease {
+
+    private NetRelease() {}
+
+    /**
+     * Releases entry `index` of the net where the player stands (or wherever the
+     * release guard moves it to).
+     *
+     * @return the guard's decision; if it is not allowed, nothing changed
+     */
+    public static ReleaseGuard.Decision releaseAtPlayer(ServerPlayer player, ItemStack net,
+                                                        DataComponentType<List<CompoundTag>> component, int index) {
+        long start = HandlerTimings.start();
+        ServerLevel level = (ServerLevel) player.level();
+        ReleaseGuard.Decision decision = ReleaseGuard.check(level, player.blockPosition());
+        if (!decision.allowed()) {
+            HandlerTimings.stop(HandlerTimings.Handler.NET_RELEASE, start);
+            return decision;
+        }
+
+        List<CompoundTag> entities = net.get(component);
+        List<CompoundTag> newList = new ArrayList<>(entities);
+        CompoundTag nbt = newList.remove(index);
+
+        // Exact player position, unless the guard moved the release to a quieter chunk
+        double x = decision.redistributed() ? decision.pos().getX() + 0.5 : player.getX();
+        double y = decision.redistributed() ? decision.pos().getY() : player.getY();
+        double z = decision.redistributed() ? decision.pos().getZ() + 0.5 : player.getZ();
+
+        EntityType.loadEntityRecursive(nbt, level, EntitySpawnReason.COMMAND, (entity) -> {
+            entity.snapTo(x, y, z, entity.getYRot(), entity.getXRot());
+            level.addFreshEntity(entity);
+            return entity;
+        });
+
+        if (newList.isEmpty()) {
+            net.remove(component);
+        } else {
+            net.set(component, newList);
+            NetSummaries.moved(entities, net.get(component), index);
+        }
+        HandlerTimings.stop(HandlerTimings.Handler.NET_RELEASE, start);
+        return decision;
+    }
+}
@@ -0,0 +1,143 @@
+package com.moddersapptolast.item;
+
+import com.google.common.collect.MapMaker;
+import com.moddersapptolast.component.CaptureProfiles;
+import com.moddersapptolast.component.TradeIndex;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentSerialization;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Display summaries of the entities in a net, for NetContentsMenu.
+ *
+ * Decoding a record (names, profession, trades) is the expensive part of
+ * showing a net, so it is done per visible entry and kept in a small LRU cache
+ * per net contents list. The key is the list instance itself (held weakly, by
+ * identity): any change to a net stores a new list, so a stale summary can never
+ * be served. NetRelease carries the cache over when one entry is released.
+ *
+ * Server thread only.
+ */
+public final class NetSummaries {
+
+    // Two pages of the menu
+    private static final int CACHE_SIZE = 90;
+
+    public record Summary(Item icon, Component name, List<Component> lore) {}
+
+    private static final Map<List<CompoundTag>, LinkedHashMap<Integer, Summary>> caches =
+        new MapMaker().weakKeys().makeMap();
+
+    private static long decoded = 0;
+    private static long cached = 0;
+
+    private NetSummaries() {}
+
+    public static Summary get(List<CompoundTag> contents, int index, CaptureProfiles.NetType type) {
+        LinkedHashMap<Integer, Summary> cache = caches.computeIfAbsent(contents, key -> newCache());
+        Summary summary = cache.get(index);
+        if (summary != null) {
+            cached++;
+            return summary;
+        }
+        summary = decode(contents.get(index), type);
+        cache.put(index, summary);
+        decoded++;
+        return summary;
+    }
+
+    /**
+     * Moves the summaries of a net that lost entry `removed` to its new contents list.
+     */
+    static void moved(List<CompoundTag> oldContents, List<CompoundTag> newContents, int removed) {
+        LinkedHashMap<Integer, Summary> oldCache = caches.remove(oldContents);
+        if (oldCache == null || newContents == null) {
+            return;
+        }
+        LinkedHashMap<Integer, Summary> newCache = newCache();
+        for (Map.Entry<Integer, Summary> entry : oldCache.entrySet()) {
+            int index = entry.getKey();
+            if (index != removed) {
+                newCache.put(index > removed ? index - 1 : index, entry.getValue());
+            }
+        }
+        caches.put(newContents, newCache);
+    }
+
+    private static LinkedHashMap<Integer, Summary> newCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Summary> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    private static Summary decode(CompoundTag record, CaptureProfiles.NetType type) {
+        String id = record.getStringOr("id", type == CaptureProfiles.NetType.VILLAGER ? "minecraft:villager" : "minecraft:zombie");
+        CompoundTag villagerData = record.getCompoundOrEmpty("VillagerData");
+        List<Component> lore = new ArrayList<>();
+
+        Component kind = EntityType.byString(id)
+            .map(entityType -> (Component) entityType.getDescription())
+            .orElse(Component.literal(id));
+        Component name = record.read("CustomName", ComponentSerialization.CODEC).orElse(null);
+
+        Item icon;
+        if (type == CaptureProfiles.NetType.VILLAGER) {
+            icon = Items.VILLAGER_SPAWN_EGG;
+            name = name != null ? name : profession(villagerData);
+            if (record.contains("CustomName")) {
+                lore.add(Component.literal("§7Profesión: §f").append(profession(villagerData)));
+            }
+            lore.add(Component.literal("§7Nivel: §f" + villagerData.getIntOr("level", 1)));
+            CompoundTag index = TradeIndex.get(record);
+            String trades = index != null ? TradeIndex.describeTerms(index, 3) : "";
+            if (!trades.isEmpty()) {
+                lore.add(Component.literal("§7Ofertas: §f" + trades));
+            } else {
+                lore.add(Component.literal("§7Ofertas: §f" + record.getCompoundOrEmpty("Offers").getListOrEmpty("Recipes").size()));
+            }
+        } else {
+            boolean zombieVillager = id.equals("minecraft:zombie_villager");
+            icon = zombieVillager ? Items.ZOMBIE_VILLAGER_SPAWN_EGG : Items.ZOMBIE_SPAWN_EGG;
+            lore.add(Component.literal("§7Tipo: §f").append(kind));
+            name = name != null ? name : kind;
+            if (zombieVillager) {
+                lore.add(Component.literal("§7Profesión: §f").append(profession(villagerData)));
+            }
+            lore.add(Component.literal("§7Vida: §f" + Math.round(record.getFloatOr("Health", 20))));
+        }
+        lore.add(Component.literal("§eClic: §7liberar aquí"));
+
+        return new Summary(icon, name, List.copyOf(lore));
+    }
+
+    private static Component profession(CompoundTag villagerData) {
+        String profession = villagerData.getStringOr("profession", "minecraft:none");
+        ResourceLocation id = ResourceLocation.tryParse(profession);
+        if (id == null) {
+            return Component.literal(profession);
+        }
+        return Component.translatable("entity." + id.getNamespace() + ".villager." + id.getPath());
+    }
+
+    // ============ Stats ============
+
+    public static long getDecoded() {
+        return decoded;
+    }
+
+    public static long getCached() {
+        return cached;
+    }
+}
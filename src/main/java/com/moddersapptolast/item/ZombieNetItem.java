@@ -1,7 +1,10 @@
 package com.moddersapptolast.item;
 
 import com.moddersapptolast.VillagersCatch;
+import com.moddersapptolast.component.CaptureProfiles;
 import com.moddersapptolast.component.ModComponents;
+import com.moddersapptolast.perf.HandlerTimings;
+import com.moddersapptolast.world.ReleaseGuard;
 import eu.pb4.polymer.core.api.item.PolymerItem;
 import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
@@ -9,9 +12,11 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.EntitySpawnReason;
 import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.ItemStack;
@@ -45,11 +50,23 @@ public class ZombieNetItem extends Item implements PolymerItem {
         if (entities != null && !entities.isEmpty()) {
             
             if (!level.isClientSide() && level instanceof ServerLevel serverLevel) {
+                long start = HandlerTimings.start();
+
+                // Refuse (or move) the release if the target chunk is already crowded
+                ReleaseGuard.Decision decision = ReleaseGuard.check(
+                        serverLevel, context.getClickedPos().relative(context.getClickedFace()));
+                if (!decision.allowed()) {
+                    if (context.getPlayer() instanceof ServerPlayer sp) {
+                        sp.sendSystemMessage(Component.literal(decision.describe()), true);
+                    }
+                    HandlerTimings.stop(HandlerTimings.Handler.NET_RELEASE, start);
+                    return InteractionResult.FAIL;
+                }
                 
                 List<CompoundTag> newList = new ArrayList<>(entities);
                 CompoundTag nbt = newList.remove(newList.size() - 1);
 
-                BlockPos pos = context.getClickedPos().relative(context.getClickedFace());
+                BlockPos pos = decision.pos();
 
                 EntityType.loadEntityRecursive(nbt, serverLevel, EntitySpawnReason.COMMAND, (entity) -> {
                     entity.snapTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, entity.getYRot(), entity.getXRot());
@@ -65,8 +82,10 @@ public class ZombieNetItem extends Item implements PolymerItem {
                 
                 if (context.getPlayer() instanceof ServerPlayer sp) {
                     sp.sendSystemMessage(Component.literal(
-                            "Zombie liberado! (" + newList.size() + "/" + VillagersCatch.MAX_ENTITIES + ")"), true);
+                            "Zombie liberado! (" + newList.size() + "/" + VillagersCatch.maxEntities() + ") - " +
+                            decision.describe()), true);
                 }
+                HandlerTimings.stop(HandlerTimings.Handler.NET_RELEASE, start);
             }
 
             return InteractionResult.SUCCESS;
@@ -75,6 +94,21 @@ public class ZombieNetItem extends Item implements PolymerItem {
         return super.useOn(context);
     }
 
+    /**
+     * Right-click in the air with a full net: list its contents (see NetContentsMenu).
+     */
+    @Override
+    public InteractionResult use(Level level, Player player, InteractionHand hand) {
+        List<CompoundTag> entities = player.getItemInHand(hand).get(ModComponents.CAPTURED_ZOMBIES);
+        if (entities == null || entities.isEmpty()) {
+            return super.use(level, player, hand);
+        }
+        if (player instanceof ServerPlayer sp) {
+            NetContentsMenu.open(sp, hand, CaptureProfiles.NetType.ZOMBIE);
+        }
+        return InteractionResult.SUCCESS;
+    }
+
     @Override
     public void appendHoverText(ItemStack stack, TooltipContext context, TooltipDisplay displayComponent, Consumer<Component> textConsumer, TooltipFlag type) {
         List<CompoundTag> entities = stack.get(ModComponents.CAPTURED_ZOMBIES);
@@ -82,6 +116,7 @@ public class ZombieNetItem extends Item implements PolymerItem {
         if (entities != null && !entities.isEmpty()) {
             textConsumer.accept(Component.literal(
                     "Contiene " + entities.size() + " Zombie(s)").withStyle(ChatFormatting.RED));
+            textConsumer.accept(Component.literal("Clic derecho al aire: ver contenido").withStyle(ChatFormatting.GRAY));
         } else {
             textConsumer.accept(Component.literal("Vacio").withStyle(ChatFormatting.GRAY));
         }
@@ -0,0 +1,49 @@
+package com.moddersapptolast.mixin;
+
+import com.moddersapptolast.event.EntityChunkEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.entity.EntityAccess;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Hooks the server's per-entity section callback.
+ *
+ * Entity.setPosRaw calls onMove() whenever the entity's block position changes;
+ * it only re-files the entity when its section key changes. At HEAD the old key
+ * is still in currentSectionKey, so a chunk change is a cheap comparison.
+ * Only PersistentEntitySectionManager (server side) uses this callback.
+ */
+@Mixin(targets = "net.minecraft.world.level.entity.PersistentEntitySectionManager$Callback")
+public abstract class EntitySectionCallbackMixin {
+
+	@Shadow
+	private long currentSectionKey;
+
+	@Shadow
+	@Final
+	private EntityAccess entity;
+
+	@Inject(method = "onMove", at = @At("HEAD"))
+	private void villagerscatch$trackChunkChange(CallbackInfo ci) {
+		BlockPos pos = entity.blockPosition();
+		int fromX = SectionPos.x(currentSectionKey);
+		int fromZ = SectionPos.z(currentSectionKey);
+		int toX = SectionPos.blockToSectionCoord(pos.getX());
+		int toZ = SectionPos.blockToSectionCoord(pos.getZ());
+
+		if ((fromX != toX || fromZ != toZ)
+				&& entity instanceof Entity moved && moved.level() instanceof ServerLevel level) {
+			EntityChunkEvents.CHUNK_CHANGED.invoker().onChunkChanged(
+				level, moved, ChunkPos.asLong(fromX, fromZ), ChunkPos.asLong(toX, toZ));
+		}
+	}
+}
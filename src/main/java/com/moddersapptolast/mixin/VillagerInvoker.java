@@ -0,0 +1,18 @@
+package com.moddersapptolast.mixin;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.npc.Villager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * Access to the villager level-up, so StoredMerchant can roll the next trade
+ * tier the same way a live villager does (new VillagerData level, then
+ * updateTrades for it).
+ */
+@Mixin(Villager.class)
+public interface VillagerInvoker {
+
+	@Invoker("increaseMerchantCareer")
+	void villagerscatch$increaseMerchantCareer(ServerLevel level);
+}
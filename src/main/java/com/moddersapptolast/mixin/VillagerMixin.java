@@ -0,0 +1,104 @@
+package com.moddersapptolast.mixin;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+import com.llamalad7.mixinextras.sugar.Share;
+import com.llamalad7.mixinextras.sugar.ref.LocalBooleanRef;
+import com.moddersapptolast.event.VillagerGolemEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.SpawnUtil;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.npc.Villager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Optional;
+
+/**
+ * Hooks the point where a villager summons an iron golem.
+ *
+ * Villager.spawnGolemIfNeeded(ServerLevel, long, int) is called with a quorum of 5
+ * from gossip and 3 from VillagerPanicTrigger. It bails out unless the villager
+ * wantsToSpawnGolem, then needs the quorum of ready villagers nearby, then asks
+ * SpawnUtil.trySpawnMob for a spawn position. Each exit is reported as an AttemptOutcome.
+ */
+@Mixin(Villager.class)
+public abstract class VillagerMixin {
+
+	@WrapOperation(
+		method = "spawnGolemIfNeeded",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/entity/npc/Villager;wantsToSpawnGolem(J)Z"
+		)
+	)
+	private boolean villagerscatch$traceReadiness(
+			Villager villager, long gameTime, Operation<Boolean> original,
+			@Local(argsOnly = true) ServerLevel level, @Local(argsOnly = true) int minVillagerAmount,
+			@Share("attempted") LocalBooleanRef attempted) {
+		boolean wants = original.call(villager, gameTime);
+
+		if (wants) {
+			attempted.set(true);
+		} else {
+			// wantsToSpawnGolem checks sleep first, then the golem-detected cooldown
+			boolean onCooldown = villager.getBrain().hasMemoryValue(MemoryModuleType.GOLEM_DETECTED_RECENTLY);
+			Long lastSlept = villager.getBrain().getMemory(MemoryModuleType.LAST_SLEPT).orElse(null);
+			boolean slept = lastSlept != null && level.getGameTime() - lastSlept < 24000L;
+			VillagerGolemEvents.SPAWN_ATTEMPT.invoker().onSpawnAttempt(
+				level, villager, VillagerGolemEvents.SummonReason.fromQuorum(minVillagerAmount),
+				slept && onCooldown ? VillagerGolemEvents.AttemptOutcome.GOLEM_NEARBY : VillagerGolemEvents.AttemptOutcome.NOT_SLEPT);
+		}
+
+		return wants;
+	}
+
+	@WrapOperation(
+		method = "spawnGolemIfNeeded",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/util/SpawnUtil;trySpawnMob(Lnet/minecraft/world/entity/EntityType;Lnet/minecraft/world/entity/EntitySpawnReason;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/core/BlockPos;IIILnet/minecraft/util/SpawnUtil$Strategy;Z)Ljava/util/Optional;"
+		)
+	)
+	private Optional<Mob> villagerscatch$emitGolemSummoned(
+			EntityType<Mob> entityType, EntitySpawnReason spawnReason, ServerLevel level, BlockPos pos,
+			int attempts, int range, int yOffset, SpawnUtil.Strategy strategy, boolean checkCollision,
+			Operation<Optional<Mob>> original, @Local(argsOnly = true) int minVillagerAmount,
+			@Share("spawnTried") LocalBooleanRef spawnTried) {
+		Optional<Mob> spawned = original.call(entityType, spawnReason, level, pos, attempts, range, yOffset, strategy, checkCollision);
+		spawnTried.set(true);
+
+		Villager self = (Villager) (Object) this;
+		VillagerGolemEvents.SummonReason reason = VillagerGolemEvents.SummonReason.fromQuorum(minVillagerAmount);
+		if (spawned.isPresent() && spawned.get() instanceof IronGolem golem) {
+			VillagerGolemEvents.SPAWN_ATTEMPT.invoker().onSpawnAttempt(
+				level, self, reason, VillagerGolemEvents.AttemptOutcome.SPAWNED);
+			VillagerGolemEvents.GOLEM_SUMMONED.invoker().onGolemSummoned(level, self, golem, reason);
+		} else {
+			VillagerGolemEvents.SPAWN_ATTEMPT.invoker().onSpawnAttempt(
+				level, self, reason, VillagerGolemEvents.AttemptOutcome.NO_SPAWN_SPACE);
+		}
+
+		return spawned;
+	}
+
+	@Inject(method = "spawnGolemIfNeeded", at = @At("RETURN"))
+	private void villagerscatch$traceMissingQuorum(
+			ServerLevel level, long gameTime, int minVillagerAmount, CallbackInfo ci,
+			@Share("attempted") LocalBooleanRef attempted, @Share("spawnTried") LocalBooleanRef spawnTried) {
+		// Wanted a golem but never reached trySpawnMob: not enough ready villagers nearby
+		if (attempted.get() && !spawnTried.get()) {
+			VillagerGolemEvents.SPAWN_ATTEMPT.invoker().onSpawnAttempt(
+				level, (Villager) (Object) this, VillagerGolemEvents.SummonReason.fromQuorum(minVillagerAmount),
+				VillagerGolemEvents.AttemptOutcome.NOT_ENOUGH_VILLAGERS);
+		}
+	}
+}
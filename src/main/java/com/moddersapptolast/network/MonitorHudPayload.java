@@ -0,0 +1,92 @@
+package com.moddersapptolast.network;
+
+import com.moddersapptolast.VillagersCatch;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Iron farm monitor numbers for clients that have the mod installed (they draw
+ * their own HUD; everyone else keeps getting the action bar text).
+ *
+ * Only the fields that changed since the previous payload are sent:
+ *   byte   version
+ *   varint changed-field bitmask (bit n = field n, plus STOPPED)
+ *   varint value + 1, for every set field bit, in field order
+ * Values are integers (rates and intervals in tenths) and -1 means "not
+ * available", so a typical update is 3-5 bytes. A client that does not know
+ * the version skips the payload.
+ */
+public record MonitorHudPayload(int version, int changed, int[] values) implements CustomPacketPayload {
+
+    public static final int VERSION = 1;
+
+    public static final Type<MonitorHudPayload> TYPE =
+        new Type<>(ResourceLocation.fromNamespaceAndPath(VillagersCatch.MOD_ID, "monitor_hud"));
+
+    public static final StreamCodec<FriendlyByteBuf, MonitorHudPayload> CODEC =
+        CustomPacketPayload.codec(MonitorHudPayload::write, MonitorHudPayload::read);
+
+    // Field indices (and bitmask positions)
+    public static final int GOLEMS = 0;
+    public static final int RATE_TENTHS = 1;           // golems per minute
+    public static final int LAST_INTERVAL_TENTHS = 2;  // seconds between the last two spawns
+    public static final int AVG_INTERVAL_TENTHS = 3;
+    public static final int LAST_SPAWN_AGE = 4;        // seconds; only sent when a spawn happens, the client counts up
+    public static final int READY_VILLAGERS = 5;       // from the last analysis, -1 if none
+    public static final int IRON_PER_HOUR = 6;
+    public static final int BACKLOG = 7;
+    public static final int FIELDS = 8;
+
+    // The player stopped monitoring: hide the HUD
+    public static final int STOPPED = 1 << FIELDS;
+
+    public static MonitorHudPayload update(int changed, int[] values) {
+        return new MonitorHudPayload(VERSION, changed, values);
+    }
+
+    public static MonitorHudPayload stopped() {
+        return new MonitorHudPayload(VERSION, STOPPED, new int[FIELDS]);
+    }
+
+    public boolean has(int field) {
+        return (changed & (1 << field)) != 0;
+    }
+
+    public boolean isStopped() {
+        return (changed & STOPPED) != 0;
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeByte(version);
+        buf.writeVarInt(changed);
+        for (int field = 0; field < FIELDS; field++) {
+            if (has(field)) {
+                buf.writeVarInt(values[field] + 1);
+            }
+        }
+    }
+
+    private static MonitorHudPayload read(FriendlyByteBuf buf) {
+        int version = buf.readUnsignedByte();
+        if (version != VERSION) {
+            buf.skipBytes(buf.readableBytes());
+            return new MonitorHudPayload(version, 0, new int[FIELDS]);
+        }
+
+        int changed = buf.readVarInt();
+        int[] values = new int[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            if ((changed & (1 << field)) != 0) {
+                values[field] = buf.readVarInt() - 1;
+            }
+        }
+        return new MonitorHudPayload(version, changed, values);
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,200 @@
+package com.moddersapptolast.perf;
+
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Opt-in wall-clock timings of the mod's event handlers, grouped per server tick.
+ *
+ * Disabled by default: start() is then a single boolean check and stop() does
+ * nothing. Enable it with -Dvillagerscatch.profileHandlers=true or setEnabled(true)
+ * (the gametest load suite does the latter).
+ *
+ * Usage at a handler:
+ *   long start = HandlerTimings.start();
+ *   ...work...
+ *   HandlerTimings.stop(HandlerTimings.Handler.GOLEM_SUMMONED, start);
+ *
+ * A tick window is closed at START_SERVER_TICK, so everything the mod did between
+ * two tick starts counts towards one tick. Server thread only.
+ */
+public final class HandlerTimings {
+
+    /**
+     * Instrumented handlers.
+     */
+    public enum Handler {
+        MONITOR_TICK,        // IronFarmMonitor action bar / follow update
+        GOLEM_SUMMONED,      // Spawn fan-out to farm sessions
+        SPAWN_ATTEMPT,       // Attempt tracing
+        GOLEM_DEATH,         // Iron output accounting
+        CACHE_INVALIDATION,  // FarmAnalysisCache entity load/unload
+        FARM_ANALYSIS,       // Analysis cache misses (main-thread villager snapshot)
+        DISCOVERY_TICK,      // FarmDiscovery snapshot slice
+        NET_CAPTURE,         // Villager/zombie net capture
+        NET_RELEASE;         // Villager/zombie net release
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String ENABLE_PROPERTY = "villagerscatch.profileHandlers";
+    private static final int MAX_TICKS_KEPT = 72_000; // One hour of per-tick totals
+
+    private static final int HANDLERS = Handler.values().length;
+    private static final long[] calls = new long[HANDLERS];
+    private static final long[] totalNanos = new long[HANDLERS];
+    private static final long[] tickNanos = new long[HANDLERS];    // Current tick window
+    private static final long[] maxTickNanos = new long[HANDLERS]; // Worst tick per handler
+
+    // Sum of all handlers per closed tick window
+    private static final LongArrayList tickTotals = new LongArrayList();
+
+    private static boolean enabled = Boolean.getBoolean(ENABLE_PROPERTY);
+
+    private HandlerTimings() {}
+
+    /**
+     * Registers the tick window boundary.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if (enabled) {
+                closeTick();
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> reset());
+    }
+
+    /**
+     * Starts timing a handler call.
+     *
+     * @return start timestamp to pass to stop(), or 0 when profiling is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Ends timing a handler call started with start().
+     */
+    public static void stop(Handler handler, long start) {
+        if (start == 0L) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        int i = handler.ordinal();
+        calls[i]++;
+        totalNanos[i] += elapsed;
+        tickNanos[i] += elapsed;
+    }
+
+    private static void closeTick() {
+        long total = 0;
+        for (int i = 0; i < HANDLERS; i++) {
+            total += tickNanos[i];
+            maxTickNanos[i] = Math.max(maxTickNanos[i], tickNanos[i]);
+            tickNanos[i] = 0;
+        }
+        if (tickTotals.size() < MAX_TICKS_KEPT) {
+            tickTotals.add(total);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Clears all counters and tick windows.
+     */
+    public static void reset() {
+        Arrays.fill(calls, 0);
+        Arrays.fill(totalNanos, 0);
+        Arrays.fill(tickNanos, 0);
+        Arrays.fill(maxTickNanos, 0);
+        tickTotals.clear();
+    }
+
+    // ============ Results ============
+
+    public static int getTicks() {
+        return tickTotals.size();
+    }
+
+    public static long getCalls(Handler handler) {
+        return calls[handler.ordinal()];
+    }
+
+    public static long getTotalNanos(Handler handler) {
+        return totalNanos[handler.ordinal()];
+    }
+
+    public static long getMaxTickNanos(Handler handler) {
+        return maxTickNanos[handler.ordinal()];
+    }
+
+    /**
+     * Mean time per tick spent in all handlers.
+     */
+    public static double getMeanTickNanos() {
+        if (tickTotals.isEmpty()) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < tickTotals.size(); i++) {
+            sum += tickTotals.getLong(i);
+        }
+        return (double) sum / tickTotals.size();
+    }
+
+    /**
+     * Percentile (0-100) of the time per tick spent in all handlers.
+     */
+    public static long getPercentileTickNanos(double percentile) {
+        if (tickTotals.isEmpty()) {
+            return 0;
+        }
+        long[] sorted = tickTotals.toLongArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Machine-readable snapshot of all counters.
+     */
+    public static JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("ticks", getTicks());
+        json.addProperty("mean_tick_nanos", Math.round(getMeanTickNanos()));
+        json.addProperty("p50_tick_nanos", getPercentileTickNanos(50));
+        json.addProperty("p99_tick_nanos", getPercentileTickNanos(99));
+        json.addProperty("max_tick_nanos", getPercentileTickNanos(100));
+
+        JsonObject handlers = new JsonObject();
+        for (Handler handler : Handler.values()) {
+            int i = handler.ordinal();
+            JsonObject entry = new JsonObject();
+            entry.addProperty("calls", calls[i]);
+            entry.addProperty("total_nanos", totalNanos[i]);
+            entry.addProperty("mean_call_nanos", calls[i] == 0 ? 0 : totalNanos[i] / calls[i]);
+            entry.addProperty("max_tick_nanos", maxTickNanos[i]);
+            handlers.add(handler.key(), entry);
+        }
+        json.add("handlers", handlers);
+        return json;
+    }
+}
@@ -0,0 +1,230 @@
+package com.moddersapptolast.task;
+
+import com.moddersapptolast.VillagersCatch;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Execution layer for work that must not run on the server thread.
+ *
+ * - io(): virtual thread per task, for blocking persistence/export/compression
+ * - cpu(): bounded pool of platform threads (half the cores, queue of 256), for
+ *   pure computation on snapshots; a full queue fails the future instead of
+ *   blocking or running on the caller
+ * - mainThread(): lock-free MPSC queue drained at END_SERVER_TICK, to apply
+ *   results back to the world
+ *
+ * Workers must never touch the world directly: copy what they need on the server
+ * thread first, and hand results back through mainThread().
+ *
+ * Pools are created at SERVER_STARTING and shut down at SERVER_STOPPING, giving
+ * queued I/O a few seconds to finish (so exports and saves are not cut short).
+ */
+public final class ModExecutors {
+
+    private static final int CPU_QUEUE_CAPACITY = 256;
+    private static final long MAIN_DRAIN_NANOS = 1_000_000L;  // Max time applying results per tick
+    private static final long IO_SHUTDOWN_SECONDS = 10;
+    private static final long CPU_SHUTDOWN_SECONDS = 2;
+
+    private static final ConcurrentLinkedQueue<Runnable> mainQueue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger mainPending = new AtomicInteger();
+    private static final AtomicInteger ioActive = new AtomicInteger();
+
+    private static volatile ExecutorService ioExecutor = null;
+    private static volatile ThreadPoolExecutor cpuExecutor = null;
+    private static volatile boolean accepting = false;
+
+    private static final Executor IO = task -> {
+        ExecutorService executor = ioExecutor;
+        if (executor == null) {
+            throw new RejectedExecutionException("Server is not running");
+        }
+        ioActive.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    ioActive.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            ioActive.decrementAndGet();
+            throw e;
+        }
+    };
+
+    private static final Executor CPU = task -> {
+        ThreadPoolExecutor executor = cpuExecutor;
+        if (executor == null) {
+            throw new RejectedExecutionException("Server is not running");
+        }
+        executor.execute(task);
+    };
+
+    private static final Executor MAIN = task -> {
+        if (!accepting) {
+            throw new RejectedExecutionException("Server is not running");
+        }
+        mainQueue.add(task);
+        mainPending.incrementAndGet();
+    };
+
+    private ModExecutors() {}
+
+    /**
+     * Registers pool lifecycle and the main-thread drain.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> start());
+        ServerTickEvents.END_SERVER_TICK.register(server -> drainMainQueue());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> shutdown());
+    }
+
+    private static void start() {
+        AtomicInteger cpuThreads = new AtomicInteger();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        cpuExecutor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(CPU_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "VillagersCatch-CPU-" + cpuThreads.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+        cpuExecutor.allowCoreThreadTimeOut(true);
+        ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("VillagersCatch-IO-", 0).factory());
+        accepting = true;
+    }
+
+    private static void shutdown() {
+        accepting = false;
+        ExecutorService io = ioExecutor;
+        ThreadPoolExecutor cpu = cpuExecutor;
+        ioExecutor = null;
+        cpuExecutor = null;
+
+        if (cpu != null) {
+            cpu.shutdown();
+            awaitOrInterrupt(cpu, CPU_SHUTDOWN_SECONDS, "CPU");
+        }
+        if (io != null) {
+            io.shutdown();
+            awaitOrInterrupt(io, IO_SHUTDOWN_SECONDS, "I/O");
+        }
+
+        // Results arriving after the last tick have no world left to apply to
+        mainQueue.clear();
+        mainPending.set(0);
+    }
+
+    private static void awaitOrInterrupt(ExecutorService executor, long seconds, String name) {
+        try {
+            if (!executor.awaitTermination(seconds, TimeUnit.SECONDS)) {
+                VillagersCatch.LOGGER.warn("{} tasks still running after {}s, interrupting", name, seconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies queued results on the server thread, within a small time budget.
+     * Whatever does not fit runs next tick, in submission order.
+     */
+    private static void drainMainQueue() {
+        if (mainQueue.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + MAIN_DRAIN_NANOS;
+        Runnable task;
+        while (System.nanoTime() < deadline && (task = mainQueue.poll()) != null) {
+            mainPending.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                VillagersCatch.LOGGER.error("Main thread task failed", e);
+            }
+        }
+    }
+
+    // ============ Executors ============
+
+    /**
+     * Executor for blocking I/O (one virtual thread per task).
+     */
+    public static Executor io() {
+        return IO;
+    }
+
+    /**
+     * Executor for CPU-bound work on snapshots (bounded platform pool).
+     */
+    public static Executor cpu() {
+        return CPU;
+    }
+
+    /**
+     * Executor that runs tasks on the server thread at the end of a tick.
+     */
+    public static Executor mainThread() {
+        return MAIN;
+    }
+
+    /**
+     * Runs a computation on the CPU pool. A rejected submission fails the future.
+     */
+    public static <T> CompletableFuture<T> supplyCpu(Supplier<T> work) {
+        return supply(work, CPU);
+    }
+
+    /**
+     * Runs blocking work on a virtual thread. A rejected submission fails the future.
+     */
+    public static <T> CompletableFuture<T> supplyIo(Supplier<T> work) {
+        return supply(work, IO);
+    }
+
+    private static <T> CompletableFuture<T> supply(Supplier<T> work, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // ============ Metrics ============
+
+    public static int getIoActive() {
+        return ioActive.get();
+    }
+
+    public static int getCpuQueued() {
+        ThreadPoolExecutor executor = cpuExecutor;
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    public static int getCpuActive() {
+        ThreadPoolExecutor executor = cpuExecutor;
+        return executor != null ? executor.getActiveCount() : 0;
+    }
+
+    public static int getMainPending() {
+        return mainPending.get();
+    }
+}
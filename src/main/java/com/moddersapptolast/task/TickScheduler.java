@@ -0,0 +1,386 @@
+package com.moddersapptolast.task;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import com.moddersapptolast.VillagersCatch;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Cooperative scheduler for all deferred mod work, run at END_SERVER_TICK.
+ *
+ * - Tasks are prioritized (HIGH, NORMAL, LOW) and resumable: a task runs in slices
+ *   and returns false until it is done, keeping its own progress between ticks
+ * - All tasks together get one per-tick nanosecond budget; HIGH tasks are served
+ *   first, tasks of the same priority round-robin
+ * - The budget tightens linearly as the server's average MSPT climbs from 30 to 50 ms
+ * - At least one slice runs per tick. While HIGH work keeps the budget busy that
+ *   slice goes to HIGH tasks, so a task that has waited STARVATION_TICKS without
+ *   a slice is aged: it runs one slice first thing next tick, whatever its priority
+ * - A slice that throws is logged and its task dropped; the server tick goes on
+ *   (a repeating action is queued again at its next interval)
+ *
+ * All access happens on the server thread.
+ */
+public final class TickScheduler {
+
+    public enum Priority {
+        HIGH,    // Player-facing updates (action bars, command replies)
+        NORMAL,  // Regular background work
+        LOW      // Bulk scans and reports
+    }
+
+    /**
+     * One slice of resumable work.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Runs until the work is done or System.nanoTime() passes the deadline.
+         *
+         * @return true when finished, false to be resumed next tick
+         */
+        boolean run(MinecraftServer server, long deadlineNanos);
+    }
+
+    private static final long BASE_BUDGET_NANOS = 2_000_000L;   // 2 ms per tick when the server is healthy
+    private static final long MIN_BUDGET_NANOS = 250_000L;      // 0.25 ms per tick when it is lagging
+    private static final long RELAXED_MSPT_NANOS = 30_000_000L; // Full budget up to 30 ms/tick
+    private static final long STRAINED_MSPT_NANOS = 50_000_000L; // Minimum budget from 50 ms/tick
+    private static final int STARVATION_TICKS = 20;              // Longest wait for a slice (1 second)
+
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<ScheduledTask>[] queues = new ArrayDeque[Priority.values().length];
+    private static final List<Repeating> repeating = new ArrayList<>();
+
+    // Metrics (shown with /villagerscatch scheduler)
+    private static long lastBudgetNanos = BASE_BUDGET_NANOS;
+    private static long lastUsedNanos = 0;
+    private static double averageUsedNanos = 0;  // Exponential moving average
+    private static long slicesRun = 0;
+    private static long tasksCompleted = 0;
+    private static long tasksFailed = 0;
+    private static long agedSlices = 0;          // Slices granted to tasks that hit STARVATION_TICKS
+    private static long deferredTicks = 0;       // Ticks that ended with work still queued
+    private static long deferredSlices = 0;      // Queued tasks left over, summed over those ticks
+
+    static {
+        for (Priority priority : Priority.values()) {
+            queues[priority.ordinal()] = new ArrayDeque<>();
+        }
+    }
+
+    private TickScheduler() {}
+
+    /**
+     * Handle of a submitted task.
+     */
+    public static final class ScheduledTask {
+        private final String name;
+        private final Priority priority;
+        private final Task task;
+        private final long submittedTick;
+        private long lastSliceTick;              // Submission tick until the first slice runs
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        private ScheduledTask(String name, Priority priority, Task task, long submittedTick) {
+            this.name = name;
+            this.priority = priority;
+            this.task = task;
+            this.submittedTick = submittedTick;
+            this.lastSliceTick = submittedTick;
+        }
+
+        /**
+         * Stops the task before its next slice.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+    }
+
+    private static final class Repeating {
+        final String name;
+        final Priority priority;
+        final IntSupplier intervalTicks;
+        final Consumer<MinecraftServer> action;
+        ScheduledTask pending = null;
+
+        Repeating(String name, Priority priority, IntSupplier intervalTicks, Consumer<MinecraftServer> action) {
+            this.name = name;
+            this.priority = priority;
+            this.intervalTicks = intervalTicks;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Registers the scheduler tick.
+     * Called from main mod initializer, before any system that schedules work.
+     */
+    public static void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(TickScheduler::tick);
+
+        // Drop queued work between integrated server sessions (repeating tasks stay registered)
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+    }
+
+    /**
+     * Queues a resumable task.
+     */
+    public static ScheduledTask submit(MinecraftServer server, String name, Priority priority, Task task) {
+        ScheduledTask scheduled = new ScheduledTask(name, priority, task, server.getTickCount());
+        queues[priority.ordinal()].add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Registers a short action that is queued every intervalTicks ticks for the
+     * lifetime of the mod. If the budget runs out it is delayed, never queued twice.
+     */
+    public static void repeat(String name, Priority priority, int intervalTicks, Consumer<MinecraftServer> action) {
+        repeat(name, priority, () -> intervalTicks, action);
+    }
+
+    /**
+     * Same as above, with an interval read every tick (e.g. from the config).
+     */
+    public static void repeat(String name, Priority priority, IntSupplier intervalTicks, Consumer<MinecraftServer> action) {
+        repeating.add(new Repeating(name, priority, intervalTicks, action));
+    }
+
+    private static void tick(MinecraftServer server) {
+        int tickCount = server.getTickCount();
+        for (Repeating entry : repeating) {
+            int interval = Math.max(1, entry.intervalTicks.getAsInt());
+            if (tickCount % interval == 0 && (entry.pending == null || entry.pending.done)) {
+                entry.pending = submit(server, entry.name, entry.priority, (s, deadline) -> {
+                    entry.action.accept(s);
+                    return true;
+                });
+            }
+        }
+
+        long budget = computeBudget(server.getAverageTickTimeNanos());
+        long start = System.nanoTime();
+        long deadline = start + budget;
+        boolean first = true;
+
+        // Aging: the task waiting longest past STARVATION_TICKS takes this tick's guaranteed slice
+        ScheduledTask starving = findStarving(tickCount);
+        if (starving != null) {
+            ArrayDeque<ScheduledTask> queue = queues[starving.priority.ordinal()];
+            queue.remove(starving);
+            agedSlices++;
+            if (!runSlice(server, starving, deadline, tickCount)) {
+                queue.add(starving);
+            }
+            first = false;
+        }
+
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            // Each task present at the start gets at most one slice per tick
+            int slices = queue.size();
+            while (slices-- > 0 && (first || System.nanoTime() < deadline)) {
+                ScheduledTask scheduled = queue.poll();
+                if (scheduled.lastSliceTick == tickCount && !scheduled.cancelled) {
+                    // Already had its aged slice this tick
+                    queue.add(scheduled);
+                    continue;
+                }
+                first = false;
+                if (!runSlice(server, scheduled, deadline, tickCount)) {
+                    queue.add(scheduled);
+                }
+            }
+        }
+
+        lastBudgetNanos = budget;
+        lastUsedNanos = System.nanoTime() - start;
+        averageUsedNanos = averageUsedNanos * 0.95 + lastUsedNanos * 0.05;
+
+        int left = getQueueDepth();
+        if (left > 0) {
+            deferredTicks++;
+            deferredSlices += left;
+        }
+    }
+
+    /**
+     * Runs one slice of the task. Returns true once it is no longer queued
+     * (finished, cancelled or failed).
+     */
+    private static boolean runSlice(MinecraftServer server, ScheduledTask scheduled, long deadline, int tickCount) {
+        if (scheduled.cancelled) {
+            scheduled.done = true;
+            return true;
+        }
+
+        slicesRun++;
+        scheduled.lastSliceTick = tickCount;
+        boolean finished;
+        try {
+            finished = scheduled.task.run(server, deadline);
+        } catch (RuntimeException e) {
+            VillagersCatch.LOGGER.error("Scheduled task '{}' failed and was dropped", scheduled.name, e);
+            scheduled.done = true;
+            tasksFailed++;
+            return true;
+        }
+        if (finished) {
+            scheduled.done = true;
+            tasksCompleted++;
+        }
+        return finished;
+    }
+
+    /**
+     * The queued task that has gone longest without a slice, if that is at least
+     * STARVATION_TICKS, else null.
+     */
+    private static ScheduledTask findStarving(int tickCount) {
+        ScheduledTask oldest = null;
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            for (ScheduledTask scheduled : queue) {
+                if (tickCount - scheduled.lastSliceTick >= STARVATION_TICKS
+                        && (oldest == null || scheduled.lastSliceTick < oldest.lastSliceTick)) {
+                    oldest = scheduled;
+                }
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Full budget while the server is healthy, shrinking linearly to the minimum as MSPT rises.
+     */
+    static long computeBudget(long averageTickNanos) {
+        if (averageTickNanos <= RELAXED_MSPT_NANOS) {
+            return BASE_BUDGET_NANOS;
+        }
+        if (averageTickNanos >= STRAINED_MSPT_NANOS) {
+            return MIN_BUDGET_NANOS;
+        }
+        double strain = (double) (averageTickNanos - RELAXED_MSPT_NANOS) / (STRAINED_MSPT_NANOS - RELAXED_MSPT_NANOS);
+        return BASE_BUDGET_NANOS - (long) ((BASE_BUDGET_NANOS - MIN_BUDGET_NANOS) * strain);
+    }
+
+    private static void clear() {
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            for (ScheduledTask scheduled : queue) {
+                scheduled.cancelled = true;
+            }
+            queue.clear();
+        }
+        for (Repeating entry : repeating) {
+            entry.pending = null;
+        }
+        lastBudgetNanos = BASE_BUDGET_NANOS;
+        lastUsedNanos = 0;
+        averageUsedNanos = 0;
+        slicesRun = 0;
+        tasksCompleted = 0;
+        tasksFailed = 0;
+        agedSlices = 0;
+        deferredTicks = 0;
+        deferredSlices = 0;
+    }
+
+    // ============ Metrics ============
+
+    public static int getQueueDepth(Priority priority) {
+        return queues[priority.ordinal()].size();
+    }
+
+    public static int getQueueDepth() {
+        int depth = 0;
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Ticks the oldest queued task has been waiting, or 0 if nothing is queued.
+     */
+    public static long getOldestWaitTicks(MinecraftServer server) {
+        long oldest = Long.MAX_VALUE;
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            for (ScheduledTask scheduled : queue) {
+                oldest = Math.min(oldest, scheduled.submittedTick);
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0 : server.getTickCount() - oldest;
+    }
+
+    /**
+     * Names of the queued tasks, highest priority first.
+     */
+    public static List<String> getQueuedTaskNames() {
+        List<String> names = new ArrayList<>();
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            for (ScheduledTask scheduled : queue) {
+                names.add(scheduled.name);
+            }
+        }
+        return names;
+    }
+
+    public static int getRepeatingCount() {
+        return repeating.size();
+    }
+
+    public static long getLastBudgetNanos() {
+        return lastBudgetNanos;
+    }
+
+    public static long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    public static double getAverageUsedNanos() {
+        return averageUsedNanos;
+    }
+
+    public static long getSlicesRun() {
+        return slicesRun;
+    }
+
+    public static long getTasksCompleted() {
+        return tasksCompleted;
+    }
+
+    public static long getTasksFailed() {
+        return tasksFailed;
+    }
+
+    public static long getAgedSlices() {
+        return agedSlices;
+    }
+
+    public static long getDeferredTicks() {
+        return deferredTicks;
+    }
+
+    public static long getDeferredSlices() {
+        return deferredSlices;
+    }
+}
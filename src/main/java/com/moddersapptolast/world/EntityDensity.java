@@ -0,0 +1,163 @@
+package com.moddersapptolast.world;
+
+import com.moddersapptolast.event.EntityChunkEvents;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.monster.Zombie;
+import net.minecraft.world.entity.monster.ZombifiedPiglin;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Live count of mobs per loaded chunk, per dimension, with separate counters
+ * for villagers, zombies (including zombie villagers, husks and drowned, but not
+ * zombified piglins, which Nether gold farms hold by the hundred) and iron
+ * golems. Each chunk also keeps the Y of the last mob that entered it, as a
+ * height to look for a teleport spot at.
+ *
+ * Maintained incrementally from entity load/unload and chunk-change events, so
+ * reading the density of any chunk is a map lookup - never an entity scan.
+ * Only Mobs are counted: they are what cramming and collision cost scale with.
+ *
+ * All access happens on the server thread.
+ */
+public final class EntityDensity {
+
+    public enum Category {
+        MOBS,
+        VILLAGERS,
+        ZOMBIES,
+        GOLEMS
+    }
+
+    private static final int CATEGORIES = Category.values().length;
+    // Extra slot after the counters: block Y of the last mob added to the chunk
+    private static final int MOB_Y = CATEGORIES;
+
+    /**
+     * Counters of one chunk, indexed by Category ordinal.
+     */
+    public record ChunkCount(int chunkX, int chunkZ, int[] counts) {
+        public int get(Category category) {
+            return counts[category.ordinal()];
+        }
+
+        /**
+         * Block Y of the last mob that entered the chunk.
+         */
+        public int mobY() {
+            return counts[MOB_Y];
+        }
+    }
+
+    private static final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<int[]>> counts = new HashMap<>();
+
+    private EntityDensity() {}
+
+    /**
+     * Registers the counters.
+     * Called from main mod initializer.
+     */
+    public static void initialize() {
+        ServerEntityEvents.ENTITY_LOAD.register((entity, level) -> {
+            if (entity instanceof Mob) {
+                add(level, entity.chunkPosition().toLong(), entity, 1);
+            }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, level) -> {
+            if (entity instanceof Mob) {
+                add(level, entity.chunkPosition().toLong(), entity, -1);
+            }
+        });
+        EntityChunkEvents.CHUNK_CHANGED.register((level, entity, fromChunk, toChunk) -> {
+            if (entity instanceof Mob) {
+                add(level, fromChunk, entity, -1);
+                add(level, toChunk, entity, 1);
+            }
+        });
+
+        // Entities unload with their levels; start clean on the next integrated server
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> counts.clear());
+    }
+
+    private static void add(ServerLevel level, long chunk, Entity entity, int delta) {
+        Long2ObjectOpenHashMap<int[]> perChunk = counts.computeIfAbsent(level.dimension(), key -> new Long2ObjectOpenHashMap<>());
+        int[] chunkCounts = perChunk.computeIfAbsent(chunk, key -> new int[CATEGORIES + 1]);
+
+        chunkCounts[Category.MOBS.ordinal()] += delta;
+        if (delta > 0) {
+            chunkCounts[MOB_Y] = entity.getBlockY();
+        }
+        if (entity instanceof Villager) {
+            chunkCounts[Category.VILLAGERS.ordinal()] += delta;
+        } else if (entity instanceof Zombie && !(entity instanceof ZombifiedPiglin)) {
+            chunkCounts[Category.ZOMBIES.ordinal()] += delta;
+        } else if (entity instanceof IronGolem) {
+            chunkCounts[Category.GOLEMS.ordinal()] += delta;
+        }
+
+        if (chunkCounts[Category.MOBS.ordinal()] <= 0) {
+            perChunk.remove(chunk);
+        }
+    }
+
+    /**
+     * Mobs currently in the given chunk.
+     */
+    public static int getMobs(ServerLevel level, int chunkX, int chunkZ) {
+        return getCount(level, chunkX, chunkZ, Category.MOBS);
+    }
+
+    public static int getCount(ServerLevel level, int chunkX, int chunkZ, Category category) {
+        Long2ObjectOpenHashMap<int[]> perChunk = counts.get(level.dimension());
+        int[] chunkCounts = perChunk == null ? null : perChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+        return chunkCounts == null ? 0 : chunkCounts[category.ordinal()];
+    }
+
+    /**
+     * The n chunks of a dimension with the most entities of the given category,
+     * densest first. Walks only chunks that currently hold mobs.
+     */
+    public static List<ChunkCount> getDensest(ResourceKey<Level> dimension, Category category, int n) {
+        Long2ObjectOpenHashMap<int[]> perChunk = counts.get(dimension);
+        if (perChunk == null || n <= 0) {
+            return List.of();
+        }
+
+        // Min-heap of the best n so far
+        Comparator<Long2ObjectMap.Entry<int[]>> byCount = Comparator.comparingInt(entry -> entry.getValue()[category.ordinal()]);
+        PriorityQueue<Long2ObjectMap.Entry<int[]>> best = new PriorityQueue<>(n + 1, byCount);
+        for (Long2ObjectMap.Entry<int[]> entry : perChunk.long2ObjectEntrySet()) {
+            if (entry.getValue()[category.ordinal()] <= 0) {
+                continue;
+            }
+            best.add(entry);
+            if (best.size() > n) {
+                best.poll();
+            }
+        }
+
+        List<ChunkCount> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Long2ObjectMap.Entry<int[]> entry = best.poll();
+            long chunk = entry.getLongKey();
+            result.add(new ChunkCount(ChunkPos.getX(chunk), ChunkPos.getZ(chunk), entry.getValue().clone()));
+        }
+        return result.reversed();
+    }
+}
@@ -0,0 +1,88 @@
+package com.moddersapptolast.world;
+
+import com.moddersapptolast.config.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides where (and whether) an entity can be released from a net, based on
+ * the live per-chunk mob counts of EntityDensity. No entity scans: at most
+ * (2 * redistributeRadius + 1)^2 map lookups, plus a SafeSpot search near the
+ * original height in the chunk a redistributed release goes to.
+ */
+public final class ReleaseGuard {
+
+    /**
+     * Where to release, or pos == null if the release is refused.
+     *
+     * @param density mobs found in the chunk that was checked first
+     */
+    public record Decision(@Nullable BlockPos pos, int density, int max, boolean redistributed) {
+
+        public boolean allowed() {
+            return pos != null;
+        }
+
+        /**
+         * Action bar text describing what the guard found.
+         */
+        public String describe() {
+            if (!allowed()) {
+                return redistributed
+                    ? "Zona saturada (" + density + " mobs) y sin sitio libre donde redistribuir"
+                    : "Zona saturada: " + density + " mobs en este chunk (max " + max + ")";
+            }
+            if (redistributed) {
+                return "Zona saturada (" + density + " mobs): liberado en " + pos.getX() + ", " + pos.getZ();
+            }
+            return density + " mobs en el chunk";
+        }
+    }
+
+    private ReleaseGuard() {}
+
+    public static Decision check(ServerLevel level, BlockPos pos) {
+        ModConfig.ReleaseGuard config = ModConfig.get().releaseGuard;
+        int chunkX = SectionPos.blockToSectionCoord(pos.getX());
+        int chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+        int density = EntityDensity.getMobs(level, chunkX, chunkZ);
+
+        if (!config.enabled || density + 1 <= config.maxMobsPerChunk) {
+            return new Decision(pos, density, config.maxMobsPerChunk, false);
+        }
+        if (!"redistribute".equals(config.mode)) {
+            return new Decision(null, density, config.maxMobsPerChunk, false);
+        }
+
+        // Least crowded loaded chunk, searching outwards ring by ring (nearest wins ties)
+        int bestX = 0;
+        int bestZ = 0;
+        int bestCount = Integer.MAX_VALUE;
+        for (int radius = 1; radius <= config.redistributeRadius; radius++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != radius || !level.hasChunk(chunkX + dx, chunkZ + dz)) {
+                        continue;
+                    }
+                    int count = EntityDensity.getMobs(level, chunkX + dx, chunkZ + dz);
+                    if (count < bestCount) {
+                        bestCount = count;
+                        bestX = chunkX + dx;
+                        bestZ = chunkZ + dz;
+                    }
+                }
+            }
+        }
+
+        if (bestCount == Integer.MAX_VALUE || bestCount + 1 > config.maxMobsPerChunk) {
+            return new Decision(null, density, config.maxMobsPerChunk, false);
+        }
+
+        // A free spot near the original height, never the top of the column (a roof,
+        // or the Nether's bedrock ceiling); refused if the chunk has none there
+        BlockPos spot = SafeSpot.find(level, bestX, bestZ, pos.getY());
+        return new Decision(spot, density, config.maxMobsPerChunk, true);
+    }
+}
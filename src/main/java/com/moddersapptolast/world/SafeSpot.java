@@ -0,0 +1,90 @@
+package com.moddersapptolast.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Finds a free spot for a mob or player inside one chunk, near a given height.
+ *
+ * Heightmaps only know the top of a column: in the Nether that is the bedrock
+ * ceiling, and anywhere else it can be a roof. This looks for a sturdy floor
+ * with two free, dry blocks above it instead, trying the columns nearest the
+ * chunk center first and heights nearest the wanted one first. At most
+ * 256 * (2 * MAX_DY + 1) positions are checked, all in an already loaded chunk.
+ */
+public final class SafeSpot {
+
+    private static final int MAX_DY = 8;
+
+    // Column offsets inside a chunk (x << 4 | z), nearest the center first
+    private static final int[] COLUMNS = buildColumns();
+
+    private SafeSpot() {}
+
+    private static int[] buildColumns() {
+        Integer[] columns = new Integer[256];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+        Arrays.sort(columns, Comparator.comparingInt(column -> {
+            int dx = (column >> 4) - 8;
+            int dz = (column & 15) - 8;
+            return dx * dx + dz * dz;
+        }));
+        return Arrays.stream(columns).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * A standing position in the chunk within MAX_DY blocks of nearY, or null if
+     * there is none (or the chunk is not loaded).
+     */
+    public static @Nullable BlockPos find(ServerLevel level, int chunkX, int chunkZ, int nearY) {
+        if (!level.hasChunk(chunkX, chunkZ)) {
+            return null;
+        }
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int column : COLUMNS) {
+            int x = SectionPos.sectionToBlockCoord(chunkX, column >> 4);
+            int z = SectionPos.sectionToBlockCoord(chunkZ, column & 15);
+            for (int step = 0; step <= 2 * MAX_DY; step++) {
+                // 0, +1, -1, +2, -2, ...
+                int dy = (step + 1) / 2 * (step % 2 == 1 ? 1 : -1);
+                int y = nearY + dy;
+                if (y - 1 < level.getMinY() || y + 1 > level.getMaxY()) {
+                    continue;
+                }
+                if (isStandable(level, pos.set(x, y, z))) {
+                    return pos.immutable();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStandable(ServerLevel level, BlockPos.MutableBlockPos pos) {
+        if (!isFree(level, pos) || !isFree(level, pos.move(Direction.UP))) {
+            return false;
+        }
+        pos.move(Direction.DOWN, 2);
+        BlockState floor = level.getBlockState(pos);
+        boolean standable = floor.isFaceSturdy(level, pos, Direction.UP) && !floor.is(Blocks.MAGMA_BLOCK);
+        pos.move(Direction.UP);
+        return standable;
+    }
+
+    private static boolean isFree(ServerLevel level, BlockPos pos) {
+        BlockState state = level.getBlockState(pos);
+        return state.getCollisionShape(level, pos).isEmpty() && state.getFluidState().isEmpty()
+            && !state.is(BlockTags.FIRE) && !state.is(Blocks.SWEET_BERRY_BUSH) && !state.is(Blocks.POWDER_SNOW);
+    }
+}